@@ -16,6 +16,7 @@
 package love.disaster.j2j.comlete;
 
 import love.disaster.j2j.core.Chainr;
+import love.disaster.j2j.core.chainr.ChainrCache;
 import love.disaster.j2j.core.chainr.instantiator.ChainrInstantiator;
 import love.disaster.j2j.utils.JsonUtils;
 import love.disaster.j2j.comlete.ChainrFactory;
@@ -27,6 +28,16 @@ import java.io.FileInputStream;
  */
 public class ChainrFactory {
 
+    // Chainr instances are immutable, so repeated loads of the same spec can share one
+    private static final ChainrCache CHAINR_CACHE = new ChainrCache();
+
+    /**
+     * @return the cache of Chainr instances built without a custom ChainrInstantiator, i.e. to read its stats
+     */
+    public static ChainrCache getChainrCache() {
+        return CHAINR_CACHE;
+    }
+
     /**
      * Builds a Chainr instance using the spec described in the data via the class path that is passed in.
      *
@@ -102,6 +113,9 @@ public class ChainrFactory {
     /**
      * The main engine in ChainrFactory for building a Chainr Instance.
      *
+     * Chainrs built with the default instantiator are shared through the ChainrCache.  A custom
+     *  instantiator may carry its own state, so those are always built fresh.
+     *
      * @param chainrInstantiator The ChainrInstantiator to use. If null it will not be used.
      * @param chainrSpec The json spec for the chainr transformation
      * @return the Chainr instance created from the chainrInstantiator and inputStream
@@ -109,7 +123,7 @@ public class ChainrFactory {
     private static Chainr getChainr( ChainrInstantiator chainrInstantiator, Object chainrSpec ) {
         Chainr chainr;
         if (chainrInstantiator == null ) {
-            chainr = Chainr.fromSpec( chainrSpec );
+            chainr = CHAINR_CACHE.get( chainrSpec );
         }
         else {
             chainr = Chainr.fromSpec( chainrSpec, chainrInstantiator );
@@ -16,11 +16,19 @@
 package love.disaster.j2j.core;
 
 import love.disaster.j2j.core.chainr.ChainrBuilder;
+import love.disaster.j2j.core.chainr.ChainrListener;
+import love.disaster.j2j.core.chainr.TransformResult;
 import love.disaster.j2j.core.chainr.instantiator.ChainrInstantiator;
 import love.disaster.j2j.core.exception.SpecException;
 import love.disaster.j2j.core.exception.TransformException;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Chainr is the JOLT mechanism for chaining {@link JoltTransform}s together. Any of the built-in JOLT
@@ -84,6 +92,16 @@ public class Chainr implements Transform, ContextualTransform {
     // The list of actual ContextualTransforms, for clients that specifically care.
     private final List<ContextualTransform> actualContextualTransforms;
 
+    // The class of the transform at each stage, as reported to the listener.
+    private final List<Class<?>> transformClasses;
+
+    // Optional observer of every stage, null (and free) unless one is installed.
+    private final ChainrListener listener;
+
+    // How many chunks (transformAll) or in flight documents (transformIterator) to hand each executor thread,
+    //  enough to even out documents of different sizes without queueing the whole batch.
+    private static final int CHUNKS_PER_THREAD = 4;
+
     public static Chainr fromSpec( Object input ) {
         return new ChainrBuilder( input ).build();
     }
@@ -111,13 +129,23 @@ public class Chainr implements Transform, ContextualTransform {
     }
 
     public Chainr( List<JoltTransform> joltTransforms ) {
+        this( joltTransforms, null );
+    }
+
+    /**
+     * @param joltTransforms the transforms to run, in order
+     * @param listener optional listener that is told about every stage of every run, may be null
+     */
+    public Chainr( List<JoltTransform> joltTransforms, ChainrListener listener ) {
 
         if ( joltTransforms == null ) {
             throw new IllegalArgumentException( "Chainr requires a list of JoltTransforms." );
         }
 
+        this.listener = listener;
         transformsList = new ArrayList<>( joltTransforms.size() );
         List<ContextualTransform> realContextualTransforms = new LinkedList<>();
+        List<Class<?>> classes = new ArrayList<>( joltTransforms.size() );
 
         for ( JoltTransform joltTransform : joltTransforms ) {
 
@@ -146,9 +174,30 @@ public class Chainr implements Transform, ContextualTransform {
             {
                 transformsList.add( new ContextualTransformAdapter( (Transform) joltTransform ) );
             }
+            classes.add( joltTransform.getClass() );
         }
 
         actualContextualTransforms = Collections.unmodifiableList( realContextualTransforms );
+        transformClasses = Collections.unmodifiableList( classes );
+    }
+
+    private Chainr( Chainr other, ChainrListener listener ) {
+        this.transformsList = other.transformsList;
+        this.actualContextualTransforms = other.actualContextualTransforms;
+        this.transformClasses = other.transformClasses;
+        this.listener = listener;
+    }
+
+    /**
+     * @param listener listener to be told about every stage of every run, or null for none
+     * @return a Chainr running the same (shared) transforms as this one, reporting to the given listener
+     */
+    public Chainr withListener( ChainrListener listener ) {
+        return new Chainr( this, listener );
+    }
+
+    public ChainrListener getListener() {
+        return listener;
     }
 
     /**
@@ -168,12 +217,12 @@ public class Chainr implements Transform, ContextualTransform {
      */
     @Override
     public Object transform( Object input, Map<String, Object> context ) {
-        return doTransform( transformsList, input, context );
+        return doTransform( 0, transformsList.size(), input, context );
     }
 
     @Override
     public Object transform( Object input ) {
-        return doTransform( transformsList, input, null );
+        return doTransform( 0, transformsList.size(), input, null );
     }
 
     /**
@@ -226,19 +275,303 @@ public class Chainr implements Transform, ContextualTransform {
             throw new TransformException( "JOLT Chainr : invalid from and to parameters : from=" + from + " to=" + to );
         }
 
-        return doTransform( transformsList.subList( from, to ), input, context );
+        return doTransform( from, to, input, context );
+    }
+
+    /**
+     * Transforms a batch of documents in parallel on the common ForkJoinPool.
+     *
+     * @param inputs JSON (Jackson-parsed) maps-of-maps objects to transform
+     * @return one result per input, in input order.  Documents that fail to transform get a failure
+     *  result rather than aborting the batch.
+     */
+    public List<TransformResult> transformAll( List<?> inputs ) {
+        return transformAll( inputs, null, ForkJoinPool.commonPool() );
+    }
+
+    /**
+     * Transforms a batch of documents in parallel on the supplied executor.
+     *
+     * The documents are split into a few contiguous chunks per thread, rather than one task per
+     *  document, so that small documents are not dominated by scheduling overhead.
+     *
+     * @param inputs JSON (Jackson-parsed) maps-of-maps objects to transform
+     * @param context optional tweaks shared by every document; it must not be modified while the batch runs
+     * @param executor runs the chunks of the batch; the calling thread waits for all of them
+     * @return one result per input, in input order
+     */
+    public List<TransformResult> transformAll( List<?> inputs, Map<String, Object> context, Executor executor ) {
+
+        final Object[] documents = inputs.toArray();
+        final TransformResult[] results = new TransformResult[ documents.length ];
+        if ( documents.length == 0 ) {
+            return Collections.emptyList();
+        }
+
+        int chunkCount = Math.min( documents.length, parallelism( executor ) * CHUNKS_PER_THREAD );
+        int chunkSize = ( documents.length + chunkCount - 1 ) / chunkCount;
+
+        List<CompletableFuture<Void>> chunks = new ArrayList<>( chunkCount );
+        for ( int start = 0; start < documents.length; start += chunkSize ) {
+            final int from = start;
+            final int to = Math.min( documents.length, start + chunkSize );
+            chunks.add( CompletableFuture.runAsync( () -> {
+                for ( int index = from; index < to; index++ ) {
+                    results[index] = transformOne( index, documents[index], context );
+                }
+            }, executor ) );
+        }
+        CompletableFuture.allOf( chunks.toArray( new CompletableFuture[0] ) ).join();
+
+        return Arrays.asList( results );
+    }
+
+    /**
+     * Lazily transforms a stream of documents in parallel on the common ForkJoinPool, keeping input order.
+     *
+     * @see #transformIterator(Iterator, Map, Executor, boolean)
+     */
+    public Stream<TransformResult> transformStream( Stream<?> inputs ) {
+        return transformStream( inputs, null, ForkJoinPool.commonPool(), true );
+    }
+
+    /**
+     * Lazily transforms a stream of documents in parallel on the supplied executor.
+     *
+     * The returned (sequential) stream pulls from the input stream as it is consumed, so only a bounded
+     *  number of documents are in flight at any time.  Closing it closes the input stream.
+     *
+     * @see #transformIterator(Iterator, Map, Executor, boolean)
+     */
+    public Stream<TransformResult> transformStream( Stream<?> inputs, Map<String, Object> context, Executor executor, boolean ordered ) {
+        Iterator<TransformResult> results = transformIterator( inputs.iterator(), context, executor, ordered );
+        return StreamSupport.stream( Spliterators.spliteratorUnknownSize( results, Spliterator.NONNULL | ( ordered ? Spliterator.ORDERED : 0 ) ), false )
+                .onClose( inputs::close );
+    }
+
+    /**
+     * Lazily transforms documents in parallel on the common ForkJoinPool, keeping input order.
+     *
+     * @see #transformIterator(Iterator, Map, Executor, boolean)
+     */
+    public Iterator<TransformResult> transformIterator( Iterator<?> inputs ) {
+        return transformIterator( inputs, null, ForkJoinPool.commonPool(), true );
+    }
+
+    /**
+     * Lazily transforms documents in parallel on the supplied executor.
+     *
+     * Documents are pulled from the input iterator, on the consuming thread, only as fast as results
+     *  are consumed, with at most a few documents per executor thread in flight.  This allows an
+     *  unbounded source of events to be pushed through a single shared Chainr.
+     *
+     * @param inputs JSON (Jackson-parsed) maps-of-maps objects to transform
+     * @param context optional tweaks shared by every document; it must not be modified while results are pending
+     * @param executor runs the transforms
+     * @param ordered true to get results in input order, false to get them as soon as they are done,
+     *                which keeps a slow document from holding back the ones behind it
+     * @return one result per input.  Documents that fail to transform get a failure result.
+     */
+    public Iterator<TransformResult> transformIterator( Iterator<?> inputs, Map<String, Object> context, Executor executor, boolean ordered ) {
+        int maxInFlight = parallelism( executor ) * CHUNKS_PER_THREAD;
+        if ( ordered ) {
+            return new OrderedResultIterator( inputs, context, executor, maxInFlight );
+        }
+        return new UnorderedResultIterator( inputs, context, executor, maxInFlight );
+    }
+
+    private static int parallelism( Executor executor ) {
+        if ( executor instanceof ForkJoinPool ) {
+            return Math.max( 1, ( (ForkJoinPool) executor ).getParallelism() );
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    private TransformResult transformOne( long index, Object input, Map<String, Object> context ) {
+        try {
+            return TransformResult.success( index, input, doTransform( 0, transformsList.size(), input, context ) );
+        }
+        catch ( Throwable t ) {
+            // an Error, e.g. a StackOverflowError from deeply nested input, fails this document only
+            return TransformResult.failure( index, input, t );
+        }
+    }
+
+    /**
+     * Submits documents as slots free up, and hands back their results in submission order.
+     */
+    private final class OrderedResultIterator implements Iterator<TransformResult> {
+
+        private final Iterator<?> inputs;
+        private final Map<String, Object> context;
+        private final Executor executor;
+        private final int maxInFlight;
+        private final Deque<CompletableFuture<TransformResult>> inFlight = new ArrayDeque<>();
+        private long nextIndex = 0;
+
+        private OrderedResultIterator( Iterator<?> inputs, Map<String, Object> context, Executor executor, int maxInFlight ) {
+            this.inputs = inputs;
+            this.context = context;
+            this.executor = executor;
+            this.maxInFlight = maxInFlight;
+        }
+
+        private void fill() {
+            while ( inFlight.size() < maxInFlight && inputs.hasNext() ) {
+                final long index = nextIndex++;
+                final Object input = inputs.next();
+                inFlight.add( CompletableFuture.supplyAsync( () -> transformOne( index, input, context ), executor ) );
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            return !inFlight.isEmpty();
+        }
+
+        @Override
+        public TransformResult next() {
+            if ( !hasNext() ) {
+                throw new NoSuchElementException();
+            }
+            return inFlight.poll().join();
+        }
+    }
+
+    /**
+     * Submits documents as slots free up, and hands back whichever result completes first.
+     */
+    private final class UnorderedResultIterator implements Iterator<TransformResult> {
+
+        private final Iterator<?> inputs;
+        private final Map<String, Object> context;
+        private final Executor executor;
+        private final int maxInFlight;
+        private final LinkedBlockingQueue<TransformResult> completed = new LinkedBlockingQueue<>();
+        private int inFlight = 0;
+        private long nextIndex = 0;
+
+        private UnorderedResultIterator( Iterator<?> inputs, Map<String, Object> context, Executor executor, int maxInFlight ) {
+            this.inputs = inputs;
+            this.context = context;
+            this.executor = executor;
+            this.maxInFlight = maxInFlight;
+        }
+
+        private void fill() {
+            while ( inFlight < maxInFlight && inputs.hasNext() ) {
+                final long index = nextIndex++;
+                final Object input = inputs.next();
+                executor.execute( () -> {
+                    TransformResult result;
+                    try {
+                        result = transformOne( index, input, context );
+                    }
+                    catch ( Throwable t ) {
+                        // always publish something, or the consumer would wait forever
+                        result = TransformResult.failure( index, input, t );
+                    }
+                    completed.add( result );
+                } );
+                inFlight++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            return inFlight > 0;
+        }
+
+        @Override
+        public TransformResult next() {
+            if ( !hasNext() ) {
+                throw new NoSuchElementException();
+            }
+            try {
+                TransformResult result = completed.take();
+                inFlight--;
+                return result;
+            }
+            catch ( InterruptedException ie ) {
+                Thread.currentThread().interrupt();
+                throw new TransformException( "JOLT Chainr : interrupted while waiting for a batch transform result", ie );
+            }
+        }
     }
 
-    private static Object doTransform( List<ContextualTransform> transforms, Object input, Map<String, Object> context ) {
+    private Object doTransform( int from, int to, Object input, Map<String, Object> context ) {
+
+        if ( listener != null ) {
+            return doObservedTransform( from, to, input, context );
+        }
 
         Object intermediate = input;
-        for ( ContextualTransform transform : transforms ) {
-            intermediate = transform.transform( intermediate, context );
+        for ( int stage = from; stage < to; stage++ ) {
+            intermediate = transformsList.get( stage ).transform( intermediate, context );
         }
 
         return intermediate;
     }
 
+    private Object doObservedTransform( int from, int to, Object input, Map<String, Object> context ) {
+
+        boolean trackAllocations = listener.isAllocationTrackingEnabled() && AllocationCounter.isSupported();
+
+        Object intermediate = input;
+        for ( int stage = from; stage < to; stage++ ) {
+            long allocatedBefore = trackAllocations ? AllocationCounter.currentThreadAllocatedBytes() : 0;
+            long start = System.nanoTime();
+            try {
+                intermediate = transformsList.get( stage ).transform( intermediate, context );
+            }
+            catch ( RuntimeException | Error e ) {
+                listener.stageFailed( stage, transformClasses.get( stage ), System.nanoTime() - start, e );
+                throw e;
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = trackAllocations ? AllocationCounter.currentThreadAllocatedBytes() - allocatedBefore : -1;
+            listener.stageCompleted( stage, transformClasses.get( stage ), elapsed, allocated );
+        }
+
+        return intermediate;
+    }
+
+    /**
+     * Lazily initialized holder, so that the management beans are only touched when a listener asks for allocations.
+     */
+    private static final class AllocationCounter {
+
+        private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = lookup();
+
+        private static com.sun.management.ThreadMXBean lookup() {
+            try {
+                java.lang.management.ThreadMXBean bean = java.lang.management.ManagementFactory.getThreadMXBean();
+                if ( bean instanceof com.sun.management.ThreadMXBean &&
+                        ( (com.sun.management.ThreadMXBean) bean ).isThreadAllocatedMemorySupported() ) {
+                    com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+                    if ( !sunBean.isThreadAllocatedMemoryEnabled() ) {
+                        sunBean.setThreadAllocatedMemoryEnabled( true );
+                    }
+                    return sunBean;
+                }
+            }
+            catch ( RuntimeException | LinkageError e ) {
+                // no allocation tracking on this JVM
+            }
+            return null;
+        }
+
+        private static boolean isSupported() {
+            return THREAD_MX_BEAN != null;
+        }
+
+        private static long currentThreadAllocatedBytes() {
+            return THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+        }
+    }
+
     /**
      * @return true if this Chainr instance has any ContextualTransforms
      */
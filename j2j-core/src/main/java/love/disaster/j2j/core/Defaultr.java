@@ -18,6 +18,8 @@ package love.disaster.j2j.core;
 import love.disaster.j2j.core.defaultr.Key;
 import love.disaster.j2j.core.exception.SpecException;
 import love.disaster.j2j.core.exception.TransformException;
+import love.disaster.j2j.core.trace.TransformTracer;
+import love.disaster.j2j.core.trace.TransformTracers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -236,12 +238,11 @@ public class Defaultr implements SpecDriven, Transform {
     @Override
     public Object transform( Object input ) {
 
-        logger.debug("Starting Defaultr transform, input type: {}", 
-                    input != null ? input.getClass().getSimpleName() : "null");
-        
+        TransformTracer tracer = TransformTracers.sample();
+        tracer.transformStarted( Defaultr.class, input );
+
         try {
             if ( input == null ) {
-                logger.debug("Input is null, creating new HashMap");
                 // if null, assume HashMap
                 input = new HashMap();
             }
@@ -249,22 +250,19 @@ public class Defaultr implements SpecDriven, Transform {
             // TODO : Make copy of the defaultee or like shiftr create a new output object
             if ( input instanceof List ) {
                 if  ( arrayRoot == null ) {
-                    logger.error("Defaultr transform failed: spec cannot handle top level JSON Array input");
                     throw new TransformException( "The Spec provided can not handle input that is a top level Json Array." );
                 }
-                logger.debug("Applying defaults to top-level array input");
                 arrayRoot.applyChildren( input );
             }
             else {
-                logger.debug("Applying defaults to map input");
                 mapRoot.applyChildren( input );
             }
 
-            logger.info("Defaultr transform completed successfully");
+            tracer.transformCompleted( Defaultr.class, input );
             return input;
             
         } catch (Exception e) {
-            logger.error("Defaultr transform failed: {}", e.getMessage(), e);
+            tracer.transformFailed( Defaultr.class, e );
             throw e;
         }
     }
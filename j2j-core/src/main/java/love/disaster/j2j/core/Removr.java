@@ -17,6 +17,8 @@ package love.disaster.j2j.core;
 
 import love.disaster.j2j.core.exception.SpecException;
 import love.disaster.j2j.core.spec.RemovrCompositeSpec;
+import love.disaster.j2j.core.trace.TransformTracer;
+import love.disaster.j2j.core.trace.TransformTracers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -221,22 +223,21 @@ public class Removr implements SpecDriven, Transform {
     @Override
     public Object transform( Object input ) {
 
-        logger.debug("Starting Removr transform, input type: {}", 
-                    input != null ? input.getClass().getSimpleName() : "null");
-        
+        TransformTracer tracer = TransformTracers.sample();
+        tracer.transformStarted( Removr.class, input );
+
         try {
             // Wrap the input in a map to fool the CompositeSpec to recurse itself.
             Map<String,Object> wrappedMap = new HashMap<>();
             wrappedMap.put(ROOT_KEY, input);
             
-            logger.debug("Applying Removr spec to wrapped input");
             rootSpec.applyToMap( wrappedMap );
             
-            logger.info("Removr transform completed successfully");
+            tracer.transformCompleted( Removr.class, input );
             return input;
             
         } catch (Exception e) {
-            logger.error("Removr transform failed: {}", e.getMessage(), e);
+            tracer.transformFailed( Removr.class, e );
             throw e;
         }
     }
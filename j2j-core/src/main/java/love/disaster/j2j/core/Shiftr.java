@@ -16,16 +16,28 @@
 package love.disaster.j2j.core;
 
 import love.disaster.j2j.core.common.Optional;
+import love.disaster.j2j.core.common.OutputShape;
+import love.disaster.j2j.core.common.PathEvaluatingTraversal;
 import love.disaster.j2j.core.common.tree.MatchedElement;
 import love.disaster.j2j.core.common.tree.WalkedPath;
 import love.disaster.j2j.core.exception.SpecException;
 import love.disaster.j2j.core.exception.TransformException;
+import love.disaster.j2j.core.shiftr.CompiledShiftr;
+import love.disaster.j2j.core.shiftr.ShiftrStreamWalker;
 import love.disaster.j2j.core.shiftr.spec.ShiftrCompositeSpec;
+import love.disaster.j2j.core.shiftr.spec.ShiftrLeafSpec;
+import love.disaster.j2j.core.shiftr.spec.ShiftrSpec;
+import love.disaster.j2j.core.trace.TransformTracer;
+import love.disaster.j2j.core.trace.TransformTracers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonParser;
 import jakarta.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -471,6 +483,7 @@ public class Shiftr implements SpecDriven, Transform {
     private static final String ROOT_KEY = "root";
 
     private final ShiftrCompositeSpec rootSpec;
+    private final CompiledShiftr compiledSpec;
 
     /**
      * Initialize a Shiftr transform with a Spec.
@@ -479,6 +492,21 @@ public class Shiftr implements SpecDriven, Transform {
      */
     @Inject
     public Shiftr( Object spec ) {
+        this( spec, false );
+    }
+
+    /**
+     * Initialize a Shiftr transform with a Spec, optionally compiled.
+     *
+     * A compiled Shiftr resolves every key match and write path once, here, rather than for every
+     *  document.  Only specs whose input keys are all literals (pipes allowed) and whose write paths
+     *  are made of literals and "&" references compile; any other spec is interpreted as usual,
+     *  see CompiledShiftr and isCompiled.
+     *
+     * @param compile true to compile the spec if possible
+     * @throws SpecException for a malformed spec
+     */
+    public Shiftr( Object spec, boolean compile ) {
         logger.info("Initializing Shiftr transform with spec");
         logger.debug("Shiftr constructor called with spec type: {}", 
                     spec != null ? spec.getClass().getSimpleName() : "null");
@@ -495,6 +523,8 @@ public class Shiftr implements SpecDriven, Transform {
 
         try {
             rootSpec = new ShiftrCompositeSpec( ROOT_KEY, (Map<String, Object>) spec );
+            presizeOutput( rootSpec );
+            compiledSpec = compile ? CompiledShiftr.compile( rootSpec ) : null;
             logger.info("Shiftr initialization completed successfully");
         } catch (Exception e) {
             logger.error("Shiftr initialization failed during spec processing: {}", e.getMessage(), e);
@@ -503,6 +533,39 @@ public class Shiftr implements SpecDriven, Transform {
     }
 
 
+    /**
+     * Size the Maps and Lists the output paths create, from the shape of all the output paths of the spec.
+     */
+    private static void presizeOutput( ShiftrCompositeSpec rootSpec ) {
+        List<PathEvaluatingTraversal> writers = new ArrayList<>();
+        collectWriters( rootSpec, writers );
+
+        OutputShape outputShape = new OutputShape();
+        for ( PathEvaluatingTraversal writer : writers ) {
+            writer.addTo( outputShape );
+        }
+        for ( PathEvaluatingTraversal writer : writers ) {
+            writer.presize( outputShape );
+        }
+    }
+
+    private static void collectWriters( ShiftrSpec spec, List<PathEvaluatingTraversal> writers ) {
+        if ( spec instanceof ShiftrLeafSpec ) {
+            writers.addAll( ( (ShiftrLeafSpec) spec ).getShiftrWriters() );
+            return;
+        }
+        ShiftrCompositeSpec compositeSpec = (ShiftrCompositeSpec) spec;
+        for ( ShiftrSpec child : compositeSpec.getSpecialChildren() ) {
+            collectWriters( child, writers );
+        }
+        for ( ShiftrSpec child : compositeSpec.getLiteralChildren().values() ) {
+            collectWriters( child, writers );
+        }
+        for ( ShiftrSpec child : compositeSpec.getComputedChildren() ) {
+            collectWriters( child, writers );
+        }
+    }
+
     /**
      * Applies the Shiftr transform.
      *
@@ -513,10 +576,16 @@ public class Shiftr implements SpecDriven, Transform {
      */
     @Override
     public Object transform( Object input ) {
-        logger.debug("Starting Shiftr transform, input type: {}", 
-                    input != null ? input.getClass().getSimpleName() : "null");
-        
+        TransformTracer tracer = TransformTracers.sample();
+        tracer.transformStarted( Shiftr.class, input );
+
         try {
+            if ( compiledSpec != null ) {
+                Object result = compiledSpec.transform( input );
+                tracer.transformCompleted( Shiftr.class, result );
+                return result;
+            }
+
             Map<String,Object> output = new HashMap<>();
 
             // Create a root LiteralPathElement so that # is useful at the root level
@@ -524,16 +593,82 @@ public class Shiftr implements SpecDriven, Transform {
             WalkedPath walkedPath = new WalkedPath();
             walkedPath.add( input, rootLpe );
 
-            logger.debug("Applying Shiftr root spec to input data");
             rootSpec.apply( ROOT_KEY, Optional.of( input ), walkedPath, output, null );
 
             Object result = output.get( ROOT_KEY );
-            logger.info("Shiftr transform completed successfully");
+            tracer.transformCompleted( Shiftr.class, result );
             return result;
             
         } catch (Exception e) {
-            logger.error("Shiftr transform failed, error: {}", e.getMessage(), e);
+            tracer.transformFailed( Shiftr.class, e );
+            throw new TransformException("Shiftr transform failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Applies the Shiftr transform to JSON read straight from a parser, so that the input never has
+     *  to be held in memory as a whole.  Input keys that the spec does not match are skipped, and
+     *  only the subtrees the spec writes out, or has to see as a whole, are deserialized.
+     *  See ShiftrStreamWalker for the details.
+     *
+     * Specs that look data up elsewhere in the input ("@(1,id)" keys or write paths) need the
+     *  whole input tree, so for those the input is read into a tree first, as for transform( Object ).
+     *
+     * @param parser parser positioned before, or on, the first token of the input document.
+     *               Left on the last token of that document, and not closed.
+     * @return the output object with data shifted to it
+     * @throws love.disaster.j2j.core.exception.TransformException if the input can not be parsed, or
+     * if there are issues during the transform
+     */
+    public Object transform( JsonParser parser ) {
+
+        Object input;
+        try {
+            if ( parser.currentToken() == null && parser.nextToken() == null ) {
+                throw new TransformException( "Shiftr streaming transform found no input" );
+            }
+            if ( ! isStreamable() ) {
+                return transform( ShiftrStreamWalker.readValue( parser ) );
+            }
+        }
+        catch ( IOException ioe ) {
+            throw new TransformException( "Shiftr transform failed to read its input: " + ioe.getMessage(), ioe );
+        }
+
+        TransformTracer tracer = TransformTracers.sample();
+        tracer.transformStarted( Shiftr.class, parser );
+
+        try {
+            Map<String,Object> output = new HashMap<>();
+
+            MatchedElement rootLpe = new MatchedElement( ROOT_KEY );
+            WalkedPath walkedPath = new WalkedPath();
+            walkedPath.add( null, rootLpe );
+
+            ShiftrStreamWalker.apply( rootSpec, ROOT_KEY, parser, walkedPath, output );
+
+            Object result = output.get( ROOT_KEY );
+            tracer.transformCompleted( Shiftr.class, result );
+            return result;
+
+        } catch (Exception e) {
+            tracer.transformFailed( Shiftr.class, e );
             throw new TransformException("Shiftr transform failed: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * @return true if transform( JsonParser ) can stream the input, false if it falls back
+     *  to reading the whole input into a tree
+     */
+    public boolean isStreamable() {
+        return ! rootSpec.readsInputTree();
+    }
+
+    /**
+     * @return true if this Shiftr was asked to compile its spec, and the spec could be compiled
+     */
+    public boolean isCompiled() {
+        return compiledSpec != null;
+    }
 }
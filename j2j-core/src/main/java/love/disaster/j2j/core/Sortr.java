@@ -15,8 +15,8 @@
  */
 package love.disaster.j2j.core;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import love.disaster.j2j.core.trace.TransformTracer;
+import love.disaster.j2j.core.trace.TransformTracers;
 
 import java.util.*;
 
@@ -30,8 +30,6 @@ import java.util.*;
  */
 public class Sortr implements Transform {
 
-    private static final Logger logger = LoggerFactory.getLogger(Sortr.class);
-
     /**
      * Makes a "sorted" copy of the input JSON for human readability.
      *
@@ -39,15 +37,15 @@ public class Sortr implements Transform {
      */
     @Override
     public Object transform( Object input ) {
-        logger.debug("Starting Sortr transform, input type: {}", 
-                    input != null ? input.getClass().getSimpleName() : "null");
-        
+        TransformTracer tracer = TransformTracers.sample();
+        tracer.transformStarted( Sortr.class, input );
+
         try {
             Object result = sortJson( input );
-            logger.info("Sortr transform completed successfully");
+            tracer.transformCompleted( Sortr.class, result );
             return result;
         } catch (Exception e) {
-            logger.error("Sortr transform failed: {}", e.getMessage(), e);
+            tracer.transformFailed( Sortr.class, e );
             throw e;
         }
     }
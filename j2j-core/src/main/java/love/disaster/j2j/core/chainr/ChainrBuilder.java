@@ -30,6 +30,7 @@ public class ChainrBuilder {
     private final Object chainrSpecObj;
     protected ChainrInstantiator chainrInstantiator = new DefaultChainrInstantiator();
     private ClassLoader classLoader = ChainrBuilder.class.getClassLoader();
+    private ChainrListener listener;
 
     /**
      * Initialize a Chainr to run a list of Transforms.
@@ -65,6 +66,17 @@ public class ChainrBuilder {
         return this;
     }
 
+    /**
+     * Set a ChainrListener to be told about the timing of every stage of every run.
+     * If one is not set, the Chainr does no timing at all.
+     *
+     * @param listener ChainrListener to report to, i.e. a {@link ChainrMetrics}
+     */
+    public ChainrBuilder listener( ChainrListener listener ) {
+        this.listener = listener;
+        return this;
+    }
+
     public Chainr build() {
         ChainrSpec chainrSpec = new ChainrSpec( chainrSpecObj, classLoader );
         List<JoltTransform> transforms = new ArrayList<>( chainrSpec.getChainrEntries().size() );
@@ -74,6 +86,6 @@ public class ChainrBuilder {
             transforms.add( transform );
         }
 
-        return new Chainr( transforms );
+        return new Chainr( transforms, listener );
     }
 }
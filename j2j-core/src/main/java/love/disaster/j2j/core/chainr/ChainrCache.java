@@ -0,0 +1,264 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.chainr;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import love.disaster.j2j.core.Chainr;
+import love.disaster.j2j.core.chainr.instantiator.ChainrInstantiator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of built Chainr instances, keyed by a hash of the canonical form of their spec.
+ *
+ * Building a Chainr means parsing every spec line into PathElements, sorting computed keys,
+ *  building the prefix / suffix trie that dispatches input keys to the wildcard ones, precomputing
+ *  the output paths and sizing the output containers from the shape of the spec, which is far more
+ *  expensive than running the transform itself on a small document.  Callers that receive the same
+ *  spec over and over (i.e. inline in every HTTP request) can use this to build each distinct spec
+ *  only once.
+ *
+ * The canonical form of a spec is its JSON serialization with the keys of every map sorted, so
+ *  two specs that differ only by key order or whitespace share the same Chainr.
+ *
+ * Chainr instances are immutable once built, so handing the same one to many threads is safe.
+ *  Two threads that miss on the same spec at the same time may both build it; one of them wins.
+ */
+public class ChainrCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private static final ObjectMapper CANONICAL_MAPPER = new ObjectMapper()
+            .configure( SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true );
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final int maximumSize;
+    private final Map<Key, Chainr> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ChainrCache() {
+        this( DEFAULT_MAXIMUM_SIZE );
+    }
+
+    public ChainrCache( int maximumSize ) {
+        if ( maximumSize <= 0 ) {
+            throw new IllegalArgumentException( "ChainrCache requires a positive maximumSize, got " + maximumSize );
+        }
+        this.maximumSize = maximumSize;
+
+        // access ordered, so that the eldest entry is the least recently used one
+        this.cache = new LinkedHashMap<Key, Chainr>( 16, 0.75f, true ) {
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<Key, Chainr> eldest ) {
+                if ( size() > ChainrCache.this.maximumSize ) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param chainrSpec a JSON (Jackson-parsed) Chainr spec
+     * @return a shared Chainr built from the spec
+     * @throws love.disaster.j2j.core.exception.SpecException if the spec is invalid, in which case nothing is cached
+     */
+    public Chainr get( Object chainrSpec ) {
+        return get( chainrSpec, null );
+    }
+
+    /**
+     * @param chainrSpec a JSON (Jackson-parsed) Chainr spec
+     * @param chainrInstantiator instantiator to build the Chainr with, or null for the default one.
+     *                           Instantiators are part of the cache key, compared with equals().
+     * @return a shared Chainr built from the spec
+     */
+    public Chainr get( Object chainrSpec, ChainrInstantiator chainrInstantiator ) {
+
+        String specHash = canonicalHash( chainrSpec );
+        if ( specHash == null ) {
+            // not something we can serialize, so just build it
+            misses.increment();
+            return build( chainrSpec, chainrInstantiator );
+        }
+
+        Key key = new Key( specHash, chainrInstantiator );
+        Chainr chainr;
+        synchronized ( cache ) {
+            chainr = cache.get( key );
+        }
+        if ( chainr != null ) {
+            hits.increment();
+            return chainr;
+        }
+
+        misses.increment();
+        // build outside the lock, spec compilation can be slow and should not block the hits
+        chainr = build( chainrSpec, chainrInstantiator );
+        synchronized ( cache ) {
+            Chainr existing = cache.putIfAbsent( key, chainr );
+            return existing != null ? existing : chainr;
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized ( cache ) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized ( cache ) {
+            return cache.size();
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public Stats stats() {
+        return new Stats( hits.sum(), misses.sum(), evictions.sum(), size() );
+    }
+
+    private static Chainr build( Object chainrSpec, ChainrInstantiator chainrInstantiator ) {
+        if ( chainrInstantiator == null ) {
+            return Chainr.fromSpec( chainrSpec );
+        }
+        return Chainr.fromSpec( chainrSpec, chainrInstantiator );
+    }
+
+    /**
+     * @return hex SHA-256 of the canonical JSON form of the spec, or null if it can not be serialized
+     */
+    static String canonicalHash( Object chainrSpec ) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance( "SHA-256" );
+        }
+        catch ( NoSuchAlgorithmException nsae ) {
+            throw new IllegalStateException( "SHA-256 is not available", nsae );
+        }
+
+        // stream the serialization straight into the digest, rather than building the whole String
+        try ( OutputStream out = new DigestOutputStream( OutputStream.nullOutputStream(), digest ) ) {
+            CANONICAL_MAPPER.writeValue( out, chainrSpec );
+        }
+        catch ( IOException ioe ) {
+            return null;
+        }
+
+        byte[] bytes = digest.digest();
+        char[] hex = new char[ bytes.length * 2 ];
+        for ( int index = 0; index < bytes.length; index++ ) {
+            hex[ index * 2 ] = HEX[ ( bytes[index] >> 4 ) & 0xF ];
+            hex[ index * 2 + 1 ] = HEX[ bytes[index] & 0xF ];
+        }
+        return new String( hex );
+    }
+
+    private static final class Key {
+
+        private final String specHash;
+        private final ChainrInstantiator chainrInstantiator;
+
+        private Key( String specHash, ChainrInstantiator chainrInstantiator ) {
+            this.specHash = specHash;
+            this.chainrInstantiator = chainrInstantiator;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( ! ( o instanceof Key ) ) {
+                return false;
+            }
+            Key other = (Key) o;
+            return specHash.equals( other.specHash ) &&
+                    Objects.equals( chainrInstantiator, other.chainrInstantiator );
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * specHash.hashCode() + ( chainrInstantiator == null ? 0 : chainrInstantiator.hashCode() );
+        }
+    }
+
+    /**
+     * Point in time snapshot of the cache counters.
+     */
+    public static final class Stats {
+
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final int size;
+
+        private Stats( long hitCount, long missCount, long evictionCount, int size ) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.size = size;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getRequestCount() {
+            return hitCount + missCount;
+        }
+
+        public double getHitRate() {
+            long requests = getRequestCount();
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+
+        @Override
+        public String toString() {
+            return "ChainrCache.Stats{hits=" + hitCount + ", misses=" + missCount +
+                    ", evictions=" + evictionCount + ", size=" + size + "}";
+        }
+    }
+}
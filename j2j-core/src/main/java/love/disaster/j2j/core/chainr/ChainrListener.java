@@ -0,0 +1,50 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.chainr;
+
+/**
+ * Callback for observing each stage (transform) of a Chainr run.
+ *
+ * Chainr calls the listener on the thread running the transform, once per stage, so
+ *  implementations must be thread safe and cheap; see {@link ChainrMetrics} for one that
+ *  aggregates with LongAdders.
+ *
+ * A Chainr without a listener does no timing at all.
+ */
+public interface ChainrListener {
+
+    /**
+     * @return true to have Chainr measure the bytes allocated by the current thread during each stage.
+     *  This needs a ThreadMXBean call before and after every stage, so it is off by default.
+     */
+    default boolean isAllocationTrackingEnabled() {
+        return false;
+    }
+
+    /**
+     * @param stageIndex 0 based index of the transform in the Chainr spec
+     * @param transformClass class of the transform that ran
+     * @param elapsedNanos wall clock time spent in the transform
+     * @param allocatedBytes bytes allocated by the thread during the transform, or -1 if not tracked
+     */
+    void stageCompleted( int stageIndex, Class<?> transformClass, long elapsedNanos, long allocatedBytes );
+
+    /**
+     * Called instead of stageCompleted when the transform throws.  The exception is rethrown
+     *  by Chainr after this returns.
+     */
+    void stageFailed( int stageIndex, Class<?> transformClass, long elapsedNanos, Throwable failure );
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.chainr;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ChainrListener that aggregates per stage invocation counts, failure counts, latency and
+ *  (optionally) allocated bytes.
+ *
+ * All counters are LongAdders, so many threads running the same Chainr do not contend on them.
+ *  Latencies go into a histogram with power of two microsecond buckets, which is enough to
+ *  tell which stage of a chain eats the latency budget and to estimate its percentiles.
+ *
+ * Stages are keyed by their index, so a ChainrMetrics should be installed on a single Chainr.
+ */
+public class ChainrMetrics implements ChainrListener {
+
+    // bucket i counts latencies below 2^i micros, the last bucket counts everything slower (~1 s and up)
+    private static final int BUCKET_COUNT = 22;
+
+    private final boolean trackAllocations;
+    private final ConcurrentHashMap<Integer, StageMetrics> stages = new ConcurrentHashMap<>();
+
+    public ChainrMetrics() {
+        this( false );
+    }
+
+    /**
+     * @param trackAllocations true to also record the bytes allocated by each stage
+     */
+    public ChainrMetrics( boolean trackAllocations ) {
+        this.trackAllocations = trackAllocations;
+    }
+
+    @Override
+    public boolean isAllocationTrackingEnabled() {
+        return trackAllocations;
+    }
+
+    @Override
+    public void stageCompleted( int stageIndex, Class<?> transformClass, long elapsedNanos, long allocatedBytes ) {
+        StageMetrics stage = stage( stageIndex, transformClass );
+        stage.record( elapsedNanos );
+        if ( allocatedBytes > 0 ) {
+            stage.allocatedBytes.add( allocatedBytes );
+        }
+    }
+
+    @Override
+    public void stageFailed( int stageIndex, Class<?> transformClass, long elapsedNanos, Throwable failure ) {
+        StageMetrics stage = stage( stageIndex, transformClass );
+        stage.record( elapsedNanos );
+        stage.failures.increment();
+    }
+
+    private StageMetrics stage( int stageIndex, Class<?> transformClass ) {
+        StageMetrics stage = stages.get( stageIndex );
+        if ( stage == null ) {
+            stage = stages.computeIfAbsent( stageIndex, index -> new StageMetrics( index, transformClass ) );
+        }
+        return stage;
+    }
+
+    /**
+     * @return the stages that have run so far, ordered by stage index
+     */
+    public List<StageMetrics> getStages() {
+        List<StageMetrics> result = new ArrayList<>( stages.values() );
+        result.sort( Comparator.comparingInt( StageMetrics::getStageIndex ) );
+        return result;
+    }
+
+    public void reset() {
+        stages.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder( "ChainrMetrics" );
+        for ( StageMetrics stage : getStages() ) {
+            sb.append( "\n  " ).append( stage );
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Live counters of one stage of the chain.
+     */
+    public static final class StageMetrics {
+
+        private final int stageIndex;
+        private final Class<?> transformClass;
+
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator( Math::max, 0 );
+        private final LongAdder[] latencyBuckets = new LongAdder[ BUCKET_COUNT ];
+
+        private StageMetrics( int stageIndex, Class<?> transformClass ) {
+            this.stageIndex = stageIndex;
+            this.transformClass = transformClass;
+            for ( int bucket = 0; bucket < BUCKET_COUNT; bucket++ ) {
+                latencyBuckets[bucket] = new LongAdder();
+            }
+        }
+
+        private void record( long elapsedNanos ) {
+            invocations.increment();
+            totalNanos.add( elapsedNanos );
+            maxNanos.accumulate( elapsedNanos );
+            latencyBuckets[ bucketOf( elapsedNanos ) ].increment();
+        }
+
+        private static int bucketOf( long elapsedNanos ) {
+            long micros = elapsedNanos / 1000;
+            // number of bits needed for micros, i.e. the smallest i such that micros < 2^i
+            int bucket = 64 - Long.numberOfLeadingZeros( micros );
+            return Math.min( bucket, BUCKET_COUNT - 1 );
+        }
+
+        public int getStageIndex() {
+            return stageIndex;
+        }
+
+        public Class<?> getTransformClass() {
+            return transformClass;
+        }
+
+        public long getInvocationCount() {
+            return invocations.sum();
+        }
+
+        public long getFailureCount() {
+            return failures.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+        public double getMeanNanos() {
+            long count = getInvocationCount();
+            return count == 0 ? 0.0 : (double) getTotalNanos() / count;
+        }
+
+        /**
+         * @return counts of the latency histogram, bucket i holds latencies below 2^i microseconds
+         */
+        public long[] getLatencyHistogram() {
+            long[] counts = new long[ BUCKET_COUNT ];
+            for ( int bucket = 0; bucket < BUCKET_COUNT; bucket++ ) {
+                counts[bucket] = latencyBuckets[bucket].sum();
+            }
+            return counts;
+        }
+
+        /**
+         * @param percentile between 0 and 100
+         * @return upper bound, in nanos, of the histogram bucket the percentile falls in
+         */
+        public long getLatencyPercentileNanos( double percentile ) {
+            long[] counts = getLatencyHistogram();
+            long total = 0;
+            for ( long count : counts ) {
+                total += count;
+            }
+            if ( total == 0 ) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil( total * percentile / 100.0 );
+            long seen = 0;
+            for ( int bucket = 0; bucket < BUCKET_COUNT - 1; bucket++ ) {
+                seen += counts[bucket];
+                if ( seen >= rank ) {
+                    return ( 1L << bucket ) * 1000;
+                }
+            }
+            return getMaxNanos();
+        }
+
+        @Override
+        public String toString() {
+            return "stage " + stageIndex + " " + transformClass.getSimpleName() +
+                    " : count=" + getInvocationCount() +
+                    " failures=" + getFailureCount() +
+                    " meanMicros=" + String.format( "%.1f", getMeanNanos() / 1000 ) +
+                    " p99Micros<=" + getLatencyPercentileNanos( 99 ) / 1000 +
+                    " allocatedBytes=" + getAllocatedBytes();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.chainr;
+
+/**
+ * Outcome of transforming one document of a batch with Chainr.
+ *
+ * A failing document does not abort the rest of the batch; instead its result carries the
+ *  exception, along with the original input so that it can be logged or retried.
+ */
+public final class TransformResult {
+
+    private final long index;
+    private final Object input;
+    private final Object output;
+    private final Throwable failure;
+
+    private TransformResult( long index, Object input, Object output, Throwable failure ) {
+        this.index = index;
+        this.input = input;
+        this.output = output;
+        this.failure = failure;
+    }
+
+    public static TransformResult success( long index, Object input, Object output ) {
+        return new TransformResult( index, input, output, null );
+    }
+
+    public static TransformResult failure( long index, Object input, Throwable failure ) {
+        return new TransformResult( index, input, null, failure );
+    }
+
+    /**
+     * @return 0 based position of the document in the batch input
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public Object getInput() {
+        return input;
+    }
+
+    /**
+     * @return the transformed document, null if the transform failed
+     */
+    public Object getOutput() {
+        return output;
+    }
+
+    /**
+     * @return what the transform threw, null if it succeeded
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ?
+                "TransformResult{index=" + index + ", success}" :
+                "TransformResult{index=" + index + ", failure=" + failure + "}";
+    }
+}
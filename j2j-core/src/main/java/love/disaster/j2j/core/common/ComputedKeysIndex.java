@@ -0,0 +1,203 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.common;
+
+import love.disaster.j2j.core.common.pathelement.PathElement;
+import love.disaster.j2j.core.common.pathelement.StarPathElement;
+import love.disaster.j2j.core.common.spec.BaseSpec;
+import love.disaster.j2j.core.common.tree.WalkedPath;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dispatch index over the computed children of an OrderedCompositeSpec, so that each input key
+ *  is only offered to the children that can possibly match it.
+ *
+ * Without it, every input key is offered to every computed child in turn until one of them takes
+ *  it, which with dozens of "prefix-*" and "*-suffix" siblings dominates the transform.
+ *
+ * The literal prefixes of the star children go in one trie, and their literal suffixes, reversed,
+ *  in another.  One walk down each trie along the input key yields the set of children whose
+ *  prefix and suffix both fit the key, as bitsets in the children's sorted order.  Only those, plus
+ *  the children that are not plain stars (i.e. "&" keys), are then applied, still in the order
+ *  that ComputedKeysComparator defined and still stopping at the first that takes the key.
+ *  A skipped child could not have matched, so the outcome is exactly that of the linear scan.
+ */
+public final class ComputedKeysIndex {
+
+    /**
+     * Below this many star children, the linear scan is as fast as walking the tries.
+     */
+    public static final int MIN_STAR_CHILDREN = 8;
+
+    private final BaseSpec[] children;
+    // children that are always tried, because we can not tell from their key what they match
+    private final long[] dynamic;
+    private final Node prefixes;
+    private final Node suffixes;
+
+    /**
+     * @param computedChildren computed children of a spec, in ComputedKeysComparator order
+     * @return an index over them, or null if there are too few star children for it to pay off
+     */
+    public static ComputedKeysIndex of( List<? extends BaseSpec> computedChildren ) {
+        int starChildren = 0;
+        for ( BaseSpec child : computedChildren ) {
+            if ( child.getPathElement() instanceof StarPathElement ) {
+                starChildren++;
+            }
+        }
+        if ( starChildren < MIN_STAR_CHILDREN ) {
+            return null;
+        }
+        return new ComputedKeysIndex( computedChildren );
+    }
+
+    private ComputedKeysIndex( List<? extends BaseSpec> computedChildren ) {
+        children = computedChildren.toArray( new BaseSpec[0] );
+        int words = ( children.length + 63 ) / 64;
+
+        dynamic = new long[ words ];
+        prefixes = new Node( words );
+        suffixes = new Node( words );
+
+        for ( int index = 0; index < children.length; index++ ) {
+            PathElement pathElement = children[index].getPathElement();
+            if ( pathElement instanceof StarPathElement ) {
+                StarPathElement star = (StarPathElement) pathElement;
+                prefixes.add( star.getPrefix(), false, index );
+                suffixes.add( star.getSuffix(), true, index );
+            }
+            else {
+                setBit( dynamic, index );
+            }
+        }
+    }
+
+    /**
+     * Offers the key to the children that may match it, in order, until one of them takes it.
+     */
+    public void apply( String key, Optional<Object> subInputOptional, WalkedPath walkedPath, Map<String, Object> output, Map<String, Object> context ) {
+        if ( dynamic.length == 1 ) {
+            // up to 64 children, the common case, fits in a long and allocates nothing
+            long candidates = dynamic[0] | ( prefixes.collect( key, false ) & suffixes.collect( key, true ) );
+            applyCandidates( candidates, 0, key, subInputOptional, walkedPath, output, context );
+            return;
+        }
+
+        long[] byPrefix = prefixes.collect( key, false, new long[ dynamic.length ] );
+        long[] bySuffix = suffixes.collect( key, true, new long[ dynamic.length ] );
+        for ( int word = 0; word < dynamic.length; word++ ) {
+            long candidates = dynamic[word] | ( byPrefix[word] & bySuffix[word] );
+            if ( applyCandidates( candidates, word, key, subInputOptional, walkedPath, output, context ) ) {
+                return;
+            }
+        }
+    }
+
+    private boolean applyCandidates( long candidates, int word, String key, Optional<Object> subInputOptional, WalkedPath walkedPath, Map<String, Object> output, Map<String, Object> context ) {
+        while ( candidates != 0 ) {
+            int index = word * 64 + Long.numberOfTrailingZeros( candidates );
+            if ( children[index].apply( key, subInputOptional, walkedPath, output, context ) ) {
+                return true;
+            }
+            candidates &= candidates - 1;
+        }
+        return false;
+    }
+
+    private static void setBit( long[] bits, int index ) {
+        bits[ index / 64 ] |= 1L << ( index % 64 );
+    }
+
+    /**
+     * Trie node, with the children whose literal ends at this node.
+     */
+    private static final class Node {
+
+        private char[] labels = new char[0];
+        private Node[] next = new Node[0];
+        private final long[] ending;
+
+        private Node( int words ) {
+            ending = new long[ words ];
+        }
+
+        private void add( String literal, boolean reversed, int childIndex ) {
+            Node node = this;
+            int length = literal.length();
+            for ( int offset = 0; offset < length; offset++ ) {
+                char c = literal.charAt( reversed ? length - 1 - offset : offset );
+                Node child = node.child( c );
+                if ( child == null ) {
+                    child = new Node( ending.length );
+                    node.labels = Arrays.copyOf( node.labels, node.labels.length + 1 );
+                    node.next = Arrays.copyOf( node.next, node.next.length + 1 );
+                    node.labels[ node.labels.length - 1 ] = c;
+                    node.next[ node.next.length - 1 ] = child;
+                }
+                node = child;
+            }
+            setBit( node.ending, childIndex );
+        }
+
+        private Node child( char c ) {
+            for ( int index = 0; index < labels.length; index++ ) {
+                if ( labels[index] == c ) {
+                    return next[index];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return the children whose literal is a prefix (or reversed, a suffix) of the key, single word version
+         */
+        private long collect( String key, boolean reversed ) {
+            long found = ending[0];
+            Node node = this;
+            int length = key.length();
+            for ( int offset = 0; offset < length; offset++ ) {
+                node = node.child( key.charAt( reversed ? length - 1 - offset : offset ) );
+                if ( node == null ) {
+                    break;
+                }
+                found |= node.ending[0];
+            }
+            return found;
+        }
+
+        private long[] collect( String key, boolean reversed, long[] found ) {
+            Node node = this;
+            int length = key.length();
+            for ( int offset = 0; ; offset++ ) {
+                for ( int word = 0; word < found.length; word++ ) {
+                    found[word] |= node.ending[word];
+                }
+                if ( offset == length ) {
+                    break;
+                }
+                node = node.child( key.charAt( reversed ? length - 1 - offset : offset ) );
+                if ( node == null ) {
+                    break;
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -18,6 +18,8 @@ package love.disaster.j2j.core.common;
 
 import love.disaster.j2j.core.common.spec.BaseSpec;
 import love.disaster.j2j.core.common.spec.OrderedCompositeSpec;
+import love.disaster.j2j.core.common.tree.ArrayMatchedElement;
+import love.disaster.j2j.core.common.tree.MatchedElement;
 import love.disaster.j2j.core.common.tree.WalkedPath;
 
 import java.util.List;
@@ -30,18 +32,27 @@ public enum ExecutionStrategy {
      *  than the number of potential keys to check in the input.
      *
      *  More specifically, the assumption here is that the set of literalChildren is smaller than the input "keyset".
+     *  That is checked for every input map : when the input has fewer keys than the spec has literals, the input
+     *  keys are looked up in the spec instead, so the cost is always the smaller of the two.
      */
     AVAILABLE_LITERALS {
         @Override
         void processMap( OrderedCompositeSpec spec, Map<String, Object> inputMap, WalkedPath walkedPath, Map<String, Object> output, Map<String, Object> context ) {
 
-            for( String key : spec.getLiteralChildren().keySet() ) {
+            LiteralKeys literals = spec.getLiteralKeys();
+            if ( inputMap.size() < literals.size() ) {
+                applyInputKeysToLiterals( literals, inputMap, walkedPath, output, context );
+                return;
+            }
 
-                // Do not work if the value is missing in the input map
-                if ( inputMap.containsKey( key ) ) {
+            for( int literal = 0; literal < literals.size(); literal++ ) {
+
+                String key = literals.getKey( literal );
+                Object subInput = inputMap.get( key );
 
-                    Optional<Object> subInputOptional = Optional.of( inputMap.get( key ) );
-                    spec.getLiteralChildren().get( key ).apply( key, subInputOptional, walkedPath, output, context );
+                // Do not work if the value is missing in the input map
+                if ( subInput != null || inputMap.containsKey( key ) ) {
+                    literals.getSpec( literal ).apply( key, Optional.of( subInput ), walkedPath, output, context );
                 }
             }
         }
@@ -49,34 +60,17 @@ public enum ExecutionStrategy {
         @Override
         void processList( OrderedCompositeSpec spec, List<Object> inputList, WalkedPath walkedPath, Map<String, Object> output, Map<String, Object> context ) {
 
-            Integer originalSize = walkedPath.lastElement().getOrigSize().get();
-            for( String key : spec.getLiteralChildren().keySet() ) {
-
-                int keyInt = Integer.MAX_VALUE;
+            int originalSize = originalSize( walkedPath );
+            LiteralKeys literals = spec.getLiteralKeys();
+            for( int literal = 0; literal < literals.size(); literal++ ) {
 
-                try {
-                    keyInt = Integer.parseInt( key );
-                }
-                catch( NumberFormatException nfe ) {
-                    // If the data is an Array, but the spec keys are Non-Integer Strings,
-                    //  we are annoyed, but we don't stop the whole transform.
-                    // Just this part of the Transform won't work.
-                }
+                // If the data is an Array, but the spec keys are Non-Integer Strings, they are NOT_AN_INDEX.
+                //  We are annoyed, but we don't stop the whole transform, just this part of it won't work.
+                int index = literals.getIndex( literal );
 
                 // Do not work if the index is outside of the input list
-                if ( keyInt < inputList.size() ) {
-
-                    Object subInput = inputList.get( keyInt );
-                    Optional<Object> subInputOptional;
-                    if ( subInput == null && originalSize != null && keyInt >= originalSize ) {
-                        subInputOptional = Optional.empty();
-                    }
-                    else {
-                        subInputOptional = Optional.of( subInput );
-                    }
-
-                    // we know the .get(key) will not return null, because we are iterating over its keys
-                    spec.getLiteralChildren().get( key ).apply( key, subInputOptional, walkedPath, output, context );
+                if ( index != LiteralKeys.NOT_AN_INDEX && index < inputList.size() ) {
+                    literals.getSpec( literal ).apply( literals.getKey( literal ), listElement( inputList, index, originalSize ), walkedPath, output, context );
                 }
             }
         }
@@ -101,46 +95,36 @@ public enum ExecutionStrategy {
         @Override
         void processMap( OrderedCompositeSpec spec, Map<String, Object> inputMap, WalkedPath walkedPath, Map<String, Object> output, Map<String, Object> context ) {
 
-            for( String key : spec.getLiteralChildren().keySet() ) {
+            LiteralKeys literals = spec.getLiteralKeys();
+            for( int literal = 0; literal < literals.size(); literal++ ) {
 
                 // if the input in not available in the map us null or else get value,
                 // then lookup and place a defined value from spec there
+                String key = literals.getKey( literal );
+                Object subInput = inputMap.get( key );
                 Optional<Object> subInputOptional = Optional.empty();
-                if ( inputMap.containsKey( key ) ) {
-                    subInputOptional = Optional.of( inputMap.get( key ));
+                if ( subInput != null || inputMap.containsKey( key ) ) {
+                    subInputOptional = Optional.of( subInput );
                 }
-                spec.getLiteralChildren().get( key ).apply( key, subInputOptional, walkedPath, output, context );
+                literals.getSpec( literal ).apply( key, subInputOptional, walkedPath, output, context );
             }
         }
 
         @Override
         void processList( OrderedCompositeSpec spec, List<Object> inputList, WalkedPath walkedPath, Map<String, Object> output, Map<String, Object> context ) {
 
-            Integer originalSize = walkedPath.lastElement().getOrigSize().get();
-            for( String key : spec.getLiteralChildren().keySet() ) {
-
-                int keyInt = Integer.MAX_VALUE;
-
-                try {
-                    keyInt = Integer.parseInt( key );
-                }
-                catch( NumberFormatException nfe ) {
-                    // If the data is an Array, but the spec keys are Non-Integer Strings,
-                    //  we are annoyed, but we don't stop the whole transform.
-                    // Just this part of the Transform won't work.
-                }
+            int originalSize = originalSize( walkedPath );
+            LiteralKeys literals = spec.getLiteralKeys();
+            for( int literal = 0; literal < literals.size(); literal++ ) {
 
                 // if the input in not available in the list use null or else get value,
                 // then lookup and place a default value as defined in spec there
+                int index = literals.getIndex( literal );
                 Optional<Object> subInputOptional = Optional.empty();
-                if ( keyInt < inputList.size() ) {
-                    Object subInput = inputList.get( keyInt );
-                    if ( subInput != null || originalSize == null || keyInt < originalSize ) {
-                        subInputOptional = Optional.of( subInput );
-                    }
+                if ( index != LiteralKeys.NOT_AN_INDEX && index < inputList.size() ) {
+                    subInputOptional = listElement( inputList, index, originalSize );
                 }
-                // we know the .get(key) will not return null, because we are iterating over its keys
-                spec.getLiteralChildren().get( key ).apply( key, subInputOptional, walkedPath, output, context );
+                literals.getSpec( literal ).apply( literals.getKey( literal ), subInputOptional, walkedPath, output, context );
             }
         }
 
@@ -161,32 +145,25 @@ public enum ExecutionStrategy {
 
             // Iterate over the whole entrySet rather than the keyset with follow on gets of the values
             for( Map.Entry<String, Object> inputEntry : inputMap.entrySet() ) {
-                applyKeyToComputed( spec.getComputedChildren(), walkedPath, output, inputEntry.getKey(), Optional.of( inputEntry.getValue() ), context );
+                applyKeyToComputed( spec, walkedPath, output, inputEntry.getKey(), Optional.of( inputEntry.getValue() ), context );
             }
         }
 
         @Override
         void processList( OrderedCompositeSpec spec, List<Object> inputList, WalkedPath walkedPath, Map<String, Object> output, Map<String, Object> context ) {
 
-            Integer originalSize = walkedPath.lastElement().getOrigSize().get();
+            int originalSize = originalSize( walkedPath );
             for (int index = 0; index < inputList.size(); index++) {
-                Object subInput = inputList.get( index );
                 String subKeyStr = Integer.toString( index );
-                Optional<Object> subInputOptional;
-                if ( subInput == null && originalSize != null && index >= originalSize ) {
-                    subInputOptional = Optional.empty();
-                }
-                else {
-                    subInputOptional = Optional.of( subInput );
-                }
+                Optional<Object> subInputOptional = listElement( inputList, index, originalSize );
 
-                applyKeyToComputed( spec.getComputedChildren(), walkedPath, output, subKeyStr, subInputOptional, context );
+                applyKeyToComputed( spec, walkedPath, output, subKeyStr, subInputOptional, context );
             }
         }
 
         @Override
         void processScalar( OrderedCompositeSpec spec, String scalarInput, WalkedPath walkedPath, Map<String, Object> output, Map<String, Object> context ) {
-            applyKeyToComputed( spec.getComputedChildren(), walkedPath, output, scalarInput, Optional.empty(), context );
+            applyKeyToComputed( spec, walkedPath, output, scalarInput, Optional.empty(), context );
         }
     },
 
@@ -207,17 +184,10 @@ public enum ExecutionStrategy {
         @Override
         void processList( OrderedCompositeSpec spec, List<Object> inputList, WalkedPath walkedPath, Map<String, Object> output, Map<String, Object> context ) {
 
-            Integer originalSize = walkedPath.lastElement().getOrigSize().get();
+            int originalSize = originalSize( walkedPath );
             for (int index = 0; index < inputList.size(); index++) {
-                Object subInput = inputList.get( index );
                 String subKeyStr = Integer.toString( index );
-                Optional<Object> subInputOptional;
-                if ( subInput == null && originalSize != null && index >= originalSize ) {
-                    subInputOptional = Optional.empty();
-                }
-                else {
-                    subInputOptional = Optional.of( subInput );
-                }
+                Optional<Object> subInputOptional = listElement( inputList, index, originalSize );
 
                 applyKeyToLiteralAndComputed( spec, subKeyStr, subInputOptional, walkedPath, output, context );
             }
@@ -294,6 +264,42 @@ public enum ExecutionStrategy {
     abstract void processScalar( OrderedCompositeSpec spec, String scalarInput          , WalkedPath walkedPath, Map<String,Object> output, Map<String, Object> context );
 
 
+    /**
+     * @return the size the list at the end of the walkedPath had before a Modifier padded it, or
+     *  Integer.MAX_VALUE if that was not recorded, in which case every element counts as present
+     */
+    private static int originalSize( WalkedPath walkedPath ) {
+        MatchedElement matchedElement = walkedPath.lastElement().getMatchedElement();
+        if ( matchedElement instanceof ArrayMatchedElement ) {
+            return ( (ArrayMatchedElement) matchedElement ).getOrigSize();
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Same as probing the input map for every literal, but for an input map with fewer keys than there are literals.
+     *
+     * The matching literals are applied in spec order, see LiteralKeys.positionsOf.
+     */
+    private static void applyInputKeysToLiterals( LiteralKeys literals, Map<String, Object> inputMap, WalkedPath walkedPath, Map<String, Object> output, Map<String, Object> context ) {
+
+        for ( int literal : literals.positionsOf( inputMap ) ) {
+            String key = literals.getKey( literal );
+            literals.getSpec( literal ).apply( key, Optional.of( inputMap.get( key ) ), walkedPath, output, context );
+        }
+    }
+
+    /**
+     * A null past the original size of the list is padding, not input, so it is absent rather than a null.
+     */
+    private static Optional<Object> listElement( List<Object> inputList, int index, int originalSize ) {
+        Object subInput = inputList.get( index );
+        if ( subInput == null && index >= originalSize ) {
+            return Optional.empty();
+        }
+        return Optional.of( subInput );
+    }
+
     /**
      * This is the method we are trying to avoid calling.  It implements the matching behavior
      *  when we have both literal and computed children.
@@ -314,15 +320,22 @@ public enum ExecutionStrategy {
         }
         else {
             // If no literal spec key matched, iterate through all the getComputedChildren()
-            applyKeyToComputed( spec.getComputedChildren(), walkedPath, output, subKeyStr, subInputOptional, context );
+            applyKeyToComputed( spec, walkedPath, output, subKeyStr, subInputOptional, context );
         }
     }
 
-    private static <T extends BaseSpec> void applyKeyToComputed( List<T> computedChildren, WalkedPath walkedPath, Map<String, Object> output, String subKeyStr, Optional<Object> subInputOptional, Map<String, Object> context ) {
+    private static void applyKeyToComputed( OrderedCompositeSpec spec, WalkedPath walkedPath, Map<String, Object> output, String subKeyStr, Optional<Object> subInputOptional, Map<String, Object> context ) {
+
+        // With many star children, only try the ones whose prefix and suffix fit the key
+        ComputedKeysIndex computedKeysIndex = spec.getComputedKeysIndex();
+        if ( computedKeysIndex != null ) {
+            computedKeysIndex.apply( subKeyStr, subInputOptional, walkedPath, output, context );
+            return;
+        }
 
         // Iterate through all the getComputedChildren() until we find a match
         // This relies upon the getComputedChildren() having already been sorted in priority order
-        for ( BaseSpec computedChild : computedChildren ) {
+        for ( BaseSpec computedChild : spec.getComputedChildren() ) {
             // if the computed key does not match it will quickly return false
             if ( computedChild.apply( subKeyStr, subInputOptional, walkedPath, output, context ) ) {
                 break;
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.common;
+
+import love.disaster.j2j.core.common.spec.BaseSpec;
+import love.disaster.j2j.core.utils.StringTools;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The literal children of an OrderedCompositeSpec, flattened into arrays in their iteration order,
+ *  with each key classified when the spec is built as either a list index or not.
+ *
+ * Applying a spec meant for maps to a list then costs an int compare per literal, rather than an
+ *  Integer.parseInt that throws and fills in a stack trace for every key that is not a number.
+ *
+ * Keys can also be looked up for their position, so that an input narrower than the spec can be
+ *  matched key by key, and the matches still applied in spec order, see ExecutionStrategy.
+ */
+public final class LiteralKeys {
+
+    /**
+     * Index of a key that is not a non-negative integer, and so never matches a list element.
+     */
+    public static final int NOT_AN_INDEX = -1;
+
+    /**
+     * Position of a key that is not one of the literals.
+     */
+    public static final int NOT_A_LITERAL = -1;
+
+    private final String[] keys;
+    private final BaseSpec[] specs;
+    private final int[] indexes;
+    private final Map<String, Integer> positions;
+
+    public static LiteralKeys of( Map<String, ? extends BaseSpec> literalChildren ) {
+        return new LiteralKeys( literalChildren );
+    }
+
+    private LiteralKeys( Map<String, ? extends BaseSpec> literalChildren ) {
+        int size = literalChildren.size();
+        keys = new String[ size ];
+        specs = new BaseSpec[ size ];
+        indexes = new int[ size ];
+        positions = new HashMap<>( size * 2 );
+
+        int literal = 0;
+        for ( Map.Entry<String, ? extends BaseSpec> entry : literalChildren.entrySet() ) {
+            keys[literal] = entry.getKey();
+            specs[literal] = entry.getValue();
+            indexes[literal] = StringTools.parseNonNegativeInt( entry.getKey() );
+            positions.put( entry.getKey(), literal );
+            literal++;
+        }
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public String getKey( int literal ) {
+        return keys[literal];
+    }
+
+    public BaseSpec getSpec( int literal ) {
+        return specs[literal];
+    }
+
+    /**
+     * @return the key as a list index, or NOT_AN_INDEX
+     */
+    public int getIndex( int literal ) {
+        return indexes[literal];
+    }
+
+    /**
+     * @return the position of the key amongst the literals, or NOT_A_LITERAL
+     */
+    public int positionOf( String key ) {
+        Integer literal = positions.get( key );
+        return literal == null ? NOT_A_LITERAL : literal;
+    }
+
+    /**
+     * Matches the keys of an input map that is narrower than the literals, key by key.
+     *
+     * @return the positions of the literals that are keys of the input map, in spec order rather than
+     *  input order, so that the output is the same whichever way the match was made
+     */
+    public int[] positionsOf( Map<String, ?> inputMap ) {
+        int[] matched = new int[ inputMap.size() ];
+        int matchCount = 0;
+        for ( String key : inputMap.keySet() ) {
+            int literal = positionOf( key );
+            if ( literal != NOT_A_LITERAL ) {
+                matched[matchCount++] = literal;
+            }
+        }
+        Arrays.sort( matched, 0, matchCount );
+        return matchCount == matched.length ? matched : Arrays.copyOf( matched, matchCount );
+    }
+}
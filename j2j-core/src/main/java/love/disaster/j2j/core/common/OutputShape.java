@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.common;
+
+import love.disaster.j2j.core.common.pathelement.ArrayPathElement;
+import love.disaster.j2j.core.common.pathelement.LiteralPathElement;
+import love.disaster.j2j.core.common.pathelement.PathElement;
+import love.disaster.j2j.core.traversr.traversal.TraversalStep;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The shape of the output a spec writes : a trie of all its output paths, keyed by the canonical form
+ *  of each path element, which tells how many entries each output Map or List is going to hold.
+ *
+ * For example the output paths "rating.primary.value", "rating.primary.max" and "rating.quality[3]" give
+ *  "rating" 2 entries, "primary" 2, and "quality" 4, so those containers can be created at the right size
+ *  rather than grown one rehash at a time.
+ *
+ * Only containers whose keys are all literals, or all explicit indexes, have a known size.  A container
+ *  with any key that is only known at transform time ("&1", "[#2]", "[]", "@(1,id)") keeps the default size.
+ */
+public final class OutputShape {
+
+    private final Node root = new Node();
+
+    /**
+     * @param path the elements of an output path
+     */
+    public void add( List<? extends PathElement> path ) {
+        Node node = root;
+        for ( PathElement pathElement : path ) {
+            node = node.child( pathElement );
+        }
+    }
+
+    /**
+     * @param path the elements of an output path that was added
+     * @return for each level of the path, the expected size of the container the level writes into, or
+     *  TraversalStep.UNKNOWN_SIZE.  The first level writes into the output passed in, so its size is unknown.
+     */
+    public int[] expectedSizes( List<? extends PathElement> path ) {
+        int[] sizes = new int[ path.size() ];
+        if ( sizes.length == 0 ) {
+            return sizes;
+        }
+
+        sizes[0] = TraversalStep.UNKNOWN_SIZE;
+        Node node = root;
+        for ( int depth = 1; depth < sizes.length; depth++ ) {
+            node = node.children.get( path.get( depth - 1 ).getCanonicalForm() );
+            sizes[depth] = node == null ? TraversalStep.UNKNOWN_SIZE : node.expectedSize();
+        }
+        return sizes;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new LinkedHashMap<>();
+
+        private boolean hasLiteralKeys;
+        private boolean hasIndexKeys;
+        private boolean hasComputedKeys;
+        private int maxIndex = -1;
+
+        private Node child( PathElement pathElement ) {
+
+            if ( pathElement instanceof LiteralPathElement ) {
+                hasLiteralKeys = true;
+            }
+            else if ( pathElement instanceof ArrayPathElement && ( (ArrayPathElement) pathElement ).isExplicitArrayIndex() ) {
+                hasIndexKeys = true;
+                maxIndex = Math.max( maxIndex, ( (ArrayPathElement) pathElement ).getExplicitArrayIndex() );
+            }
+            else {
+                hasComputedKeys = true;
+            }
+
+            return children.computeIfAbsent( pathElement.getCanonicalForm(), canonicalForm -> new Node() );
+        }
+
+        private int expectedSize() {
+            if ( hasComputedKeys || ( hasLiteralKeys && hasIndexKeys ) ) {
+                return TraversalStep.UNKNOWN_SIZE;
+            }
+            return hasIndexKeys ? maxIndex + 1 : children.size();
+        }
+    }
+}
@@ -15,10 +15,15 @@
  */
 package love.disaster.j2j.core.common;
 
+import love.disaster.j2j.core.common.pathelement.AmpPathElement;
+import love.disaster.j2j.core.common.pathelement.ArrayPathElement;
 import love.disaster.j2j.core.common.pathelement.EvaluatablePathElement;
+import love.disaster.j2j.core.common.pathelement.LiteralPathElement;
 import love.disaster.j2j.core.common.pathelement.PathElement;
+import love.disaster.j2j.core.common.pathelement.TransposePathElement;
 import love.disaster.j2j.core.common.tree.WalkedPath;
 import love.disaster.j2j.core.exception.SpecException;
+import love.disaster.j2j.core.traversr.TraversalKeys;
 import love.disaster.j2j.core.traversr.Traversr;
 import love.disaster.j2j.core.utils.StringTools;
 
@@ -34,12 +39,22 @@ import static love.disaster.j2j.core.common.PathElementBuilder.parseDotNotationR
  *
  * This processes the dot notation path into internal data structures, so
  *  that the String processing only happens once.
+ *
+ * Going further, a path without any references, like "rating.primary.value", is evaluated
+ *  once up front, and other paths are evaluated into scratch TraversalKeys from the WalkedPath,
+ *  with array references like "[&1]" or "[#2]" kept as ints all the way to the Traversr.
  */
 public abstract class PathEvaluatingTraversal {
 
     private final List<EvaluatablePathElement> elements;
     private final Traversr traversr;
 
+    // for every element that writes an array index, the element, else null
+    private final ArrayPathElement[] indexElements;
+
+    // the evaluated path if it has no references, else null
+    private final TraversalKeys staticKeys;
+
     public PathEvaluatingTraversal( String dotNotation ) {
 
         if ( ( dotNotation.contains("*") && ! dotNotation.contains( "\\*" ) ) ||
@@ -78,6 +93,32 @@ public abstract class PathEvaluatingTraversal {
 
         this.elements = Collections.unmodifiableList( evalPaths );
         this.traversr = trav;
+
+        indexElements = new ArrayPathElement[ evalPaths.size() ];
+        boolean isStatic = true;
+        for ( int depth = 0; depth < evalPaths.size(); depth++ ) {
+            EvaluatablePathElement pe = evalPaths.get( depth );
+            if ( pe instanceof ArrayPathElement ) {
+                ArrayPathElement ape = (ArrayPathElement) pe;
+                if ( ! ape.isAutoExpand() ) {
+                    indexElements[depth] = ape;
+                }
+                isStatic &= ape.isAutoExpand() || ape.isExplicitArrayIndex();
+            }
+            else {
+                isStatic &= pe instanceof LiteralPathElement;
+            }
+        }
+
+        if ( isStatic ) {
+            // literals and explicit indexes ignore the WalkedPath
+            TraversalKeys keys = new TraversalKeys( evalPaths.size() );
+            evaluate( null, keys );
+            staticKeys = keys;
+        }
+        else {
+            staticKeys = null;
+        }
     }
 
     protected abstract Traversr createTraversr(List<String> paths);
@@ -92,19 +133,116 @@ public abstract class PathEvaluatingTraversal {
      * @param walkedPath reference used to lookup reference values like "&1(2)"
      */
     public void write( Object data, Map<String, Object> output, WalkedPath walkedPath ) {
-        List<String> evaledPaths = evaluate( walkedPath );
-        if ( evaledPaths != null ) {
-            traversr.set( output, evaledPaths, data );
+        if ( staticKeys != null ) {
+            traversr.set( output, staticKeys, data );
+            return;
+        }
+
+        TraversalKeys keys = acquireKeys( walkedPath );
+        try {
+            if ( evaluate( walkedPath, keys ) ) {
+                traversr.set( output, keys, data );
+            }
+        }
+        finally {
+            releaseKeys( walkedPath );
         }
     }
 
+    /**
+     * Write the data to an output path evaluated beforehand with evaluateKeys.
+     */
+    public void write( Object data, Map<String, Object> output, TraversalKeys keys ) {
+        traversr.set( output, keys, data );
+    }
+
     public Optional<Object> read( Object data, WalkedPath walkedPath ) {
-        List<String> evaledPaths = evaluate( walkedPath );
-        if ( evaledPaths == null ) {
-            return Optional.empty();
+        if ( staticKeys != null ) {
+            return traversr.get( data, staticKeys );
         }
 
-        return traversr.get( data, evaledPaths );
+        TraversalKeys keys = acquireKeys( walkedPath );
+        try {
+            if ( ! evaluate( walkedPath, keys ) ) {
+                return Optional.empty();
+            }
+            return traversr.get( data, keys );
+        }
+        finally {
+            releaseKeys( walkedPath );
+        }
+    }
+
+    private TraversalKeys acquireKeys( WalkedPath walkedPath ) {
+        return walkedPath == null ? new TraversalKeys( elements.size() ) : walkedPath.acquireTraversalKeys( elements.size() );
+    }
+
+    private static void releaseKeys( WalkedPath walkedPath ) {
+        if ( walkedPath != null ) {
+            walkedPath.releaseTraversalKeys();
+        }
+    }
+
+    /**
+     * Evaluate our PathElements into the supplied keys, array indexes as ints.
+     *
+     * @return false if an element evaluated to null, aka a TransposePathElement found nothing, or
+     *  an array reference did not evaluate to a non-negative integer
+     */
+    private boolean evaluate( WalkedPath walkedPath, TraversalKeys keys ) {
+
+        for ( int depth = 0; depth < indexElements.length; depth++ ) {
+
+            ArrayPathElement indexElement = indexElements[depth];
+            if ( indexElement != null ) {
+                int index = indexElement.evaluateIndex( walkedPath );
+                if ( index < 0 ) {
+                    return false;
+                }
+                keys.setIndex( depth, index );
+            }
+            else {
+                String evaledLeafOutput = elements.get( depth ).evaluate( walkedPath );
+                if ( evaledLeafOutput == null ) {
+                    return false;
+                }
+                keys.setKey( depth, evaledLeafOutput );
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Evaluate our PathElements into keys that can be written to again and again, see isKeyDetermined.
+     *
+     * @return the keys, or null if the path did not evaluate
+     */
+    public TraversalKeys evaluateKeys( WalkedPath walkedPath ) {
+        if ( staticKeys != null ) {
+            return staticKeys;
+        }
+        TraversalKeys keys = new TraversalKeys( elements.size() );
+        return evaluate( walkedPath, keys ) ? keys : null;
+    }
+
+    /**
+     * @return true if evaluating this path only depends on the keys matched along the WalkedPath, and not
+     *  on the input tree or on match counts, aka it is made of literals, "&" references and "[&1]" style indexes
+     */
+    public boolean isKeyDetermined() {
+        for ( EvaluatablePathElement pe : elements ) {
+            if ( pe instanceof ArrayPathElement ) {
+                ArrayPathElement ape = (ArrayPathElement) pe;
+                if ( ape.isTranspose() || ape.isHash() ) {
+                    return false;
+                }
+            }
+            else if ( ! ( pe instanceof LiteralPathElement || pe instanceof AmpPathElement ) ) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -133,10 +271,41 @@ public abstract class PathEvaluatingTraversal {
         return strings;
     }
 
+    /**
+     * Add this path to the shape of the output, see presize.
+     */
+    public void addTo( OutputShape outputShape ) {
+        outputShape.add( elements );
+    }
+
+    /**
+     * Have the Traversr create its containers at the size the OutputShape expects them to grow to.
+     *
+     * @param outputShape shape of all the paths written to the same output, this one included
+     */
+    public void presize( OutputShape outputShape ) {
+        if ( ! elements.isEmpty() ) {
+            traversr.setExpectedSizes( outputShape.expectedSizes( elements ) );
+        }
+    }
+
     public int size() {
         return elements.size();
     }
 
+    /**
+     * @return true if evaluating this path looks data up in the input tree, aka it has a "@(1,id)" in it
+     */
+    public boolean readsInputTree() {
+        for ( EvaluatablePathElement pe : elements ) {
+            if ( pe instanceof TransposePathElement ||
+                 ( pe instanceof ArrayPathElement && ( (ArrayPathElement) pe ).isTranspose() ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public PathElement get( int index ) {
         return elements.get( index );
     }
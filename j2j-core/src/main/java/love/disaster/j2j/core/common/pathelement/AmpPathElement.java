@@ -129,7 +129,7 @@ public class AmpPathElement extends BasePathElement implements MatchablePathElem
     public MatchedElement match( String dataKey, WalkedPath walkedPath ) {
         String evaled = evaluate( walkedPath );
         if ( evaled.equals( dataKey ) ) {
-            return new MatchedElement( evaled );
+            return newMatchedElement( evaled, walkedPath );
         }
         return null;
     }
@@ -16,7 +16,6 @@
 package love.disaster.j2j.core.common.pathelement;
 
 
-import love.disaster.j2j.core.common.Optional;
 import love.disaster.j2j.core.common.reference.AmpReference;
 import love.disaster.j2j.core.common.reference.HashReference;
 import love.disaster.j2j.core.common.reference.PathAndGroupReference;
@@ -25,6 +24,7 @@ import love.disaster.j2j.core.common.tree.ArrayMatchedElement;
 import love.disaster.j2j.core.common.tree.MatchedElement;
 import love.disaster.j2j.core.common.tree.WalkedPath;
 import love.disaster.j2j.core.exception.SpecException;
+import love.disaster.j2j.core.utils.StringTools;
 
 public class ArrayPathElement extends BasePathElement implements MatchablePathElement, EvaluatablePathElement {
 
@@ -36,6 +36,7 @@ public class ArrayPathElement extends BasePathElement implements MatchablePathEl
 
     private final String canonicalForm;
     private final String arrayIndex;
+    private final int explicitIndex;
 
     public ArrayPathElement( String key ) {
         super(key);
@@ -90,6 +91,7 @@ public class ArrayPathElement extends BasePathElement implements MatchablePathEl
         arrayPathType = apt;
         ref = r;
         arrayIndex = aI;
+        explicitIndex = apt == ArrayPathType.EXPLICIT_INDEX ? StringTools.parseNonNegativeInt( aI ) : -1;
     }
 
 
@@ -118,41 +120,53 @@ public class ArrayPathElement extends BasePathElement implements MatchablePathEl
                 return verifyStringIsNonNegativeInteger( key );
 
             case REFERENCE:
-                MatchedElement lpe = walkedPath.elementFromEnd( ref.getPathIndex() ).getMatchedElement();
-                String keyPart;
+                return verifyStringIsNonNegativeInteger( referencedKey( walkedPath ) );
+            default:
+                throw new IllegalStateException( "ArrayPathType enum added two without updating this switch statement." );
+        }
+    }
 
-                if ( ref instanceof PathAndGroupReference) {
-                    keyPart = lpe.getSubKeyRef( ( (PathAndGroupReference) ref).getKeyGroup() );
-                }
-                else {
-                    keyPart = lpe.getSubKeyRef( 0 );
-                }
+    /**
+     * Same as evaluate, but returns the index as an int, so that writers can hand it to the Traversr
+     *  without going through a String.
+     *
+     * @return the non-negative array index, or -1 if it does not evaluate to one.  Not meaningful for "[]".
+     */
+    public int evaluateIndex( WalkedPath walkedPath ) {
+
+        switch ( arrayPathType ) {
+            case EXPLICIT_INDEX:
+                return explicitIndex;
+
+            case HASH:
+                return walkedPath.elementFromEnd( ref.getPathIndex() ).getMatchedElement().getHashCount();
+
+            case TRANSPOSE:
+                return StringTools.parseNonNegativeInt( transposePathElement.evaluate( walkedPath ) );
+
+            case REFERENCE:
+                return StringTools.parseNonNegativeInt( referencedKey( walkedPath ) );
 
-                return verifyStringIsNonNegativeInteger( keyPart );
             default:
-                throw new IllegalStateException( "ArrayPathType enum added two without updating this switch statement." );
+                return -1;
+        }
+    }
+
+    private String referencedKey( WalkedPath walkedPath ) {
+        MatchedElement lpe = walkedPath.elementFromEnd( ref.getPathIndex() ).getMatchedElement();
+
+        if ( ref instanceof PathAndGroupReference) {
+            return lpe.getSubKeyRef( ( (PathAndGroupReference) ref).getKeyGroup() );
         }
+        return lpe.getSubKeyRef( 0 );
     }
 
     /**
      * @return the String version of a non-Negative integer, else null
      */
     private static String verifyStringIsNonNegativeInteger( String key ) {
-        try
-        {
-            int number = Integer.parseInt( key );
-            if ( number >= 0 ) {
-                return key;
-            }
-            else {
-                return null;
-            }
-        }
-        catch ( NumberFormatException nfe ) {
-            // Jolt should not throw any exceptions just because the input data does not match what is expected.
-            // Thus the exception is being swallowed.
-            return null;
-        }
+        // Jolt should not throw any exceptions just because the input data does not match what is expected.
+        return StringTools.parseNonNegativeInt( key ) >= 0 ? key : null;
     }
 
     public Integer getExplicitArrayIndex() {
@@ -168,13 +182,25 @@ public class ArrayPathElement extends BasePathElement implements MatchablePathEl
         return arrayPathType.equals( ArrayPathType.EXPLICIT_INDEX );
     }
 
+    public boolean isAutoExpand() {
+        return arrayPathType == ArrayPathType.AUTO_EXPAND;
+    }
+
+    public boolean isTranspose() {
+        return arrayPathType == ArrayPathType.TRANSPOSE;
+    }
+
+    public boolean isHash() {
+        return arrayPathType == ArrayPathType.HASH;
+    }
+
     @Override
     public MatchedElement match( String dataKey, WalkedPath walkedPath ) {
         String evaled = evaluate( walkedPath );
         if ( evaled.equals( dataKey ) ) {
-            Optional<Integer> origSizeOptional = walkedPath.lastElement().getOrigSize();
-            if(origSizeOptional.isPresent()) {
-                return new ArrayMatchedElement( evaled, origSizeOptional.get());
+            MatchedElement parent = walkedPath.lastElement().getMatchedElement();
+            if(parent instanceof ArrayMatchedElement) {
+                return walkedPath.nextArrayMatchedElement( evaled, ( (ArrayMatchedElement) parent ).getOrigSize() );
             }
             else {
                 return null;
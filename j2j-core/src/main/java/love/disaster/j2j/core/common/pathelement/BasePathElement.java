@@ -15,6 +15,9 @@
  */
 package love.disaster.j2j.core.common.pathelement;
 
+import love.disaster.j2j.core.common.tree.MatchedElement;
+import love.disaster.j2j.core.common.tree.WalkedPath;
+
 public abstract class BasePathElement implements PathElement {
 
     private final String rawKey;
@@ -28,6 +31,13 @@ public abstract class BasePathElement implements PathElement {
         return rawKey;
     }
 
+    /**
+     * @return a MatchedElement for the key, recycled from the walkedPath when there is one
+     */
+    protected static MatchedElement newMatchedElement( String key, WalkedPath walkedPath ) {
+        return walkedPath == null ? new MatchedElement( key ) : walkedPath.nextMatchedElement( key );
+    }
+
     public String toString() {
         return getCanonicalForm();
     }
@@ -43,6 +43,6 @@ public class DollarPathElement extends BasePathElement implements MatchablePathE
     @Override
     public MatchedElement match( String dataKey, WalkedPath walkedPath ) {
         String evaled = evaluate( walkedPath );
-        return new MatchedElement( evaled );
+        return newMatchedElement( evaled, walkedPath );
     }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.common.pathelement;
+
+import love.disaster.j2j.core.common.tree.MatchedElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiled form of a "*" wildcard key such as "rating-*-*", that backs the StarPathElements.
+ *
+ * The key is split once into its literal segments, and matching is done with startsWith, endsWith
+ *  and indexOf, so that no regex Matcher, group array or substring is created per input key.
+ *
+ * The semantics are those of the regex the key used to be compiled to, "^rating-(.+?)-(.+?)$" :
+ *  each "*" has to match at least one character, and matches as few as it can.  Because the
+ *  segments between stars are plain literals, taking the earliest occurrence of each of them is
+ *  always the right call, so the matcher never needs to backtrack.
+ */
+final class GlobMatcher {
+
+    private final String prefix;
+    private final String suffix;
+    // the literals between two consecutive stars, possibly empty
+    private final String[] mids;
+    // shortest literal that can match, one character per star
+    private final int minLength;
+
+    GlobMatcher( String key ) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        for ( int star = key.indexOf( '*' ); star >= 0; star = key.indexOf( '*', start ) ) {
+            segments.add( key.substring( start, star ) );
+            start = star + 1;
+        }
+        segments.add( key.substring( start ) );
+
+        if ( segments.size() < 2 ) {
+            throw new IllegalArgumentException( "GlobMatcher expects at least one '*' in its key. Was: " + key );
+        }
+
+        prefix = segments.get( 0 );
+        suffix = segments.get( segments.size() - 1 );
+        mids = segments.subList( 1, segments.size() - 1 ).toArray( new String[0] );
+
+        int length = segments.size() - 1;
+        for ( String segment : segments ) {
+            length += segment.length();
+        }
+        minLength = length;
+    }
+
+    String getPrefix() {
+        return prefix;
+    }
+
+    String getSuffix() {
+        return suffix;
+    }
+
+    boolean matches( String literal ) {
+        return match( literal, null );
+    }
+
+    /**
+     * Records what each "*" matched, so that a MatchedElement is only made once matches() said yes.
+     *
+     * @param literal an input key that matches()
+     * @param matchedElement receives the bounds of what each "*" matched as subKeys
+     */
+    void capture( String literal, MatchedElement matchedElement ) {
+        match( literal, matchedElement );
+    }
+
+    /**
+     * @param literal the input key to match
+     * @param matchedElement if not null, receives the bounds of what each "*" matched as subKeys
+     * @return true if the literal matches, in which case matchedElement has one subKey per "*"
+     */
+    boolean match( String literal, MatchedElement matchedElement ) {
+        int length = literal.length();
+        if ( length < minLength || ! literal.startsWith( prefix ) || ! literal.endsWith( suffix ) ) {
+            return false;
+        }
+
+        int limit = length - suffix.length();
+        int position = prefix.length();
+        for ( String mid : mids ) {
+            // the star before mid takes at least one char, and the one after it needs one more before the suffix
+            int midStart = literal.indexOf( mid, position + 1 );
+            if ( midStart < 0 || midStart + mid.length() >= limit ) {
+                return false;
+            }
+            if ( matchedElement != null ) {
+                matchedElement.addSubKey( position, midStart );
+            }
+            position = midStart + mid.length();
+        }
+
+        if ( matchedElement != null ) {
+            matchedElement.addSubKey( position, limit );
+        }
+        return true;
+    }
+}
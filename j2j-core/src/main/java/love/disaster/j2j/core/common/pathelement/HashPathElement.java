@@ -64,6 +64,6 @@ public class HashPathElement extends BasePathElement implements MatchablePathEle
 
     @Override
     public MatchedElement match( String dataKey, WalkedPath walkedPath ) {
-        return new MatchedElement( keyValue );
+        return newMatchedElement( keyValue, walkedPath );
     }
 }
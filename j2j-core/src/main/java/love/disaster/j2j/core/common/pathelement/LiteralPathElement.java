@@ -40,7 +40,7 @@ public class LiteralPathElement extends BasePathElement implements MatchablePath
     @Override
     public MatchedElement match( String dataKey, WalkedPath walkedPath ) {
         if ( getRawKey().equals( dataKey ) ) {
-            return new MatchedElement( getRawKey() );
+            return newMatchedElement( getRawKey(), walkedPath );
         }
         return null;
     }
@@ -15,7 +15,6 @@
  */
 package love.disaster.j2j.core.common.pathelement;
 
-import love.disaster.j2j.core.common.Optional;
 import love.disaster.j2j.core.common.tree.ArrayMatchedElement;
 import love.disaster.j2j.core.common.tree.MatchedElement;
 import love.disaster.j2j.core.common.tree.WalkedPath;
@@ -44,12 +43,12 @@ public class StarAllPathElement implements StarPathElement {
 
     @Override
     public MatchedElement match(String dataKey, WalkedPath walkedPath ) {
-        Optional<Integer> origSizeOptional = walkedPath.lastElement().getOrigSize();
-        if(origSizeOptional.isPresent()) {
-            return new ArrayMatchedElement( dataKey, origSizeOptional.get() );
+        MatchedElement parent = walkedPath.lastElement().getMatchedElement();
+        if(parent instanceof ArrayMatchedElement) {
+            return walkedPath.nextArrayMatchedElement( dataKey, ( (ArrayMatchedElement) parent ).getOrigSize() );
         }
         else {
-            return new MatchedElement( dataKey );
+            return walkedPath.nextMatchedElement( dataKey );
         }
     }
 
@@ -19,16 +19,13 @@ import love.disaster.j2j.core.common.tree.MatchedElement;
 import love.disaster.j2j.core.common.tree.WalkedPath;
 import love.disaster.j2j.core.utils.StringTools;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  *  PathElement for the a double "*" wildcard such as tag-*-*.   In this case we can avoid doing any
  *  regex work by doing String begins, ends and mid element exists.
  */
 public class StarDoublePathElement extends BasePathElement implements StarPathElement {
 
-    private final String prefix,suffix, mid;
+    private final GlobMatcher glob;
 
     /**+
      *
@@ -41,95 +38,39 @@ public class StarDoublePathElement extends BasePathElement implements StarPathEl
             throw new IllegalArgumentException( "StarDoublePathElement should have two '*' in its key. Was: " + key );
         }
 
-        String[] split = key.split("\\*");
-        boolean startsWithStar = key.startsWith( "*" );
-        boolean endsWithStar = key.endsWith("*");
-        if (  startsWithStar && endsWithStar) {
-            prefix = "";
-            mid = split[1];
-            suffix = "";
-        }
-        else if ( endsWithStar ) {
-            prefix = split[0];
-            mid = split[1];
-            suffix = "";
-        }
-        else if ( startsWithStar ) {
-            prefix = "";
-            mid = split[1];
-            suffix = split[2];
-        }
-        else{
-            prefix=split[0];
-            mid=split[1];
-            suffix=split[2];
-        }
+        glob = new GlobMatcher( key );
     }
+
     /**
+     * The assumption here is: * means 1 or more characters, and the first occurrence of the mid in the literal is used,
+     *  so we are not 'greedy' to capture as much as in the first '*'.
+     *
      * @param literal test to see if the provided string will match this Element's regex
      * @return true if the provided literal will match this Element's regex
      */
     @Override
     public boolean stringMatch(String literal) {
-        boolean isMatch = false;
-        if(literal.startsWith(prefix) && literal.endsWith(suffix)){
-
-            isMatch = finMidIndex(literal) > 0;
-        }
-        return isMatch;
+        return glob.matches( literal );
     }
 
-    /**
-     * The assumption here is: * means 1 or more characters. So, if we can find the mid 1 char after the prefix ends and 1 char before the suffix
-     * starts, we have found a mid match. Also, it will be the first occurrence of the mid in the literal, so we are not 'greedy' to capture as much as
-     * in the '*'
-     */
-    private int finMidIndex(String literal){
-        int startOffset = prefix.length() + 1;
-        int endOffset = literal.length() - suffix.length() - 1;
-
-        /**
-         * Found a bug when there is only character after the prefix ends. For eg: if the spec is abc-*$* and the key
-         * we got is abc-1
-         *      prefix -> abc-
-         *      suffix -> ""
-         *      mid    -> $
-         *      startoffset -> 5
-         *      endoffset -> 5 - 0 - 1 = 4
-         *  We are left with no substring to search for the mid. Bail out!
-         */
-        if(startOffset >= endOffset)  {
-
-            return -1;
-
-        }
-        int midIndex = literal.substring(startOffset, endOffset).indexOf(mid);
-
-        if(midIndex >= 0) {
-
-            return midIndex +  startOffset;
+    @Override
+    public MatchedElement match(String dataKey, WalkedPath walkedPath) {
+        if ( ! glob.matches( dataKey ) ) {
+            return null;
         }
-        return -1;
+        MatchedElement matchedElement = newMatchedElement( dataKey, walkedPath );
+        glob.capture( dataKey, matchedElement );
+        return matchedElement;
     }
 
-
     @Override
-    public MatchedElement match(String dataKey, WalkedPath walkedPath) {
-        if ( stringMatch( dataKey ) )  {
-            List<String> subKeys = new ArrayList<>(2);
-
-            int midStart = finMidIndex(dataKey);
-            int midEnd = midStart + mid.length();
-
-            String firstStarPart = dataKey.substring( prefix.length(), midStart);
-            subKeys.add( firstStarPart );
-
-            String secondStarPart = dataKey.substring( midEnd, dataKey.length() - suffix.length()  );
-            subKeys.add( secondStarPart );
+    public String getPrefix() {
+        return glob.getPrefix();
+    }
 
-            return new MatchedElement(dataKey, subKeys);
-        }
-        return null;
+    @Override
+    public String getSuffix() {
+        return glob.getSuffix();
     }
 
     @Override
@@ -28,4 +28,18 @@ public interface StarPathElement extends MatchablePathElement {
      * @return true if the provided literal will match this Element's regex
      */
     public boolean stringMatch( String literal );
+
+    /**
+     * @return literal that every matching key starts with, "" if there is none
+     */
+    default String getPrefix() {
+        return "";
+    }
+
+    /**
+     * @return literal that every matching key ends with, "" if there is none
+     */
+    default String getSuffix() {
+        return "";
+    }
 }
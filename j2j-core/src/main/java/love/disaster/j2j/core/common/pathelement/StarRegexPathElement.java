@@ -18,96 +18,21 @@ package love.disaster.j2j.core.common.pathelement;
 import love.disaster.j2j.core.common.tree.MatchedElement;
 import love.disaster.j2j.core.common.tree.WalkedPath;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
- * Non-greedy * based Path Element.
+ * Non-greedy * based Path Element, for keys with three or more "*".
+ *
+ * "rating-*-*-*" used to be compiled to the regex "^rating-(.+?)-(.+?)-(.+?)$", aka each '*' must match
+ *  something in a non-greedy way.  It is now matched by a GlobMatcher with the same semantics, which
+ *  also means that regex metachars in the key no longer need escaping.
  */
 public class StarRegexPathElement extends BasePathElement implements StarPathElement {
 
-    private final Pattern pattern;
+    private final GlobMatcher glob;
 
     public StarRegexPathElement( String key ) {
         super(key);
 
-        pattern = makePattern( key );
-    }
-
-
-    private static Pattern makePattern( String key ) {
-
-        // "rating-*-*"  ->  "^rating-(.+?)-(.+?)$"   aka the '*' must match something in a non-greedy way
-        key = escapeMetacharsIfAny(key);
-        String regex = "^" + key.replace("*", "(.+?)")  + "$";
-
-        /*
-            wtf does "(.+?)" mean
-            .  : match any character
-            +  : match one or more of the previous thing
-            ?  : match zero of one of the previous thing
-            +? : reluctantly match
-
-            See http://docs.oracle.com/javase/tutorial/essential/regex/quant.html
-              Differences Among Greedy, Reluctant, and Possessive Quantifiers section
-        */
-
-        return Pattern.compile( regex);
-    }
-
-    // Metachars to escape .^$|*+?()[{\ in a regex
-
-    /** +
-     *
-     * @param key : String key that needs to be escaped before compiling into regex.
-     * @return : Metachar escaped key.
-     *
-     * Regex has some special meaning for the metachars [ .^$|*+?()[{\ ].If any of these metachars is present in the pattern key that was passed, it needs to be escaped so that
-     * it can be matched against literal.
-     */
-    private static String escapeMetacharsIfAny(String key){
-
-        char[] keyChars = key.toCharArray();
-
-        // String.replace replaces all instances of the char sequence. So, it would try to escape the occurrence as many times as the occurrence frequency.
-        // For ex: if a key as 2 '5star.rating.1', it would escape it twice resulting in 5star//.rating//.1.
-        // So, we keep an list of already seen characters.
-
-        Set<Character> charsAlreadySeen = new HashSet<>();
-
-        for(char keychar: keyChars) {
-
-            switch (keychar) {
-
-                case '(':
-                case '[':
-                case '{':
-                case '\\':
-                case '^':
-                case '$':
-                case '|':
-                case ')':
-                case '?':
-                case '+':
-                case '.':
-
-                    if(!charsAlreadySeen.contains( keychar )){
-
-                        key = key.replace(String.valueOf(keychar), "\\" + keychar);
-
-                        charsAlreadySeen.add(keychar);
-                    }
-                    break;
-
-                default:
-                    break;
-            }
-        }
-        return key;
+        glob = new GlobMatcher( key );
     }
 
     /**
@@ -116,28 +41,27 @@ public class StarRegexPathElement extends BasePathElement implements StarPathEle
      */
     @Override
     public boolean stringMatch( String literal ) {
-
-        Matcher matcher = pattern.matcher( literal );
-
-        return matcher.find();
+        return glob.matches( literal );
     }
 
     @Override
     public MatchedElement match( String dataKey, WalkedPath walkedPath ) {
-
-        Matcher matcher = pattern.matcher( dataKey );
-        if ( ! matcher.find() ) {
+        if ( ! glob.matches( dataKey ) ) {
             return null;
         }
+        MatchedElement matchedElement = newMatchedElement( dataKey, walkedPath );
+        glob.capture( dataKey, matchedElement );
+        return matchedElement;
+    }
 
-        int groupCount = matcher.groupCount();
-
-        List<String> subKeys = new ArrayList<>(groupCount);
-        for ( int index = 1; index <= groupCount; index++) {
-            subKeys.add( matcher.group( index ) );
-        }
+    @Override
+    public String getPrefix() {
+        return glob.getPrefix();
+    }
 
-        return new MatchedElement(dataKey, subKeys);
+    @Override
+    public String getSuffix() {
+        return glob.getSuffix();
     }
 
     @Override
@@ -19,16 +19,13 @@ import love.disaster.j2j.core.common.tree.MatchedElement;
 import love.disaster.j2j.core.common.tree.WalkedPath;
 import love.disaster.j2j.core.utils.StringTools;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * PathElement for the a single "*" wildcard such as tag-*.   In this case we can avoid doing any
  *  regex work by doing String begins and ends with comparisons.
  */
 public class StarSinglePathElement extends BasePathElement implements StarPathElement {
 
-    private final String prefix,suffix;
+    private final GlobMatcher glob;
 
     public StarSinglePathElement( String key ) {
         super(key);
@@ -40,20 +37,7 @@ public class StarSinglePathElement extends BasePathElement implements StarPathEl
             throw new IllegalArgumentException( "StarSinglePathElement should have a key that is just '*'. Was: " + key );
         }
 
-        if ( key.startsWith( "*" ) ) {
-            prefix = "";
-            suffix = key.substring( 1 );
-        }
-        else if ( key.endsWith( "*" ) ) {
-            prefix = key.substring( 0, key.length() -1 );
-            suffix = "";
-        }
-        else
-        {
-            String[] split = key.split( "\\*" );
-            prefix = split[0];
-            suffix = split[1];
-        }
+        glob = new GlobMatcher( key );
     }
 
     /**
@@ -62,23 +46,28 @@ public class StarSinglePathElement extends BasePathElement implements StarPathEl
      */
     @Override
     public boolean stringMatch( String literal ) {
-        return literal.startsWith( prefix ) && literal.endsWith( suffix )  // the ends match
-                && literal.length() > prefix.length() + suffix.length();   // and the * captures something
+        // the ends match, and the * captures something
+        return glob.matches( literal );
     }
 
     @Override
     public MatchedElement match( String dataKey, WalkedPath walkedPath ) {
-
-        if ( stringMatch( dataKey ) )  {
-            List<String> subKeys = new ArrayList<>(1);
-
-            String starPart = dataKey.substring( prefix.length(), dataKey.length() - suffix.length() );
-            subKeys.add( starPart );
-
-            return new MatchedElement(dataKey, subKeys);
+        if ( ! glob.matches( dataKey ) ) {
+            return null;
         }
+        MatchedElement matchedElement = newMatchedElement( dataKey, walkedPath );
+        glob.capture( dataKey, matchedElement );
+        return matchedElement;
+    }
+
+    @Override
+    public String getPrefix() {
+        return glob.getPrefix();
+    }
 
-        return null;
+    @Override
+    public String getSuffix() {
+        return glob.getSuffix();
     }
 
     @Override
@@ -16,7 +16,9 @@
 
 package love.disaster.j2j.core.common.spec;
 
+import love.disaster.j2j.core.common.ComputedKeysIndex;
 import love.disaster.j2j.core.common.ExecutionStrategy;
+import love.disaster.j2j.core.common.LiteralKeys;
 
 import java.util.List;
 import java.util.Map;
@@ -37,5 +39,20 @@ public interface OrderedCompositeSpec extends BaseSpec {
 
     List<? extends BaseSpec> getComputedChildren();
 
+    /**
+     * @return the literal children with their keys pre-classified as list indexes.  Implementations
+     *  should build this once, the default builds it on every call.
+     */
+    default LiteralKeys getLiteralKeys() {
+        return LiteralKeys.of( getLiteralChildren() );
+    }
+
+    /**
+     * @return index to dispatch input keys to the computed children with, or null to try each of them in turn
+     */
+    default ComputedKeysIndex getComputedKeysIndex() {
+        return null;
+    }
+
     ExecutionStrategy determineExecutionStrategy();
 }
@@ -18,13 +18,19 @@ package love.disaster.j2j.core.common.tree;
 
 public class ArrayMatchedElement extends MatchedElement {
 
-    private final int origSize;
+    private int origSize;
 
     public ArrayMatchedElement( String key, int origSize) {
         super( key );
         this.origSize = origSize;
     }
 
+    ArrayMatchedElement reset( String key, int origSize ) {
+        super.reset( key );
+        this.origSize = origSize;
+        return this;
+    }
+
     public int getOrigSize() {
         return origSize;
     }
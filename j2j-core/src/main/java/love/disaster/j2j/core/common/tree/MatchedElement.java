@@ -18,8 +18,7 @@ package love.disaster.j2j.core.common.tree;
 import love.disaster.j2j.core.common.pathelement.BasePathElement;
 import love.disaster.j2j.core.common.pathelement.EvaluatablePathElement;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -29,34 +28,78 @@ import java.util.List;
  *
  * This mutability was specifically added for the the HashCount functionality, which allows Shiftr
  *  to transform data form maps to lists.
+ *
+ * The subKeys captured by wildcards are recorded as offsets into the key, and only cut out of it
+ *  the first time they are referenced, as most matches are never referenced by a "&(x,y)".
+ *  Together with WalkedPath.nextMatchedElement, this lets a match allocate nothing at all.
  */
 public class MatchedElement extends BasePathElement implements EvaluatablePathElement {
 
-    private final List<String> subKeys;
+    private String key;
+
+    // subKey i (1 based) is subKeys[i-1] if already cut out, else key.substring( bounds[2i-2], bounds[2i-1] )
+    private String[] subKeys;
+    private int[] bounds;
+    private int subKeyCount = 0;
 
     private int hashCount = 0;
 
     public MatchedElement( String key ) {
         super(key);
-
-        List<String> keys = new ArrayList<>(1);
-        keys.add( key ); // always add the full key to index 0
-
-        this.subKeys = Collections.unmodifiableList( keys );
+        this.key = key;
     }
 
     public MatchedElement( String key, List<String> subKeys ) {
-        super(key);
+        this( key );
 
         if ( subKeys == null ) {
             throw new IllegalArgumentException( "MatchedElement for key:" + key + " got null list of subKeys" );
         }
+        for ( String subKey : subKeys ) {
+            addSubKey( subKey );
+        }
+    }
 
-        List<String> keys = new ArrayList<>( 1 + subKeys.size() );
-        keys.add( key ); // always add the full key to index 0
-        keys.addAll( subKeys );
+    MatchedElement reset( String key ) {
+        this.key = key;
+        if ( subKeys != null ) {
+            Arrays.fill( subKeys, 0, subKeyCount, null );
+        }
+        subKeyCount = 0;
+        hashCount = 0;
+        return this;
+    }
 
-        this.subKeys = Collections.unmodifiableList( keys );
+    /**
+     * Records key.substring( beginIndex, endIndex ) as the next subKey, without copying it yet.
+     */
+    public void addSubKey( int beginIndex, int endIndex ) {
+        ensureCapacity();
+        bounds[ 2 * subKeyCount ] = beginIndex;
+        bounds[ 2 * subKeyCount + 1 ] = endIndex;
+        subKeyCount++;
+    }
+
+    public void addSubKey( String subKey ) {
+        ensureCapacity();
+        subKeys[ subKeyCount ] = subKey;
+        subKeyCount++;
+    }
+
+    private void ensureCapacity() {
+        if ( subKeys == null ) {
+            subKeys = new String[ 2 ];
+            bounds = new int[ 4 ];
+        }
+        else if ( subKeyCount == subKeys.length ) {
+            subKeys = Arrays.copyOf( subKeys, subKeyCount * 2 );
+            bounds = Arrays.copyOf( bounds, subKeyCount * 4 );
+        }
+    }
+
+    @Override
+    public String getRawKey() {
+        return key;
     }
 
     @Override
@@ -70,14 +113,22 @@ public class MatchedElement extends BasePathElement implements EvaluatablePathEl
     }
 
     public String getSubKeyRef( int index ) {
-        if ((index < 0) || (index >= this.subKeys.size())) {
-            throw new IndexOutOfBoundsException( "MatchedElement "+ this.subKeys +" cannot be indexed with index "+index );
+        if ((index < 0) || (index > subKeyCount)) {
+            throw new IndexOutOfBoundsException( "MatchedElement " + key + " with " + getSubKeyCount() + " subKeys cannot be indexed with index " + index );
+        }
+        if ( index == 0 ) {
+            return key; // the full key is always at index 0
+        }
+        String subKey = subKeys[ index - 1 ];
+        if ( subKey == null ) {
+            subKey = key.substring( bounds[ 2 * index - 2 ], bounds[ 2 * index - 1 ] );
+            subKeys[ index - 1 ] = subKey;
         }
-        return subKeys.get( index );
+        return subKey;
     }
 
     public int getSubKeyCount(){
-        return subKeys.size();
+        return 1 + subKeyCount;
     }
 
     public int getHashCount() {
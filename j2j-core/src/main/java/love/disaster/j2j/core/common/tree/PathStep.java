@@ -21,22 +21,22 @@ import love.disaster.j2j.core.common.Optional;
  * A tuple class that contains the data for one level of a
  *  tree walk, aka a reference to the input for that level, and
  *  the LiteralPathElement that was matched at that level.
+ *
+ * The WalkedPath recycles its PathSteps from one level to the next, so a PathStep is only valid
+ *  while its level is on the path.
  */
 public final class PathStep {
 
-    private final Object treeRef;
-    private final MatchedElement matchedElement;
-    private final Optional<Integer> origSize;
+    private Object treeRef;
+    private MatchedElement matchedElement;
 
     public PathStep(Object treeRef, MatchedElement matchedElement ) {
+        set( treeRef, matchedElement );
+    }
+
+    void set( Object treeRef, MatchedElement matchedElement ) {
         this.treeRef = treeRef;
         this.matchedElement = matchedElement;
-        if (matchedElement instanceof ArrayMatchedElement) {
-            origSize = Optional.of( ( (ArrayMatchedElement) matchedElement ).getOrigSize() );
-        }
-        else {
-            origSize = Optional.empty();
-        }
     }
 
     public Object getTreeRef() {
@@ -48,6 +48,9 @@ public final class PathStep {
     }
 
     public Optional<Integer> getOrigSize() {
-        return origSize;
+        if (matchedElement instanceof ArrayMatchedElement) {
+            return Optional.of( ( (ArrayMatchedElement) matchedElement ).getOrigSize() );
+        }
+        return Optional.empty();
     }
 }
@@ -15,7 +15,9 @@
  */
 package love.disaster.j2j.core.common.tree;
 
-import java.util.ArrayList;
+import love.disaster.j2j.core.traversr.TraversalKeys;
+
+import java.util.Arrays;
 import java.util.Collection;
 
 /**
@@ -31,31 +33,65 @@ import java.util.Collection;
  *
  * It is expected that as the SpecTransform navigates down the tree, MatchedElements will be added and then
  *  removed when that subtree has been walked.
+ *
+ * As every key of the input visits this stack, it is array backed and recycles its PathSteps, and it
+ *  hands out a scratch MatchedElement per level (see nextMatchedElement) so that matching a key does
+ *  not allocate either.  The flip side is that PathSteps and scratch MatchedElements are only valid
+ *  until their level is removed from the path; nothing may hold on to them after that.
+ * The same goes for the TraversalKeys that writers evaluate their output paths into.
  */
-public class WalkedPath extends ArrayList<PathStep> {
+public class WalkedPath {
+
+    private static final int INITIAL_DEPTH = 16;
+
+    private PathStep[] steps = new PathStep[ INITIAL_DEPTH ];
+    private int size = 0;
+
+    // scratch elements, indexed by the level they will be added at
+    private MatchedElement[] matchedElements = new MatchedElement[ INITIAL_DEPTH ];
+    private ArrayMatchedElement[] arrayMatchedElements;
+
+    // scratch keys for writers, a stack as evaluating a transpose ("@(1,id)") reads through another path
+    private TraversalKeys[] traversalKeys;
+    private int traversalKeysInUse = 0;
 
     public WalkedPath() {
-        super();
     }
 
     public WalkedPath(Collection<PathStep> c) {
-        super(c);
+        for ( PathStep pathStep : c ) {
+            add( pathStep.getTreeRef(), pathStep.getMatchedElement() );
+        }
     }
 
     public WalkedPath( Object treeRef, MatchedElement matchedElement ) {
-        super();
-        this.add( new PathStep( treeRef, matchedElement ) );
+        add( treeRef, matchedElement );
     }
 
     /**
      * Convenience method
      */
     public boolean add( Object treeRef, MatchedElement matchedElement ) {
-        return super.add( new PathStep( treeRef, matchedElement ) );
+        if ( size == steps.length ) {
+            steps = Arrays.copyOf( steps, size * 2 );
+        }
+        PathStep pathStep = steps[size];
+        if ( pathStep == null ) {
+            steps[size] = new PathStep( treeRef, matchedElement );
+        }
+        else {
+            pathStep.set( treeRef, matchedElement );
+        }
+        size++;
+        return true;
     }
 
     public void removeLast() {
-        remove(size() - 1);
+        if ( size == 0 ) {
+            throw new IndexOutOfBoundsException( "removeLast called on an empty WalkedPath" );
+        }
+        // drop the references, but keep the PathStep for the next add at this level
+        steps[--size].set( null, null );
     }
 
     /**
@@ -65,10 +101,100 @@ public class WalkedPath extends ArrayList<PathStep> {
         if (isEmpty()) {
             return null;
         }
-        return get(size() - 1 - idxFromEnd);
+        return get(size - 1 - idxFromEnd);
     }
 
     public PathStep lastElement() {
-        return get(size() - 1);
+        return get(size - 1);
+    }
+
+    public PathStep get( int index ) {
+        if ( index < 0 || index >= size ) {
+            throw new IndexOutOfBoundsException( "Index " + index + " out of bounds for WalkedPath of size " + size );
+        }
+        return steps[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Scratch MatchedElement for the level below the current one, reset to the given key.
+     *
+     * Meant for MatchablePathElement.match implementations, whose result is added at the next level
+     *  and removed again once that subtree has been walked.  Calling this again before then, for the
+     *  same level, recycles the same instance.
+     */
+    public MatchedElement nextMatchedElement( String key ) {
+        if ( size >= matchedElements.length ) {
+            matchedElements = Arrays.copyOf( matchedElements, Math.max( size + 1, matchedElements.length * 2 ) );
+        }
+        MatchedElement matchedElement = matchedElements[size];
+        if ( matchedElement == null ) {
+            matchedElement = new MatchedElement( key );
+            matchedElements[size] = matchedElement;
+            return matchedElement;
+        }
+        return matchedElement.reset( key );
+    }
+
+    /**
+     * Same as nextMatchedElement, for a level whose data is a List of the given original size.
+     */
+    public ArrayMatchedElement nextArrayMatchedElement( String key, int origSize ) {
+        if ( arrayMatchedElements == null ) {
+            arrayMatchedElements = new ArrayMatchedElement[ Math.max( size + 1, INITIAL_DEPTH ) ];
+        }
+        else if ( size >= arrayMatchedElements.length ) {
+            arrayMatchedElements = Arrays.copyOf( arrayMatchedElements, Math.max( size + 1, arrayMatchedElements.length * 2 ) );
+        }
+        ArrayMatchedElement matchedElement = arrayMatchedElements[size];
+        if ( matchedElement == null ) {
+            matchedElement = new ArrayMatchedElement( key, origSize );
+            arrayMatchedElements[size] = matchedElement;
+            return matchedElement;
+        }
+        return matchedElement.reset( key, origSize );
+    }
+
+    /**
+     * Scratch TraversalKeys of the given size, for a PathEvaluatingTraversal to evaluate its path into.
+     *  Must be handed back with releaseTraversalKeys once the traversal is done.
+     */
+    public TraversalKeys acquireTraversalKeys( int keyCount ) {
+        if ( traversalKeys == null ) {
+            traversalKeys = new TraversalKeys[ 2 ];
+        }
+        else if ( traversalKeysInUse == traversalKeys.length ) {
+            traversalKeys = Arrays.copyOf( traversalKeys, traversalKeysInUse * 2 );
+        }
+        TraversalKeys keys = traversalKeys[traversalKeysInUse];
+        if ( keys == null ) {
+            keys = new TraversalKeys( keyCount );
+            traversalKeys[traversalKeysInUse] = keys;
+        }
+        traversalKeysInUse++;
+        return keys.reset( keyCount );
+    }
+
+    public void releaseTraversalKeys() {
+        traversalKeysInUse--;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder( "[" );
+        for ( int index = 0; index < size; index++ ) {
+            if ( index > 0 ) {
+                sb.append( ", " );
+            }
+            sb.append( steps[index].getMatchedElement() );
+        }
+        return sb.append( "]" ).toString();
     }
 }
@@ -68,6 +68,7 @@ public abstract class Key {
     private OPS op = null;
     private int orCount = 0;
     private int outputArraySize = -1;
+    private int outputMapSize = 0;      // number of literal keys my children default into the output map
 
     protected Set<Key> children = null;
     protected Object literalValue = null;
@@ -113,6 +114,12 @@ public abstract class Key {
                     }
                 }
             }
+            else {
+                // "a" defaults one key, "a|b" two, and "*" none
+                for( Key childKey : children ) {
+                    outputMapSize += childKey.keyStrings.size();
+                }
+            }
         }
         else {
             // literal such as String, number, or JSON array
@@ -180,11 +187,16 @@ public abstract class Key {
         return outputArraySize;
     }
 
+    /**
+     * Create the container at the size my children are going to fill it to.
+     */
     public Object createOutputContainerObject() {
         if ( isArrayOutput() ) {
-            return new ArrayList<>();
+            // outputArraySize is the highest literal index, -1 if there are none
+            return outputArraySize < 0 ? new ArrayList<>() : new ArrayList<>( outputArraySize + 1 );
         } else {
-            return new LinkedHashMap<String, Object>();
+            // big enough to hold outputMapSize entries without rehashing at the default load factor
+            return new LinkedHashMap<String, Object>( (int) ( outputMapSize / 0.75f ) + 1 );
         }
     }
 
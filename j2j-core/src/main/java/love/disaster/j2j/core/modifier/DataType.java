@@ -18,6 +18,7 @@ package love.disaster.j2j.core.modifier;
 
 import love.disaster.j2j.core.common.Optional;
 import love.disaster.j2j.core.common.tree.WalkedPath;
+import love.disaster.j2j.core.utils.StringTools;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -152,12 +153,7 @@ public abstract class DataType {
     public Object create( String keyOrIndex, WalkedPath walkedPath, OpMode opMode ) {
         Object parent = walkedPath.lastElement().getTreeRef();
         Optional<Integer> origSizeOptional = walkedPath.lastElement().getOrigSize();
-        int index = -1;
-        try {
-            index = Integer.parseInt( keyOrIndex );
-        }
-        catch ( Exception ignored ) {
-        }
+        int index = StringTools.parseNonNegativeInt( keyOrIndex );
         Object value = null;
         if ( parent instanceof Map && opMode.isApplicable( (Map) parent, keyOrIndex ) ) {
             value = createValue();
@@ -17,9 +17,13 @@ package love.disaster.j2j.core.modifier.function;
 
 import love.disaster.j2j.core.common.Optional;
 
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.TimeZone;
 
 /**
@@ -28,10 +32,65 @@ import java.util.TimeZone;
 @SuppressWarnings("deprecated")
 public class DateTime {
 
+    /**
+     * SimpleDateFormats are expensive to build, pattern parsing and locale data, and are not thread
+     *  safe, so every thread keeps the ones it has used, by pattern, time zone and default locale.
+     *
+     * Parsing a zone name sets the time zone of the format itself, so parsing and formatting use
+     *  separate caches, and the time zone is reset before each use.  Default time zones and locales
+     *  are looked up on each call, not when the format was cached, so a change of either is seen
+     *  on threads that already cached a format.
+     */
+    private static final class DateFormats {
+
+        private static final int MAXIMUM_SIZE_PER_THREAD = 64;
+
+        private static final DateFormats PARSING = new DateFormats();
+        private static final DateFormats FORMATTING = new DateFormats();
+
+        private final ThreadLocal<Map<String, CachedFormat>> formats = ThreadLocal.withInitial( HashMap::new );
+
+        /**
+         * @param timeZone time zone id, or null for the default time zone
+         */
+        private SimpleDateFormat get( String pattern, String timeZone ) {
+            Map<String, CachedFormat> formats = this.formats.get();
+            Locale locale = Locale.getDefault( Locale.Category.FORMAT );
+            String key = pattern + '\u0000' + locale;
+            if ( timeZone != null ) {
+                key = key + '\u0000' + timeZone;
+            }
+            CachedFormat format = formats.get( key );
+            if ( format == null ) {
+                format = new CachedFormat( new SimpleDateFormat( pattern, locale ),
+                        timeZone == null ? null : TimeZone.getTimeZone( timeZone ) );
+                if ( formats.size() >= MAXIMUM_SIZE_PER_THREAD ) {
+                    formats.clear();
+                }
+                formats.put( key, format );
+            }
+            format.sdf.setTimeZone( format.timeZone == null ? TimeZone.getDefault() : format.timeZone );
+            return format.sdf;
+        }
+
+        private static final class CachedFormat {
+
+            private final SimpleDateFormat sdf;
+            // null for the default time zone
+            private final TimeZone timeZone;
+
+            private CachedFormat( SimpleDateFormat sdf, TimeZone timeZone ) {
+                this.sdf = sdf;
+                this.timeZone = timeZone;
+            }
+        }
+    }
+
     /**
      * Get current timestamp as milliseconds since epoch
      */
     public static final class now extends Function.BaseFunction<Long> {
+
         @Override
         protected Optional<Object> applyList(final List<Object> input) {
             return Optional.of(System.currentTimeMillis());
@@ -44,7 +103,7 @@ public class DateTime {
     }
 
     /**
-     * Format timestamp to string using pattern
+     * Format timestamp to string using pattern, in the default time zone and locale, hence not pure
      */
     public static final class formatDate extends Function.ArgDrivenSingleFunction<String, String> {
         @Override
@@ -58,12 +117,16 @@ public class DateTime {
                 if (timestamp instanceof Number) {
                     time = ((Number) timestamp).longValue();
                 } else if (timestamp instanceof String) {
-                    time = Long.parseLong((String) timestamp);
+                    Long parsed = Objects.parseLong((String) timestamp);
+                    if (parsed == null) {
+                        return Optional.empty();
+                    }
+                    time = parsed;
                 } else {
                     return Optional.empty();
                 }
 
-                SimpleDateFormat sdf = new SimpleDateFormat(pattern);
+                SimpleDateFormat sdf = DateFormats.FORMATTING.get(pattern, null);
                 Date date = new Date(time);
                 return Optional.of(sdf.format(date));
             } catch (Exception e) {
@@ -73,7 +136,7 @@ public class DateTime {
     }
 
     /**
-     * Parse date string to timestamp
+     * Parse date string to timestamp, in the default time zone and locale, hence not pure
      */
     public static final class parseDate extends Function.ArgDrivenSingleFunction<String, Long> {
         @Override
@@ -83,8 +146,13 @@ public class DateTime {
             }
 
             try {
-                SimpleDateFormat sdf = new SimpleDateFormat(pattern);
-                Date date = sdf.parse((String) dateString);
+                SimpleDateFormat sdf = DateFormats.PARSING.get(pattern, null);
+                // parse with a ParsePosition reports unparseable input by returning null instead of throwing
+                ParsePosition position = new ParsePosition(0);
+                Date date = sdf.parse((String) dateString, position);
+                if (date == null || position.getIndex() == 0) {
+                    return Optional.empty();
+                }
                 return Optional.of(date.getTime());
             } catch (Exception e) {
                 return Optional.empty();
@@ -95,7 +163,7 @@ public class DateTime {
     /**
      * Add milliseconds to timestamp
      */
-    public static final class addMillis extends Function.ArgDrivenSingleFunction<Number, Long> {
+    public static final class addMillis extends Function.ArgDrivenSingleFunction<Number, Long> implements Function.PureFunction {
         @Override
         protected Optional<Long> applySingle(Number millis, Object timestamp) {
             if (millis == null || timestamp == null) {
@@ -107,7 +175,11 @@ public class DateTime {
                 if (timestamp instanceof Number) {
                     time = ((Number) timestamp).longValue();
                 } else if (timestamp instanceof String) {
-                    time = Long.parseLong((String) timestamp);
+                    Long parsed = Objects.parseLong((String) timestamp);
+                    if (parsed == null) {
+                        return Optional.empty();
+                    }
+                    time = parsed;
                 } else {
                     return Optional.empty();
                 }
@@ -122,7 +194,7 @@ public class DateTime {
     /**
      * Add days to timestamp
      */
-    public static final class addDays extends Function.ArgDrivenSingleFunction<Number, Long> {
+    public static final class addDays extends Function.ArgDrivenSingleFunction<Number, Long> implements Function.PureFunction {
         @Override
         protected Optional<Long> applySingle(Number days, Object timestamp) {
             if (days == null || timestamp == null) {
@@ -134,7 +206,11 @@ public class DateTime {
                 if (timestamp instanceof Number) {
                     time = ((Number) timestamp).longValue();
                 } else if (timestamp instanceof String) {
-                    time = Long.parseLong((String) timestamp);
+                    Long parsed = Objects.parseLong((String) timestamp);
+                    if (parsed == null) {
+                        return Optional.empty();
+                    }
+                    time = parsed;
                 } else {
                     return Optional.empty();
                 }
@@ -150,7 +226,7 @@ public class DateTime {
     /**
      * Get difference between two timestamps in milliseconds
      */
-    public static final class timeDiff extends Function.ListFunction {
+    public static final class timeDiff extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList(final List<Object> argList) {
             if (argList == null || argList.size() != 2) {
@@ -166,7 +242,11 @@ public class DateTime {
                 if (ts1 instanceof Number) {
                     time1 = ((Number) ts1).longValue();
                 } else if (ts1 instanceof String) {
-                    time1 = Long.parseLong((String) ts1);
+                    Long parsed = Objects.parseLong((String) ts1);
+                    if (parsed == null) {
+                        return Optional.empty();
+                    }
+                    time1 = parsed;
                 } else {
                     return Optional.empty();
                 }
@@ -174,7 +254,11 @@ public class DateTime {
                 if (ts2 instanceof Number) {
                     time2 = ((Number) ts2).longValue();
                 } else if (ts2 instanceof String) {
-                    time2 = Long.parseLong((String) ts2);
+                    Long parsed = Objects.parseLong((String) ts2);
+                    if (parsed == null) {
+                        return Optional.empty();
+                    }
+                    time2 = parsed;
                 } else {
                     return Optional.empty();
                 }
@@ -187,7 +271,7 @@ public class DateTime {
     }
 
     /**
-     * Format date with timezone
+     * Format date with timezone, in the default locale, hence not pure
      */
     public static final class formatDateWithTZ extends Function.ArgDrivenListFunction<String> {
         @Override
@@ -208,13 +292,16 @@ public class DateTime {
                 if (timestamp instanceof Number) {
                     time = ((Number) timestamp).longValue();
                 } else if (timestamp instanceof String) {
-                    time = Long.parseLong((String) timestamp);
+                    Long parsed = Objects.parseLong((String) timestamp);
+                    if (parsed == null) {
+                        return Optional.empty();
+                    }
+                    time = parsed;
                 } else {
                     return Optional.empty();
                 }
 
-                SimpleDateFormat sdf = new SimpleDateFormat(pattern);
-                sdf.setTimeZone(TimeZone.getTimeZone((String) timezone));
+                SimpleDateFormat sdf = DateFormats.FORMATTING.get(pattern, (String) timezone);
                 Date date = new Date(time);
                 return Optional.of(sdf.format(date));
             } catch (Exception e) {
@@ -99,6 +99,37 @@ public interface Function {
 
     Optional<Object> apply(Object... args);
 
+    /**
+     * Same as apply() with no args, for callers that know the arity of the call up front.
+     *  The stock functions override these to skip the varargs array and the arg count checks.
+     */
+    default Optional<Object> apply0() {
+        return apply();
+    }
+
+    /**
+     * Same as apply( arg )
+     */
+    default Optional<Object> apply1( Object arg ) {
+        return apply( arg );
+    }
+
+    /**
+     * Same as apply( arg1, arg2 )
+     */
+    default Optional<Object> apply2( Object arg1, Object arg2 ) {
+        return apply( arg1, arg2 );
+    }
+
+    /**
+     * @return true if the result depends on the arguments alone, i.e. the function reads no clock, random
+     *  numbers or other state and has no side effects.  Modifier calls a pure function whose arguments
+     *  are all literals once, when the spec is built, instead of for every match.
+     */
+    default boolean isPure() {
+        return false;
+    }
+
     /**
      * Does nothing
      *
@@ -182,6 +213,44 @@ public interface Function {
         }
     };
 
+    /**
+     * Function whose first argument is usually a literal that is expensive to interpret, i.e. the
+     *  source of a script or a query, and that can do that work once when the spec is built.
+     *
+     * spec - "key": "=jsonata('name', @(1,data))"
+     *
+     * will compile the 'name' query once, rather than for every matching key
+     */
+    interface CompilableFunction extends Function {
+
+        /**
+         * @param literalArg literal value of the argument at {@link #compiledArgIndex()} in the spec
+         * @return function to call instead of this one, with the same arguments, for every evaluation
+         *  of that spec; or this function if the argument can not be compiled
+         */
+        Function compile( Object literalArg );
+
+        /**
+         * @return index of the spec argument that compile() takes, the first one unless the function
+         *  takes that literal after its input, i.e. the regex of "=replaceRegex(@(1,name), '\\s+', ' ')"
+         */
+        default int compiledArgIndex() {
+            return 0;
+        }
+    }
+
+    /**
+     * Marks a function as pure, see {@link #isPure()}.  The abstract base classes are not pure by
+     *  default, as a subclass may well read state, so the stock functions that are say so here.
+     */
+    interface PureFunction extends Function {
+
+        @Override
+        default boolean isPure() {
+            return true;
+        }
+    }
+
     /**
      * Abstract class that processes var-args and calls two abstract methods
      *
@@ -198,31 +267,41 @@ public interface Function {
                 return Optional.empty();
             }
             else if(args.length == 1) {
-                if(args[0] instanceof List ) {
-                    if(((List) args[0]).isEmpty()) {
-                        return Optional.empty();
-                    }
-                    else {
-                        return applyList((List) args[0]);
-                    }
+                return apply1( args[0] );
+            }
+            else {
+                return applyList( Arrays.asList( args ) );
+            }
+        }
+
+        @Override
+        public final Optional<Object> apply0() {
+            return Optional.empty();
+        }
+
+        @Override
+        public final Optional<Object> apply1( final Object arg ) {
+            if(arg instanceof List ) {
+                if(((List) arg).isEmpty()) {
+                    return Optional.empty();
                 }
-                else if( args[0] instanceof Object[] ) {
-                    if(((Object[]) args[0]).length == 0) {
-                        return Optional.empty();
-                    }
-                    else {
-                        return applyList(Arrays.asList(((Object[]) args[0])));
-                    }
+                else {
+                    return applyList((List) arg);
                 }
-                else if(args[0] == null) {
+            }
+            else if( arg instanceof Object[] ) {
+                if(((Object[]) arg).length == 0) {
                     return Optional.empty();
                 }
                 else {
-                    return (Optional) applySingle( args[0] );
+                    return applyList(Arrays.asList(((Object[]) arg)));
                 }
             }
+            else if(arg == null) {
+                return Optional.empty();
+            }
             else {
-                return applyList( Arrays.asList( args ) );
+                return (Optional) applySingle( arg );
             }
         }
 
@@ -316,7 +395,13 @@ public interface Function {
             if(args.length == 1 && args[0] instanceof List) {
                 args = ((List) args[0]).toArray();
             }
+            return applyUnwrapped( args );
+        }
 
+        /**
+         * @param args the arguments, with a lone List argument already unwrapped, which is only done once
+         */
+        private Optional<Object> applyUnwrapped( Object[] args ) {
             Optional<SOURCE> specialArgOptional = getSpecialArg( args );
             if ( specialArgOptional.isPresent() ) {
                 SOURCE specialArg = specialArgOptional.get();
@@ -338,6 +423,34 @@ public interface Function {
             }
         }
 
+        @Override
+        public final Optional<Object> apply0() {
+            return Optional.empty();
+        }
+
+        @Override
+        public final Optional<Object> apply1( Object arg ) {
+            // only a list can hold both the special arg and the input
+            if ( arg instanceof List ) {
+                return applyUnwrapped( ( (List) arg ).toArray() );
+            }
+            return Optional.empty();
+        }
+
+        @Override
+        public final Optional<Object> apply2( Object arg1, Object arg2 ) {
+            if ( ! specialArgType.isInstance( arg1 ) ) {
+                return Optional.empty();
+            }
+            SOURCE specialArg = (SOURCE) arg1;
+            if ( arg2 instanceof List ) {
+                return (Optional) applyList( specialArg, (List) arg2 );
+            }
+            else {
+                return (Optional) applySingle( specialArg, arg2 );
+            }
+        }
+
         protected abstract Optional<Object> applyList( SOURCE specialArg, List<Object> args );
 
         protected abstract Optional<RETTYPE> applySingle( SOURCE specialArg, Object arg );
@@ -109,7 +109,20 @@ public abstract class FunctionArg {
         public Optional<Object> evaluateArg( final WalkedPath walkedPath, final Map<String, Object> context ) {
             return returnValue;
         }
+
+        @Override
+        public Optional<Object> getLiteralValue() {
+            return returnValue;
+        }
     }
 
     public abstract Optional<Object> evaluateArg(WalkedPath walkedPath, Map<String, Object> context);
+
+    /**
+     * @return the value of this arg if it is a literal in the spec, and hence the same on every
+     *  evaluation, else empty
+     */
+    public Optional<Object> getLiteralValue() {
+        return Optional.empty();
+    }
 }
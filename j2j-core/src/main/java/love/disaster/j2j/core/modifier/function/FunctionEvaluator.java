@@ -19,13 +19,57 @@ package love.disaster.j2j.core.modifier.function;
 import love.disaster.j2j.core.common.Optional;
 import love.disaster.j2j.core.common.tree.WalkedPath;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Map;
 
 @SuppressWarnings( "deprecated" )
 public class FunctionEvaluator {
 
     public static FunctionEvaluator forFunctionEvaluation( Function function, FunctionArg... functionArgs ) {
-        return new FunctionEvaluator( function, functionArgs );
+        // "key": "=jsonata('name', @(1,data))", compile the query once rather than on every evaluation
+        if ( function instanceof Function.CompilableFunction ) {
+            Function.CompilableFunction compilableFunction = (Function.CompilableFunction) function;
+            int index = compilableFunction.compiledArgIndex();
+            Optional<Object> literalArg = index < functionArgs.length ? functionArgs[index].getLiteralValue() : Optional.empty();
+            if ( literalArg.isPresent() ) {
+                function = compilableFunction.compile( literalArg.get() );
+            }
+        }
+        FunctionEvaluator functionEvaluator = new FunctionEvaluator( function, functionArgs );
+        // "key": "=concat('prefix-', 'v2')", a pure function of literals gives the same value for every
+        // match, so call it once now; empty folds to an evaluator that is never applicable
+        if ( function != null && function.isPure() && isConstant( functionArgs ) ) {
+            Optional<Object> value = functionEvaluator.evaluate( Optional.empty(), null, null );
+            if ( !value.isPresent() ) {
+                return new FunctionEvaluator( null, new FunctionArg[0] );
+            }
+            if ( isImmutable( value.get() ) ) {
+                return forArgEvaluation( FunctionArg.forLiteral( value.get(), false ) );
+            }
+            // lists, maps and arrays are not shared between outputs, that value is computed per match
+        }
+        return functionEvaluator;
+    }
+
+    private static boolean isConstant( FunctionArg[] functionArgs ) {
+        if ( functionArgs.length == 0 ) {
+            // "key": "=abs" is applied to the matched value
+            return false;
+        }
+        for ( FunctionArg functionArg : functionArgs ) {
+            if ( !functionArg.getLiteralValue().isPresent() ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isImmutable( Object value ) {
+        return value == null || value instanceof String || value instanceof Boolean || value instanceof Character ||
+                value instanceof Integer || value instanceof Long || value instanceof Double || value instanceof Float ||
+                value instanceof Short || value instanceof Byte ||
+                value instanceof BigDecimal || value instanceof BigInteger;
     }
 
     public static FunctionEvaluator forArgEvaluation( FunctionArg functionArgs ) {
@@ -37,16 +81,23 @@ public class FunctionEvaluator {
     // arguments of the function, not evaluated and can be a jolt path expression that
     // either point to a context or self, or a value present at the matching level
     private final FunctionArg[] functionArgs;
+    // false when there is nothing to evaluate at all, i.e. "key": "=unknownFunction", decided once
+    // at spec build rather than by an ArrayIndexOutOfBoundsException on every evaluation
+    private final boolean applicable;
 
     private FunctionEvaluator( final Function function, final FunctionArg... functionArgs ) {
         this.function = function;
         this.functionArgs = functionArgs;
+        this.applicable = function != null || functionArgs.length > 0;
     }
 
 
     public Optional<Object> evaluate(Optional<Object> inputOptional, WalkedPath walkedPath, Map<String, Object> context) {
 
         Optional<Object> valueOptional = Optional.empty();
+        if ( !applicable ) {
+            return valueOptional;
+        }
         try {
 
             // "key": "@0", "key": literal
@@ -58,7 +109,13 @@ public class FunctionEvaluator {
             // pass the value, if present, to the spec function
             else if( functionArgs.length == 1 ) {
                 Optional<Object> evaluatedArgValue = functionArgs[0].evaluateArg( walkedPath, context );
-                valueOptional = evaluatedArgValue.isPresent() ? function.apply( evaluatedArgValue.get() ): function.apply( );
+                valueOptional = evaluatedArgValue.isPresent() ? function.apply1( evaluatedArgValue.get() ): function.apply0( );
+            }
+            // "key": "=divide(@(1,num),2)", the next most usual case, skip the args array
+            else if( functionArgs.length == 2 ) {
+                Object arg1 = functionArgs[0].evaluateArg( walkedPath, context ).get();
+                Object arg2 = functionArgs[1].evaluateArg( walkedPath, context ).get();
+                valueOptional = function.apply2( arg1, arg2 );
             }
             // "key": "=abs(@(1,&0),-1,-3)"
             // this is more complicated case! if args is an array, after evaluation we cannot pass a missing value wrapped in
@@ -76,9 +133,11 @@ public class FunctionEvaluator {
             // "key": "=abs"
             else {
                 // pass current value as arg if present
-                valueOptional = inputOptional.isPresent() ? function.apply( inputOptional.get()) : function.apply(  );
+                valueOptional = inputOptional.isPresent() ? function.apply1( inputOptional.get()) : function.apply0(  );
             }
         }
+        // stock functions return empty when they do not apply, so this only catches genuine faults,
+        // e.g. a broken custom function or an invalid date pattern in the spec
         catch(Exception ignored) {}
 
         return valueOptional;
@@ -327,7 +327,7 @@ public class InnerMath {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class max extends Function.BaseFunction<Object> {
+    public static final class max extends Function.BaseFunction<Object> implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List argList ) {
             return (Optional) max( argList );
@@ -345,7 +345,7 @@ public class InnerMath {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class min extends Function.BaseFunction<Object> {
+    public static final class min extends Function.BaseFunction<Object> implements Function.PureFunction {
 
         @Override
         protected Optional<Object> applyList( final List<Object> argList ) {
@@ -364,7 +364,7 @@ public class InnerMath {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class abs extends Function.SingleFunction<Number> {
+    public static final class abs extends Function.SingleFunction<Number> implements Function.PureFunction {
         @Override
         protected Optional<Number> applySingle( final Object arg ) {
             return abs( arg );
@@ -372,7 +372,7 @@ public class InnerMath {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class divide extends Function.ListFunction {
+    public static final class divide extends Function.ListFunction implements Function.PureFunction {
 
         @Override
         protected Optional<Object> applyList(List<Object> argList) {
@@ -382,7 +382,7 @@ public class InnerMath {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class divideAndRound extends Function.ArgDrivenListFunction<Integer> {
+    public static final class divideAndRound extends Function.ArgDrivenListFunction<Integer> implements Function.PureFunction {
 
 
         @Override
@@ -392,7 +392,7 @@ public class InnerMath {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class avg extends Function.ListFunction {
+    public static final class avg extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argList ) {
             return (Optional) avg( argList );
@@ -400,7 +400,7 @@ public class InnerMath {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class intSum extends Function.ListFunction {
+    public static final class intSum extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argIntList ) {
             return (Optional) intSum(argIntList);
@@ -408,7 +408,7 @@ public class InnerMath {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class doubleSum extends Function.ListFunction {
+    public static final class doubleSum extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argDoubleList ) {
             return (Optional) doubleSum(argDoubleList);
@@ -416,7 +416,7 @@ public class InnerMath {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class longSum extends Function.ListFunction {
+    public static final class longSum extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argLongList ) {
             return (Optional) longSum(argLongList);
@@ -424,7 +424,7 @@ public class InnerMath {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class intSubtract extends Function.ListFunction {
+    public static final class intSubtract extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argIntList ) {
             return (Optional) intSubtract(argIntList);
@@ -432,7 +432,7 @@ public class InnerMath {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class doubleSubtract extends Function.ListFunction {
+    public static final class doubleSubtract extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argDoubleList ) {
             return (Optional) doubleSubtract(argDoubleList);
@@ -440,7 +440,7 @@ public class InnerMath {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class longSubtract extends Function.ListFunction {
+    public static final class longSubtract extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argLongList ) {
             return (Optional) longSubtract(argLongList);
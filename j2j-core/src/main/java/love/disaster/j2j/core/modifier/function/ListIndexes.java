@@ -0,0 +1,223 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package love.disaster.j2j.core.modifier.function;
+
+import love.disaster.j2j.core.common.tree.WalkedPath;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hash indexes of the lists that Modifier functions search, e.g. the reference list in
+ *  "=listContains(@(2,refs), @(1,id))" or "=lookup(@(2,refs), 'id', @(1,refId))", which is the
+ *  same list for every match.
+ *
+ * Modifier opens a scope on the transforming thread for the duration of each transform.  Within
+ *  it, the index of a list is built by the first search and reused by the searches after it, so
+ *  that n searches of a list cost O(n + size) rather than O(n * size).
+ *
+ * A cached index must never change a result, so it is dropped whenever its list could have changed.
+ *  When an index is built, it records the list and every Map, List and Set reachable from its
+ *  elements.  A Modifier write always lands in a container on the path it walked, so the index is
+ *  dropped when one of the containers on that path is one of those it recorded, even if the path got
+ *  there through another reference to the same object, e.g. a Shiftr alias.  Writes into unrelated
+ *  containers, e.g. the items that are enriched from a reference list, keep the index.  It is also
+ *  dropped when its list changes size.
+ *
+ * Outside of a scope, e.g. when a function is called directly, searches scan the list as before.
+ */
+public final class ListIndexes {
+
+    // shorter lists are scanned, hashing them would cost more than it saves
+    private static final int MINIMUM_SIZE = 16;
+
+    private static final ThreadLocal<Map<Object, Index>> SCOPE = new ThreadLocal<>();
+
+    // number of indexes built, so that tests can check that an index is reused
+    static final AtomicInteger BUILDS = new AtomicInteger();
+
+    private ListIndexes() {
+    }
+
+    /**
+     * Starts a scope on this thread, unless an enclosing transform already did
+     *
+     * @return true if this call started the scope, and hence has to close() it
+     */
+    public static boolean open() {
+        if ( SCOPE.get() != null ) {
+            return false;
+        }
+        SCOPE.set( new IdentityHashMap<>() );
+        return true;
+    }
+
+    public static void close() {
+        SCOPE.remove();
+    }
+
+    /**
+     * Drops the indexes of the lists that reach one of the containers on the walked path, as a write
+     *  at its end may change those
+     */
+    public static void modified( WalkedPath walkedPath ) {
+        Map<Object, Index> indexes = SCOPE.get();
+        if ( indexes == null || indexes.isEmpty() ) {
+            return;
+        }
+        indexes.values().removeIf( index -> index.reaches( walkedPath ) );
+    }
+
+    /**
+     * Same as list.indexOf( value )
+     */
+    static int indexOf( List<?> list, Object value ) {
+        Index index = index( list );
+        if ( index == null ) {
+            return list.indexOf( value );
+        }
+        Integer position = index.positions().get( StructuralKey.of( value ) );
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * @return the first Map element of the list whose field has the given value, or null if there is none
+     */
+    static Object find( List<?> list, String field, Object value ) {
+        Index index = index( list );
+        if ( index == null ) {
+            for ( Object element : list ) {
+                if ( matches( element, field, value ) ) {
+                    return element;
+                }
+            }
+            return null;
+        }
+        return index.byField( field ).get( StructuralKey.of( value ) );
+    }
+
+    private static boolean matches( Object element, String field, Object value ) {
+        if ( element instanceof Map ) {
+            Map<?, ?> map = (Map<?, ?>) element;
+            return map.containsKey( field ) && java.util.Objects.equals( value, map.get( field ) );
+        }
+        return false;
+    }
+
+    /**
+     * @return the index of the list in the current scope, or null if there is no scope or the list is too short
+     */
+    private static Index index( List<?> list ) {
+        Map<Object, Index> indexes = SCOPE.get();
+        if ( indexes == null || list.size() < MINIMUM_SIZE ) {
+            return null;
+        }
+        Index index = indexes.get( list );
+        if ( index == null || index.size != list.size() ) {
+            index = new Index( list );
+            indexes.put( list, index );
+        }
+        return index;
+    }
+
+    private static boolean isContainer( Object value ) {
+        return value instanceof Map || value instanceof List || value instanceof Set;
+    }
+
+    /**
+     * The indexes of one list, each built the first time it is asked for
+     */
+    private static final class Index {
+
+        private final List<?> list;
+        private final int size;
+        // the list and the containers reachable from its elements, by identity
+        private final Set<Object> containers = Collections.newSetFromMap( new IdentityHashMap<>() );
+        // position of the first occurrence of each distinct element
+        private Map<StructuralKey, Integer> positions;
+        // for each field searched by, the first Map element with each distinct value of that field
+        private Map<String, Map<StructuralKey, Object>> fields;
+
+        private Index( List<?> list ) {
+            this.list = list;
+            this.size = list.size();
+            BUILDS.incrementAndGet();
+
+            Deque<Object> pending = new ArrayDeque<>();
+            pending.push( list );
+            while ( !pending.isEmpty() ) {
+                Object container = pending.pop();
+                if ( !containers.add( container ) ) {
+                    continue;
+                }
+                Collection<?> children = container instanceof Map ? ( (Map<?, ?>) container ).values() : (Collection<?>) container;
+                for ( Object child : children ) {
+                    if ( isContainer( child ) ) {
+                        pending.push( child );
+                    }
+                }
+            }
+        }
+
+        private boolean reaches( WalkedPath walkedPath ) {
+            for ( int i = 0; i < walkedPath.size(); i++ ) {
+                if ( containers.contains( walkedPath.get( i ).getTreeRef() ) ) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Map<StructuralKey, Integer> positions() {
+            if ( positions == null ) {
+                positions = new HashMap<>( size * 4 / 3 + 1 );
+                StructuralKey.Hasher hasher = new StructuralKey.Hasher();
+                int position = 0;
+                for ( Object element : list ) {
+                    positions.putIfAbsent( hasher.key( element ), position++ );
+                }
+            }
+            return positions;
+        }
+
+        private Map<StructuralKey, Object> byField( String field ) {
+            if ( fields == null ) {
+                fields = new HashMap<>();
+            }
+            Map<StructuralKey, Object> byField = fields.get( field );
+            if ( byField == null ) {
+                byField = new HashMap<>( size * 4 / 3 + 1 );
+                StructuralKey.Hasher hasher = new StructuralKey.Hasher();
+                for ( Object element : list ) {
+                    if ( element instanceof Map && ( (Map<?, ?>) element ).containsKey( field ) ) {
+                        byField.putIfAbsent( hasher.key( ( (Map<?, ?>) element ).get( field ) ), element );
+                    }
+                }
+                fields.put( field, byField );
+            }
+            return byField;
+        }
+    }
+}
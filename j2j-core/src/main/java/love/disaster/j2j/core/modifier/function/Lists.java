@@ -20,7 +20,9 @@ import love.disaster.j2j.core.common.Optional;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @SuppressWarnings( "deprecated" )
 public class Lists {
@@ -28,7 +30,7 @@ public class Lists {
     /**
      * Given a list, return the first element
      */
-    public static final class firstElement extends Function.ListFunction {
+    public static final class firstElement extends Function.ListFunction implements Function.PureFunction {
 
         @Override
         protected Optional applyList( final List argList ) {
@@ -41,7 +43,7 @@ public class Lists {
     /**
      * Given a list, return the last element
      */
-    public static final class lastElement extends Function.ListFunction {
+    public static final class lastElement extends Function.ListFunction implements Function.PureFunction {
 
         @Override
         protected Optional applyList( final List argList ) {
@@ -54,7 +56,7 @@ public class Lists {
     /**
      * Given an index at arg[0], and a list at arg[1] or args[1...N], return element at index of list or array
      */
-    public static final class elementAt extends Function.ArgDrivenListFunction<Integer> {
+    public static final class elementAt extends Function.ArgDrivenListFunction<Integer> implements Function.PureFunction {
 
         @Override
         protected Optional<Object> applyList( final Integer specialArg, final List<Object> args ) {
@@ -68,7 +70,7 @@ public class Lists {
     /**
      * Given an arbitrary number of arguments, return them as list
      */
-    public static final class toList extends Function.BaseFunction<List> {
+    public static final class toList extends Function.BaseFunction<List> implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List input ) {
             return Optional.<Object>of( input );
@@ -83,17 +85,39 @@ public class Lists {
     /**
      * Given an arbitrary list of items, returns a new array of them in sorted state
      */
-    public static final class sort extends Function.BaseFunction {
+    public static final class sort extends Function.BaseFunction implements Function.PureFunction {
 
         @Override
         protected Optional applyList( final List argList ) {
+            Object[] dest = argList.toArray();
+            if ( dest.length < 2 ) {
+                return Optional.<Object>of( dest );
+            }
+            // the usual case, elements of one Comparable class, sorts without any chance of failing;
+            //  nulls and non Comparable elements can never be sorted, so don't try
+            Class<?> elementClass = null;
+            boolean sameClass = true;
+            for ( Object element : dest ) {
+                if ( !( element instanceof Comparable ) ) {
+                    return Optional.empty();
+                }
+                if ( elementClass == null ) {
+                    elementClass = element.getClass();
+                }
+                else if ( elementClass != element.getClass() ) {
+                    sameClass = false;
+                }
+            }
+            if ( sameClass ) {
+                Arrays.sort( dest );
+                return Optional.<Object>of( dest );
+            }
             try {
-                Object[] dest = argList.toArray();
                 Arrays.sort( dest );
                 return Optional.<Object>of( dest );
             }
-            // if any of the elements are not Comparable<?> it'll throw a ClassCastException
-            catch(Exception ignored) {
+            // mixed Comparables, e.g. Integer and String, throw a ClassCastException when compared
+            catch(ClassCastException ignored) {
                 return Optional.empty();
             }
         }
@@ -109,7 +133,7 @@ public class Lists {
     /**
      * Reverse the order of elements in a list
      */
-    public static final class reverse extends Function.SingleFunction<List> {
+    public static final class reverse extends Function.SingleFunction<List> implements Function.PureFunction {
         @Override
         protected Optional<List> applySingle(final Object arg) {
             if (!(arg instanceof List)) {
@@ -126,7 +150,7 @@ public class Lists {
     /**
      * Get a sublist from start to end index
      */
-    public static final class subList extends Function.ArgDrivenListFunction<List> {
+    public static final class subList extends Function.ArgDrivenListFunction<List> implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList(List sourceList, List<Object> args) {
             if (sourceList == null || args == null || args.size() != 2) {
@@ -151,36 +175,82 @@ public class Lists {
     /**
      * Check if list contains an element
      */
-    public static final class contains extends Function.ArgDrivenSingleFunction<List, Boolean> {
+    public static final class contains extends Function.ArgDrivenSingleFunction<List, Boolean> implements Function.PureFunction {
         @Override
         protected Optional<Boolean> applySingle(List sourceList, Object searchValue) {
             if (sourceList == null) {
                 return Optional.of(false);
             }
             
-            return Optional.of(sourceList.contains(searchValue));
+            return Optional.of(ListIndexes.indexOf(sourceList, searchValue) >= 0);
         }
     }
     
     /**
      * Find index of element in list
      */
-    public static final class indexOf extends Function.ArgDrivenSingleFunction<List, Integer> {
+    public static final class indexOf extends Function.ArgDrivenSingleFunction<List, Integer> implements Function.PureFunction {
         @Override
         protected Optional<Integer> applySingle(List sourceList, Object searchValue) {
             if (sourceList == null) {
                 return Optional.empty();
             }
             
-            int index = sourceList.indexOf(searchValue);
+            int index = ListIndexes.indexOf(sourceList, searchValue);
             return index >= 0 ? Optional.of(index) : Optional.empty();
         }
     }
     
+    /**
+     * Find the first map in a list whose field has the given value, i.e. join a reference table
+     *
+     * spec - "product": "=lookup(@(2,catalog), 'sku', @(1,sku))"
+     *
+     * Values are compared with equals(), so the number 42 does not match the string "42".  In a
+     *  Modifier transform the list is indexed by that field on the first lookup, and every lookup
+     *  after that is a hash lookup.
+     *
+     * The result is a copy of the map, so that a later write into one "product" does not change
+     *  the catalog, nor the "product" of every other item with the same sku.
+     */
+    public static final class lookup extends Function.ArgDrivenListFunction<List> implements Function.PureFunction {
+        @Override
+        protected Optional<Object> applyList(List sourceList, List<Object> args) {
+            if (sourceList == null || args == null || args.size() != 2 || !(args.get(0) instanceof String)) {
+                return Optional.empty();
+            }
+
+            Object match = ListIndexes.find(sourceList, (String) args.get(0), args.get(1));
+            return match != null ? Optional.of(copy(match)) : Optional.empty();
+        }
+    }
+
+    /**
+     * @return a deep copy of the Maps and Lists of a json value, so that the result of a function
+     *  does not share containers with its input, which a later write into either would change
+     */
+    private static Object copy(Object value) {
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                copy.put(entry.getKey(), copy(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof List) {
+            List<Object> copy = new ArrayList<>(((List<?>) value).size());
+            for (Object element : (List<?>) value) {
+                copy.add(copy(element));
+            }
+            return copy;
+        }
+        return value;
+    }
+
     /**
      * Concatenate multiple lists
      */
-    public static final class concat extends Function.ListFunction {
+    public static final class concat extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList(final List<Object> argList) {
             List<Object> result = new ArrayList<>();
@@ -200,30 +270,21 @@ public class Lists {
     /**
      * Remove duplicates from list while preserving order
      */
-    public static final class distinct extends Function.SingleFunction<List> {
+    public static final class distinct extends Function.SingleFunction<List> implements Function.PureFunction {
         @Override
         protected Optional<List> applySingle(final Object arg) {
             if (!(arg instanceof List)) {
                 return Optional.empty();
             }
             
-            List<Object> inputList = (List<Object>) arg;
-            List<Object> result = new ArrayList<>();
-            
-            for (Object item : inputList) {
-                if (!result.contains(item)) {
-                    result.add(item);
-                }
-            }
-            
-            return Optional.of(result);
+            return Optional.of(Objects.distinct((List<?>) arg));
         }
     }
     
     /**
      * Filter list by keeping only non-null elements
      */
-    public static final class filterNotNull extends Function.SingleFunction<List> {
+    public static final class filterNotNull extends Function.SingleFunction<List> implements Function.PureFunction {
         @Override
         protected Optional<List> applySingle(final Object arg) {
             if (!(arg instanceof List)) {
@@ -246,7 +307,7 @@ public class Lists {
     /**
      * Join list elements with a separator
      */
-    public static final class join extends Function.ArgDrivenSingleFunction<String, String> {
+    public static final class join extends Function.ArgDrivenSingleFunction<String, String> implements Function.PureFunction {
         @Override
         protected Optional<String> applySingle(String separator, Object arg) {
             if (!(arg instanceof List)) {
@@ -273,7 +334,7 @@ public class Lists {
     /**
      * Get list size (same as Objects.size but specifically for lists)
      */
-    public static final class size extends Function.SingleFunction<Integer> {
+    public static final class size extends Function.SingleFunction<Integer> implements Function.PureFunction {
         @Override
         protected Optional<Integer> applySingle(final Object arg) {
             if (arg instanceof List) {
@@ -282,4 +343,267 @@ public class Lists {
             return Optional.empty();
         }
     }
+
+    // Aggregations - each walks its list once, grouping straight into a LinkedHashMap
+
+    /**
+     * Base of the functions that group a list of maps by the value of a key field, e.g.
+     *
+     * spec - "totals": "=sumBy(@(1,lines), 'category', 'amount')"
+     *
+     * Groups are keyed by the key field value as a String, in order of first occurrence.  Elements
+     *  that are not maps, or have no (or a null) key field value, are left out.
+     */
+    private abstract static class GroupingFunction extends Function.ListFunction implements Function.PureFunction {
+
+        // "=countBy(@(1,lines), 'category')" or "=sumBy(@(1,lines), 'category', 'amount')"
+        @Override
+        protected final Optional<Object> applyList(final List<Object> argList) {
+            if (argList.size() == 2) {
+                return group(argList.get(0), argList.get(1), null);
+            }
+            if (argList.size() == 3 && argList.get(2) != null) {
+                return group(argList.get(0), argList.get(1), argList.get(2));
+            }
+            return Optional.empty();
+        }
+
+        private Optional<Object> group(Object source, Object keyField, Object valueField) {
+            if (!(source instanceof List) || !(keyField instanceof String) ||
+                    !(valueField == null || valueField instanceof String) || !acceptsValueField(valueField != null)) {
+                return Optional.empty();
+            }
+
+            Map<String, Object> groups = new LinkedHashMap<>();
+            for (Object element : (List<?>) source) {
+                if (!(element instanceof Map)) {
+                    continue;
+                }
+                Map<?, ?> map = (Map<?, ?>) element;
+                Object key = map.get(keyField);
+                if (key != null) {
+                    add(groups, key.toString(), valueField == null ? element : map.get(valueField));
+                }
+            }
+            finish(groups);
+            return Optional.of(groups);
+        }
+
+        /**
+         * @return whether the function takes a value field (true) or works on the elements themselves (false)
+         */
+        protected abstract boolean acceptsValueField(boolean hasValueField);
+
+        protected abstract void add(Map<String, Object> groups, String key, Object value);
+
+        /**
+         * Replaces the accumulators left in the groups by their results
+         */
+        protected void finish(Map<String, Object> groups) {
+        }
+    }
+
+    /**
+     * Base of the numeric aggregations, which keep an Accumulator per group while walking the list.
+     *  Values are read with Objects.toNumber, so numeric strings count; other values are skipped, and
+     *  a group without any numeric value is left out.
+     */
+    private abstract static class NumericGroupingFunction extends GroupingFunction {
+
+        @Override
+        protected final boolean acceptsValueField(boolean hasValueField) {
+            return hasValueField;
+        }
+
+        @Override
+        protected final void add(Map<String, Object> groups, String key, Object value) {
+            Number number = Objects.toNumber(value).get();
+            if (number == null) {
+                return;
+            }
+            Accumulator accumulator = (Accumulator) groups.get(key);
+            if (accumulator == null) {
+                accumulator = new Accumulator();
+                groups.put(key, accumulator);
+            }
+            accumulate(accumulator, number);
+        }
+
+        @Override
+        protected final void finish(Map<String, Object> groups) {
+            for (Map.Entry<String, Object> entry : groups.entrySet()) {
+                entry.setValue(result((Accumulator) entry.getValue()));
+            }
+        }
+
+        protected abstract void accumulate(Accumulator accumulator, Number number);
+
+        protected abstract Number result(Accumulator accumulator);
+    }
+
+    /**
+     * Running count, sum and extremes of one group, kept in primitives.  Sums stay in a long while
+     *  the values are integral, and carry on in a double once one is not, or once the long overflows.
+     */
+    private static final class Accumulator {
+
+        private int count;
+        private boolean integral = true;
+        private long longSum;
+        private double doubleSum;
+        private Number best;
+
+        private void add(Number number) {
+            if (integral && isIntegral(number)) {
+                long value = number.longValue();
+                long sum = longSum + value;
+                // no overflow unless both operands have a sign other than that of the sum
+                if (((longSum ^ sum) & (value ^ sum)) >= 0) {
+                    longSum = sum;
+                    return;
+                }
+            }
+            if (integral) {
+                integral = false;
+                doubleSum = longSum;
+            }
+            doubleSum += number.doubleValue();
+        }
+
+        private Number sum() {
+            if (integral) {
+                return longSum == (int) longSum ? (Number) (int) longSum : (Number) longSum;
+            }
+            return doubleSum;
+        }
+
+        /**
+         * keeps number if it is the first, or if it compares to the best so far with the given sign;
+         *  so the first of equal values wins, and the result keeps its type
+         */
+        private void keep(Number number, int sign) {
+            if (best == null || Integer.signum(compare(number, best)) == sign) {
+                best = number;
+            }
+        }
+
+        private static int compare(Number a, Number b) {
+            if (isIntegral(a) && isIntegral(b)) {
+                return Long.compare(a.longValue(), b.longValue());
+            }
+            return Double.compare(a.doubleValue(), b.doubleValue());
+        }
+
+        private static boolean isIntegral(Number number) {
+            return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+        }
+    }
+
+    /**
+     * Group the elements, or the values of a field of the elements, of a list of maps by a key field
+     *
+     * groupBy([{"c": "a", "v": 1}, {"c": "b", "v": 2}, {"c": "a", "v": 3}], "c") ==
+     *  {"a": [{"c": "a", "v": 1}, {"c": "a", "v": 3}], "b": [{"c": "b", "v": 2}]}
+     * groupBy(same list, "c", "v") == {"a": [1, 3], "b": [2]}
+     *
+     * The grouped elements and values are copies, as with lookup, so that a later write into a group
+     *  does not change the list.
+     */
+    public static final class groupBy extends GroupingFunction {
+        @Override
+        protected boolean acceptsValueField(boolean hasValueField) {
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void add(Map<String, Object> groups, String key, Object value) {
+            List<Object> group = (List<Object>) groups.get(key);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(key, group);
+            }
+            group.add(copy(value));
+        }
+    }
+
+    /**
+     * Count the elements of a list of maps per value of a key field
+     *
+     * countBy([{"c": "a"}, {"c": "b"}, {"c": "a"}], "c") == {"a": 2, "b": 1}
+     */
+    public static final class countBy extends GroupingFunction {
+        @Override
+        protected boolean acceptsValueField(boolean hasValueField) {
+            return !hasValueField;
+        }
+
+        @Override
+        protected void add(Map<String, Object> groups, String key, Object value) {
+            Accumulator accumulator = (Accumulator) groups.get(key);
+            if (accumulator == null) {
+                accumulator = new Accumulator();
+                groups.put(key, accumulator);
+            }
+            accumulator.count++;
+        }
+
+        @Override
+        protected void finish(Map<String, Object> groups) {
+            for (Map.Entry<String, Object> entry : groups.entrySet()) {
+                entry.setValue(((Accumulator) entry.getValue()).count);
+            }
+        }
+    }
+
+    /**
+     * Sum a value field of a list of maps per value of a key field
+     *
+     * sumBy([{"c": "a", "v": 1}, {"c": "b", "v": 2.5}, {"c": "a", "v": "3"}], "c", "v") == {"a": 4, "b": 2.5}
+     */
+    public static final class sumBy extends NumericGroupingFunction {
+        @Override
+        protected void accumulate(Accumulator accumulator, Number number) {
+            accumulator.add(number);
+        }
+
+        @Override
+        protected Number result(Accumulator accumulator) {
+            return accumulator.sum();
+        }
+    }
+
+    /**
+     * Smallest value of a value field of a list of maps per value of a key field
+     *
+     * minBy([{"c": "a", "v": 1}, {"c": "b", "v": 2}, {"c": "a", "v": 0.5}], "c", "v") == {"a": 0.5, "b": 2}
+     */
+    public static final class minBy extends NumericGroupingFunction {
+        @Override
+        protected void accumulate(Accumulator accumulator, Number number) {
+            accumulator.keep(number, -1);
+        }
+
+        @Override
+        protected Number result(Accumulator accumulator) {
+            return accumulator.best;
+        }
+    }
+
+    /**
+     * Largest value of a value field of a list of maps per value of a key field
+     *
+     * maxBy([{"c": "a", "v": 1}, {"c": "b", "v": 2}, {"c": "a", "v": 0.5}], "c", "v") == {"a": 1, "b": 2}
+     */
+    public static final class maxBy extends NumericGroupingFunction {
+        @Override
+        protected void accumulate(Accumulator accumulator, Number number) {
+            accumulator.keep(number, 1);
+        }
+
+        @Override
+        protected Number result(Accumulator accumulator) {
+            return accumulator.best;
+        }
+    }
 }
@@ -326,7 +326,7 @@ public class Math {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class max extends Function.BaseFunction<Object> {
+    public static final class max extends Function.BaseFunction<Object> implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List argList ) {
             return (Optional) max( argList );
@@ -344,7 +344,7 @@ public class Math {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class min extends Function.BaseFunction<Object> {
+    public static final class min extends Function.BaseFunction<Object> implements Function.PureFunction {
 
         @Override
         protected Optional<Object> applyList( final List<Object> argList ) {
@@ -363,7 +363,7 @@ public class Math {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class abs extends Function.SingleFunction<Number> {
+    public static final class abs extends Function.SingleFunction<Number> implements Function.PureFunction {
         @Override
         protected Optional<Number> applySingle( final Object arg ) {
             return abs( arg );
@@ -371,7 +371,7 @@ public class Math {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class divide extends Function.ListFunction {
+    public static final class divide extends Function.ListFunction implements Function.PureFunction {
 
         @Override
         protected Optional<Object> applyList(List<Object> argList) {
@@ -381,7 +381,7 @@ public class Math {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class divideAndRound extends Function.ArgDrivenListFunction<Integer> {
+    public static final class divideAndRound extends Function.ArgDrivenListFunction<Integer> implements Function.PureFunction {
 
 
         @Override
@@ -391,7 +391,7 @@ public class Math {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class avg extends Function.ListFunction {
+    public static final class avg extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argList ) {
             return (Optional) avg( argList );
@@ -399,7 +399,7 @@ public class Math {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class intSum extends Function.ListFunction {
+    public static final class intSum extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argIntList ) {
             return (Optional) intSum(argIntList);
@@ -407,7 +407,7 @@ public class Math {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class doubleSum extends Function.ListFunction {
+    public static final class doubleSum extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argDoubleList ) {
             return (Optional) doubleSum(argDoubleList);
@@ -415,7 +415,7 @@ public class Math {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class longSum extends Function.ListFunction {
+    public static final class longSum extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argLongList ) {
             return (Optional) longSum(argLongList);
@@ -423,7 +423,7 @@ public class Math {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class intSubtract extends Function.ListFunction {
+    public static final class intSubtract extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argIntList ) {
             return (Optional) intSubtract(argIntList);
@@ -431,7 +431,7 @@ public class Math {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class doubleSubtract extends Function.ListFunction {
+    public static final class doubleSubtract extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argDoubleList ) {
             return (Optional) doubleSubtract(argDoubleList);
@@ -439,7 +439,7 @@ public class Math {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class longSubtract extends Function.ListFunction {
+    public static final class longSubtract extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argLongList ) {
             return (Optional) longSubtract(argLongList);
@@ -469,7 +469,7 @@ public class Math {
     }
     
     @SuppressWarnings("unchecked")
-    public static final class multiply extends Function.ListFunction {
+    public static final class multiply extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList(final List<Object> argList) {
             return (Optional) multiply(argList);
@@ -501,7 +501,7 @@ public class Math {
     }
     
     @SuppressWarnings("unchecked")
-    public static final class mod extends Function.ListFunction {
+    public static final class mod extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList(final List<Object> argList) {
             return (Optional) mod(argList);
@@ -531,7 +531,7 @@ public class Math {
     }
     
     @SuppressWarnings("unchecked")
-    public static final class pow extends Function.ListFunction {
+    public static final class pow extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList(final List<Object> argList) {
             return (Optional) pow(argList);
@@ -554,7 +554,7 @@ public class Math {
     }
     
     @SuppressWarnings("unchecked")
-    public static final class sqrt extends Function.SingleFunction<Double> {
+    public static final class sqrt extends Function.SingleFunction<Double> implements Function.PureFunction {
         @Override
         protected Optional<Double> applySingle(final Object arg) {
             return sqrt(arg);
@@ -573,7 +573,7 @@ public class Math {
     }
     
     @SuppressWarnings("unchecked")
-    public static final class ceil extends Function.SingleFunction<Double> {
+    public static final class ceil extends Function.SingleFunction<Double> implements Function.PureFunction {
         @Override
         protected Optional<Double> applySingle(final Object arg) {
             return ceil(arg);
@@ -592,7 +592,7 @@ public class Math {
     }
     
     @SuppressWarnings("unchecked")
-    public static final class floor extends Function.SingleFunction<Double> {
+    public static final class floor extends Function.SingleFunction<Double> implements Function.PureFunction {
         @Override
         protected Optional<Double> applySingle(final Object arg) {
             return floor(arg);
@@ -611,7 +611,7 @@ public class Math {
     }
     
     @SuppressWarnings("unchecked")
-    public static final class round extends Function.SingleFunction<Long> {
+    public static final class round extends Function.SingleFunction<Long> implements Function.PureFunction {
         @Override
         protected Optional<Long> applySingle(final Object arg) {
             return round(arg);
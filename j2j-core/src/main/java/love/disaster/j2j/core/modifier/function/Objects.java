@@ -20,9 +20,10 @@ import love.disaster.j2j.core.common.Optional;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 public class Objects {
 
@@ -45,23 +46,129 @@ public class Objects {
             return Optional.of( ( (Number) arg ));
         }
         else if(arg instanceof String) {
+            Number number = parseNumber( (String) arg );
+            return number == null ? Optional.<Number>empty() : Optional.of( number );
+        }
+        else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Same as trying Integer.parseInt, then Long.parseLong, then Double.parseDouble, but the
+     *  string is checked up front so that a non-numeric value, the common case on loosely typed
+     *  input, returns null rather than throwing three NumberFormatExceptions.
+     */
+    private static Number parseNumber( String str ) {
+        Long integral = parseLong( str );
+        if ( integral != null ) {
+            long value = integral;
+            return value == (int) value ? (Number) (int) value : integral;
+        }
+        if ( isDecimal( str ) ) {
+            return Double.parseDouble( str );
+        }
+        if ( isSpecialDouble( str ) ) {
+            // NaN, Infinity and hex floats, rare enough to just let parseDouble decide
             try {
-                return Optional.of( (Number) Integer.parseInt( (String) arg ) );
+                return Double.parseDouble( str );
             }
-            catch(Exception ignored) {}
-            try {
-                return Optional.of( (Number) Long.parseLong( (String) arg ) );
+            catch(NumberFormatException ignored) {}
+        }
+        return null;
+    }
+
+    /**
+     * Exception free Long.parseLong, returns null whenever Long.parseLong would throw
+     */
+    static Long parseLong( String str ) {
+        int length = str.length();
+        if ( length == 0 ) {
+            return null;
+        }
+        int i = 0;
+        boolean negative = false;
+        char first = str.charAt( 0 );
+        if ( first == '-' || first == '+' ) {
+            negative = first == '-';
+            if ( ++i == length ) {
+                return null;
             }
-            catch(Exception ignored) {}
-            try {
-                return Optional.of( (Number) Double.parseDouble( (String) arg ) );
+        }
+        // accumulate negatively, as Long.parseLong does, so that Long.MIN_VALUE fits
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplicationLimit = limit / 10;
+        long result = 0;
+        for ( ; i < length; i++ ) {
+            int digit = Character.digit( str.charAt( i ), 10 );
+            if ( digit < 0 || result < multiplicationLimit ) {
+                return null;
             }
-            catch(Exception ignored) {}
-            return Optional.empty();
+            result *= 10;
+            if ( result < limit + digit ) {
+                return null;
+            }
+            result -= digit;
         }
-        else {
-            return Optional.empty();
+        return negative ? result : -result;
+    }
+
+    /**
+     * Checks str against the plain decimal grammar of Double.parseDouble, i.e.
+     *  [+-] (digits [. digits] | . digits) [(e|E) [+-] digits] [fFdD], surrounded by optional whitespace
+     */
+    private static boolean isDecimal( String str ) {
+        int end = str.length();
+        int i = 0;
+        while ( i < end && str.charAt( i ) <= ' ' ) {
+            i++;
+        }
+        while ( end > i && str.charAt( end - 1 ) <= ' ' ) {
+            end--;
+        }
+        if ( i < end && ( str.charAt( i ) == '-' || str.charAt( i ) == '+' ) ) {
+            i++;
+        }
+        int digits = 0;
+        for ( ; i < end && isAsciiDigit( str.charAt( i ) ); i++ ) {
+            digits++;
+        }
+        if ( i < end && str.charAt( i ) == '.' ) {
+            for ( i++; i < end && isAsciiDigit( str.charAt( i ) ); i++ ) {
+                digits++;
+            }
+        }
+        if ( digits == 0 ) {
+            return false;
+        }
+        if ( i < end && ( str.charAt( i ) == 'e' || str.charAt( i ) == 'E' ) ) {
+            i++;
+            if ( i < end && ( str.charAt( i ) == '-' || str.charAt( i ) == '+' ) ) {
+                i++;
+            }
+            int exponentDigits = 0;
+            for ( ; i < end && isAsciiDigit( str.charAt( i ) ); i++ ) {
+                exponentDigits++;
+            }
+            if ( exponentDigits == 0 ) {
+                return false;
+            }
         }
+        if ( i < end && "fFdD".indexOf( str.charAt( i ) ) >= 0 ) {
+            i++;
+        }
+        return i == end;
+    }
+
+    private static boolean isSpecialDouble( String str ) {
+        String trimmed = str.trim();
+        int i = trimmed.startsWith( "-" ) || trimmed.startsWith( "+" ) ? 1 : 0;
+        return trimmed.startsWith( "NaN", i ) || trimmed.startsWith( "Infinity", i ) ||
+                trimmed.startsWith( "0x", i ) || trimmed.startsWith( "0X", i );
+    }
+
+    private static boolean isAsciiDigit( char c ) {
+        return c >= '0' && c <= '9';
     }
 
     /**
@@ -223,48 +330,63 @@ public class Objects {
      */
     public static Optional<Object> squashDuplicates( Object input ) {
         if ( input instanceof List ) {
-            List inputList = (List) input;
-            return Optional.of(inputList.stream().distinct().collect(Collectors.toList()));
+            return Optional.of( distinct( (List<?>) input ) );
         }
         return Optional.of(input);
     }
 
-    public static final class toInteger extends Function.SingleFunction<Integer> {
+    /**
+     * @return new list of the distinct elements of the list, in order of first occurrence; each element
+     *  is hashed once, and nested maps and lists only once however often they are compared
+     */
+    static List<Object> distinct( List<?> list ) {
+        StructuralKey.Hasher hasher = new StructuralKey.Hasher();
+        Set<StructuralKey> seen = new HashSet<>( list.size() * 4 / 3 + 1 );
+        List<Object> result = new ArrayList<>();
+        for ( Object element : list ) {
+            if ( seen.add( hasher.key( element ) ) ) {
+                result.add( element );
+            }
+        }
+        return result;
+    }
+
+    public static final class toInteger extends Function.SingleFunction<Integer> implements Function.PureFunction {
         @Override
         protected Optional<Integer> applySingle( final Object arg ) {
             return toInteger( arg );
         }
     }
 
-    public static final class toLong extends Function.SingleFunction<Long> {
+    public static final class toLong extends Function.SingleFunction<Long> implements Function.PureFunction {
         @Override
         protected Optional<Long> applySingle( final Object arg ) {
             return toLong( arg );
         }
     }
 
-    public static final class toDouble extends Function.SingleFunction<Double> {
+    public static final class toDouble extends Function.SingleFunction<Double> implements Function.PureFunction {
         @Override
         protected Optional<Double> applySingle( final Object arg ) {
             return toDouble( arg );
         }
     }
 
-    public static final class toBoolean extends Function.SingleFunction<Boolean> {
+    public static final class toBoolean extends Function.SingleFunction<Boolean> implements Function.PureFunction {
         @Override
         protected Optional<Boolean> applySingle( final Object arg ) {
             return toBoolean( arg );
         }
     }
 
-    public static final class toString extends Function.SingleFunction<String> {
+    public static final class toString extends Function.SingleFunction<String> implements Function.PureFunction {
         @Override
         protected Optional<String> applySingle( final Object arg ) {
             return Objects.toString( arg );
         }
     }
 
-    public static final class squashNulls extends Function.SquashFunction<Object> {
+    public static final class squashNulls extends Function.SquashFunction<Object> implements Function.PureFunction {
         @Override
         protected Optional<Object> applySingle( final Object arg ) {
             Objects.squashNulls( arg );
@@ -272,7 +394,7 @@ public class Objects {
         }
     }
 
-    public static final class recursivelySquashNulls extends Function.SquashFunction<Object> {
+    public static final class recursivelySquashNulls extends Function.SquashFunction<Object> implements Function.PureFunction {
         @Override
         protected Optional<Object> applySingle( final Object arg ) {
             Objects.recursivelySquashNulls( arg );
@@ -280,7 +402,7 @@ public class Objects {
         }
     }
 
-    public static final class squashDuplicates extends Function.SquashFunction<Object> {
+    public static final class squashDuplicates extends Function.SquashFunction<Object> implements Function.PureFunction {
         @Override
         protected Optional<Object> applySingle( final Object arg ) {
             return Objects.squashDuplicates( arg );
@@ -290,7 +412,7 @@ public class Objects {
     /**
      * Size is a special snowflake and needs specific care
      */
-    public static final class size implements Function {
+    public static final class size implements Function.PureFunction {
 
         @Override
         public Optional<Object> apply(Object... args) {
@@ -325,14 +447,14 @@ public class Objects {
     /**
      * Type checking functions
      */
-    public static final class isString extends Function.SingleFunction<Boolean> {
+    public static final class isString extends Function.SingleFunction<Boolean> implements Function.PureFunction {
         @Override
         protected Optional<Boolean> applySingle(final Object arg) {
             return Optional.of(arg instanceof String);
         }
     }
     
-    public static final class isNumber extends Function.SingleFunction<Boolean> {
+    public static final class isNumber extends Function.SingleFunction<Boolean> implements Function.PureFunction {
         @Override
         protected Optional<Boolean> applySingle(final Object arg) {
             return Optional.of(arg instanceof Number || 
@@ -340,21 +462,21 @@ public class Objects {
         }
     }
     
-    public static final class isList extends Function.SingleFunction<Boolean> {
+    public static final class isList extends Function.SingleFunction<Boolean> implements Function.PureFunction {
         @Override
         protected Optional<Boolean> applySingle(final Object arg) {
             return Optional.of(arg instanceof List);
         }
     }
     
-    public static final class isMap extends Function.SingleFunction<Boolean> {
+    public static final class isMap extends Function.SingleFunction<Boolean> implements Function.PureFunction {
         @Override
         protected Optional<Boolean> applySingle(final Object arg) {
             return Optional.of(arg instanceof Map);
         }
     }
     
-    public static final class isBoolean extends Function.SingleFunction<Boolean> {
+    public static final class isBoolean extends Function.SingleFunction<Boolean> implements Function.PureFunction {
         @Override
         protected Optional<Boolean> applySingle(final Object arg) {
             return Optional.of(arg instanceof Boolean || 
@@ -365,7 +487,7 @@ public class Objects {
     /**
      * Range validation functions
      */
-    public static final class inRange extends Function.ArgDrivenListFunction<Number> {
+    public static final class inRange extends Function.ArgDrivenListFunction<Number> implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList(Number value, List<Object> args) {
             if (args == null || args.size() != 2) {
@@ -390,14 +512,14 @@ public class Objects {
     /**
      * Empty/null checking with defaults
      */
-    public static final class defaultIfNull extends Function.ArgDrivenSingleFunction<Object, Object> {
+    public static final class defaultIfNull extends Function.ArgDrivenSingleFunction<Object, Object> implements Function.PureFunction {
         @Override
         protected Optional<Object> applySingle(Object value, Object defaultValue) {
             return Optional.of(value != null ? value : defaultValue);
         }
     }
     
-    public static final class defaultIfEmpty extends Function.ArgDrivenSingleFunction<Object, Object> {
+    public static final class defaultIfEmpty extends Function.ArgDrivenSingleFunction<Object, Object> implements Function.PureFunction {
         @Override
         protected Optional<Object> applySingle(Object value, Object defaultValue) {
             if (value == null) {
@@ -423,14 +545,14 @@ public class Objects {
     /**
      * Coerce value to a specific type with validation
      */
-    public static final class coerceToNumber extends Function.SingleFunction<Number> {
+    public static final class coerceToNumber extends Function.SingleFunction<Number> implements Function.PureFunction {
         @Override
         protected Optional<Number> applySingle(final Object arg) {
             return (Optional<Number>) toNumber(arg);
         }
     }
     
-    public static final class coerceToString extends Function.SingleFunction<String> {
+    public static final class coerceToString extends Function.SingleFunction<String> implements Function.PureFunction {
         @Override
         protected Optional<String> applySingle(final Object arg) {
             if (arg == null) {
@@ -443,14 +565,14 @@ public class Objects {
     /**
      * Object comparison functions
      */
-    public static final class equals extends Function.ArgDrivenSingleFunction<Object, Boolean> {
+    public static final class equals extends Function.ArgDrivenSingleFunction<Object, Boolean> implements Function.PureFunction {
         @Override
         protected Optional<Boolean> applySingle(Object value1, Object value2) {
             return Optional.of(java.util.Objects.equals(value1, value2));
         }
     }
     
-    public static final class notEquals extends Function.ArgDrivenSingleFunction<Object, Boolean> {
+    public static final class notEquals extends Function.ArgDrivenSingleFunction<Object, Boolean> implements Function.PureFunction {
         @Override
         protected Optional<Boolean> applySingle(Object value1, Object value2) {
             return Optional.of(!java.util.Objects.equals(value1, value2));
@@ -460,7 +582,7 @@ public class Objects {
     /**
      * Deep clone function for objects
      */
-    public static final class deepClone extends Function.SingleFunction<Object> {
+    public static final class deepClone extends Function.SingleFunction<Object> implements Function.PureFunction {
         @Override
         protected Optional<Object> applySingle(final Object arg) {
             if (arg == null) {
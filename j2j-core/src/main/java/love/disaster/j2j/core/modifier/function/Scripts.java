@@ -17,7 +17,12 @@ package love.disaster.j2j.core.modifier.function;
 
 
 import love.disaster.j2j.core.common.Optional;
+import love.disaster.j2j.core.trace.TransformTracer;
+import love.disaster.j2j.core.trace.TransformTracers;
 
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
@@ -31,87 +36,229 @@ import java.util.Map;
 @SuppressWarnings( "deprecated" )
 public class Scripts {
     
-    // Reuse ScriptEngineManager for better performance
-    private static final ScriptEngineManager scriptEngineManager = new ScriptEngineManager();
-    
     // Logger for the class
     private static final java.util.logging.Logger logger = java.util.logging.Logger.getLogger(Scripts.class.getName());
 
     /**
-     * Execute JavaScript code with given arguments
+     * Holds the ScriptEngineManager, which scans the classpath for engine factories, so that
+     *  the scan only happens the first time a javascript or python function runs.
      */
-    public static final class javascript extends Function.ListFunction {
+    private static final class ScriptEngines {
+        private static final ScriptEngineManager MANAGER = new ScriptEngineManager();
+
+        // engines are not safe to share between threads in general, so every thread gets its own, per
+        //  language; at most one engine per language for each thread, however many specs run scripts.
+        //  Both the engine and the scripts it compiled go away with the thread.
+        private static final ThreadLocal<Map<String, ThreadEngine>> ENGINES = ThreadLocal.withInitial( HashMap::new );
+
+        /**
+         * @return this thread's engine for the language, or null if there is no engine for it
+         */
+        private static ThreadEngine engine( String language ) {
+            Map<String, ThreadEngine> engines = ENGINES.get();
+            ThreadEngine engine = engines.get( language );
+            if ( engine == null ) {
+                ScriptEngine scriptEngine = MANAGER.getEngineByName( language );
+                if ( scriptEngine != null ) {
+                    engine = new ThreadEngine( scriptEngine );
+                    engines.put( language, engine );
+                }
+            }
+            return engine;
+        }
+    }
+
+    /**
+     * A thread's engine for one language, with the literal scripts it compiled, by source.
+     *  A CompiledScript belongs to the engine that compiled it, so it is kept next to it.
+     */
+    private static final class ThreadEngine {
+
+        private static final int MAXIMUM_SCRIPTS = 64;
+
+        // stands in for the compiled script when the engine can not compile it
+        private static final Object NOT_COMPILED = new Object();
+
+        private final ScriptEngine engine;
+        private final Map<String, Object> compiledScripts = new HashMap<>();
+
+        private ThreadEngine( ScriptEngine engine ) {
+            this.engine = engine;
+        }
+
+        /**
+         * @return the source compiled by this engine, or null if the engine can not compile it
+         */
+        private CompiledScript compiled( String source ) {
+            Object compiledScript = compiledScripts.get( source );
+            if ( compiledScript == null ) {
+                compiledScript = compile( source );
+                if ( compiledScripts.size() >= MAXIMUM_SCRIPTS ) {
+                    compiledScripts.clear();
+                }
+                compiledScripts.put( source, compiledScript );
+            }
+            return compiledScript instanceof CompiledScript ? (CompiledScript) compiledScript : null;
+        }
+
+        private Object compile( String source ) {
+            if ( engine instanceof Compilable ) {
+                try {
+                    return ( (Compilable) engine ).compile( source );
+                }
+                catch ( ScriptException ignored ) {
+                    // evaluate the source on every run instead, which reports the error as it always has
+                }
+            }
+            return NOT_COMPILED;
+        }
+    }
+
+    /**
+     * Runs the script given as the first argument, with the rest of the arguments bound as arg1, arg2, etc.
+     *
+     * The engine is reused, but every run gets fresh Bindings, so nothing a script defines carries over
+     *  to the next run.  When the script is a literal in the spec, it is compiled once per engine rather
+     *  than parsed on every call.
+     */
+    private abstract static class ScriptFunction extends Function.ListFunction implements Function.CompilableFunction {
+
+        private final String language;
+        private final String displayName;
+        private final java.util.logging.Level unavailableLevel;
+
+        private ScriptFunction( String language, String displayName, java.util.logging.Level unavailableLevel ) {
+            this.language = language;
+            this.displayName = displayName;
+            this.unavailableLevel = unavailableLevel;
+        }
+
         @Override
-        protected Optional<Object> applyList(final List<Object> argList ) {
+        protected Optional<Object> applyList( final List<Object> argList ) {
             // Need at least the script code
             if ( argList.isEmpty() ) {
                 return Optional.empty();
             }
+            ThreadEngine engine = ScriptEngines.engine( language );
+            return run( engine == null ? null : engine.engine, null, argList );
+        }
+
+        @Override
+        public Function compile( final Object source ) {
+            if ( ! ( source instanceof String ) ) {
+                return this;
+            }
+            return new CompiledScriptFunction( this, (String) source );
+        }
 
+        /**
+         * @param compiledScript the script compiled by engine, or null to evaluate the first argument
+         */
+        private Optional<Object> run( ScriptEngine engine, CompiledScript compiledScript, List<Object> argList ) {
+            // the engine may not be available depending on JVM
+            if ( engine == null ) {
+                logger.log( unavailableLevel, displayName + " engine not available" );
+                return Optional.empty();
+            }
             try {
-                ScriptEngine engine = scriptEngineManager.getEngineByName( "javascript" );
-                if (engine == null) {
-                    logger.warning("JavaScript engine not available");
-                    return Optional.empty();
-                }
-                
-                // Put arguments into the engine scope (arg1, arg2, etc.)
+                // Put arguments into fresh bindings (arg1, arg2, etc.)
+                Bindings bindings = engine.createBindings();
                 for ( int i = 1; i < argList.size(); i++ ) {
-                    engine.put( "arg" + i, argList.get( i ) );
+                    bindings.put( "arg" + i, argList.get( i ) );
                 }
-                
-                // Execute the script and return result
-                Object result = engine.eval( (String) argList.get( 0 ) );
-                return Optional.of( result );
+                if ( compiledScript != null ) {
+                    return Optional.of( compiledScript.eval( bindings ) );
+                }
+                return Optional.of( engine.eval( (String) argList.get( 0 ), bindings ) );
             }
             catch ( ScriptException e ) {
-                logger.severe("JavaScript execution error: " + e.getMessage());
+                logger.severe( displayName + " execution error: " + e.getMessage() );
                 return Optional.empty();
             }
             catch ( Exception e ) {
-                logger.severe("JavaScript error: " + e.getMessage());
+                logger.severe( displayName + " error: " + e.getMessage() );
                 return Optional.empty();
             }
         }
     }
 
     /**
-     * Execute Python code with given arguments
+     * javascript or python with a script that was a literal in the spec, compiled once by each
+     *  (thread's) engine that runs it.
      */
-    public static final class python extends Function.ListFunction {
+    private static final class CompiledScriptFunction extends Function.ListFunction {
+
+        private final ScriptFunction function;
+        private final String source;
+
+        private CompiledScriptFunction( ScriptFunction function, String source ) {
+            this.function = function;
+            this.source = source;
+        }
+
         @Override
         protected Optional<Object> applyList( final List<Object> argList ) {
-            // Need at least the script code
-            if ( argList.isEmpty() ) {
-                return Optional.empty();
+            ThreadEngine engine = ScriptEngines.engine( function.language );
+            if ( engine == null ) {
+                return function.run( null, null, argList );
             }
+            return function.run( engine.engine, engine.compiled( source ), argList );
+        }
+    }
 
+    /**
+     * Holds the GroupTemplate shared by the beetl functions, built the first time one of them runs.
+     */
+    private static final class BeetlTemplates {
+        private static final org.beetl.core.GroupTemplate GROUP_TEMPLATE = create();
+
+        private static org.beetl.core.GroupTemplate create() {
             try {
-                ScriptEngine engine = scriptEngineManager.getEngineByName( "python" );
-                // Python engine may not be available depending on JVM
-                if (engine == null) {
-                    // Python engine not available, this is not an error
-                    logger.info("Python engine not available");
-                    return Optional.empty();
-                }
-                
-                // Put arguments into the engine scope (arg1, arg2, etc.)
-                for ( int i = 1; i < argList.size(); i++ ) {
-                    engine.put( "arg" + i, argList.get( i ) );
-                }
-                
-                // Execute the script and return result
-                Object result = engine.eval( (String) argList.get( 0 ) );
-                return Optional.of( result );
-            }
-            catch ( ScriptException e ) {
-                logger.severe("Python execution error: " + e.getMessage());
-                return Optional.empty();
+                org.beetl.core.resource.StringTemplateResourceLoader resourceLoader =
+                    new org.beetl.core.resource.StringTemplateResourceLoader();
+                org.beetl.core.Configuration cfg = org.beetl.core.Configuration.defaultConfiguration();
+                return new org.beetl.core.GroupTemplate(resourceLoader, cfg);
+            } catch (Exception e) {
+                logger.severe("Failed to initialize Beetl GroupTemplate: " + e.getMessage());
+                return null;
             }
-            catch ( Exception e ) {
-                logger.severe("Python error: " + e.getMessage());
-                return Optional.empty();
+        }
+
+        // rendered output is copied out as a String, so each thread can keep rendering into the same buffer
+        private static final ThreadLocal<java.io.StringWriter> WRITERS = ThreadLocal.withInitial( java.io.StringWriter::new );
+
+        // don't hold on to the buffer of an unusually large render
+        private static final int MAX_RETAINED_CHARS = 64 * 1024;
+
+        private static String render( org.beetl.core.Template template ) {
+            java.io.StringWriter writer = WRITERS.get();
+            StringBuffer buffer = writer.getBuffer();
+            buffer.setLength( 0 );
+            template.renderTo( writer );
+            String result = buffer.toString();
+            if ( buffer.capacity() > MAX_RETAINED_CHARS ) {
+                WRITERS.remove();
             }
+            return result;
+        }
+    }
+
+    /**
+     * Execute JavaScript code with given arguments
+     */
+    public static final class javascript extends ScriptFunction {
+        public javascript() {
+            super( "javascript", "JavaScript", java.util.logging.Level.WARNING );
+        }
+    }
+
+    /**
+     * Execute Python code with given arguments
+     */
+    public static final class python extends ScriptFunction {
+        public python() {
+            // Python engine not available is not an error
+            super( "python", "Python", java.util.logging.Level.INFO );
         }
     }
 
@@ -124,21 +271,7 @@ public class Scripts {
      * 
      * Example: beetl("Hello ${name}!", {"name": "World"})
      */
-    public static final class beetl extends Function.ListFunction {
-        // Static GroupTemplate for better performance
-        private static org.beetl.core.GroupTemplate staticGroupTemplate;
-        
-        static {
-            try {
-                org.beetl.core.resource.StringTemplateResourceLoader resourceLoader = 
-                    new org.beetl.core.resource.StringTemplateResourceLoader();
-                org.beetl.core.Configuration cfg = org.beetl.core.Configuration.defaultConfiguration();
-                staticGroupTemplate = new org.beetl.core.GroupTemplate(resourceLoader, cfg);
-            } catch (Exception e) {
-                logger.severe("Failed to initialize Beetl GroupTemplate: " + e.getMessage());
-            }
-        }
-        
+    public static final class beetl extends Function.ListFunction implements Function.CompilableFunction {
         @Override
         protected Optional<Object> applyList(final List<Object> argList) {
             // Need at least the template and context
@@ -158,15 +291,38 @@ public class Scripts {
                 return Optional.empty();
             }
 
+            return render(templateStr, contextData);
+        }
+
+        @Override
+        public Function compile(final Object templateStr) {
+            if (!(templateStr instanceof String)) {
+                return this;
+            }
+            org.beetl.core.GroupTemplate groupTemplate = BeetlTemplates.GROUP_TEMPLATE;
+            if (groupTemplate == null) {
+                return this;
+            }
+            try {
+                // parse the template now, the GroupTemplate keeps the program cached under the template string
+                groupTemplate.getTemplate(templateStr);
+            } catch (Exception | NoClassDefFoundError e) {
+                return this;
+            }
+            return new CompiledBeetl((String) templateStr);
+        }
+
+        private static Optional<Object> render(String templateStr, Object contextData) {
             try {
-                // Use the static GroupTemplate for better performance
-                if (staticGroupTemplate == null) {
+                // Use the shared GroupTemplate for better performance
+                org.beetl.core.GroupTemplate groupTemplate = BeetlTemplates.GROUP_TEMPLATE;
+                if (groupTemplate == null) {
                     logger.severe("Beetl GroupTemplate not initialized");
                     return Optional.empty();
                 }
                 
                 // Create template from string
-                org.beetl.core.Template template = staticGroupTemplate.getTemplate(templateStr);
+                org.beetl.core.Template template = groupTemplate.getTemplate(templateStr);
                 
                 // Set context variables using Beetl's binding method
                 if (contextData instanceof Map) {
@@ -181,8 +337,7 @@ public class Scripts {
                 }
                 
                 // Render template
-                String result = template.render();
-                logger.fine("Beetl template executed successfully");
+                String result = BeetlTemplates.render(template);
                 return Optional.of(result);
                 
             } catch (NoClassDefFoundError e) {
@@ -195,6 +350,107 @@ public class Scripts {
         }
     }
 
+    /**
+     * beetl with a template that was a literal in the spec, and so was parsed when the spec was built.
+     *
+     * Templates that only interpolate variables, i.e. "Hello ${name}!", are rendered by concatenating
+     *  their text and the variables' values, without going through Beetl at all, whenever every
+     *  variable is bound to a value that Beetl would render with toString().
+     */
+    private static final class CompiledBeetl extends Function.ListFunction {
+
+        private static final java.util.regex.Pattern PLACEHOLDER =
+            java.util.regex.Pattern.compile("\\$\\{\\s*([A-Za-z_][A-Za-z0-9_]*)\\s*}");
+
+        // words that mean something to Beetl even inside a placeholder
+        private static final java.util.Set<String> KEYWORDS = new java.util.HashSet<>(java.util.Arrays.asList(
+            "true", "false", "null", "var", "if", "else", "for", "elsefor", "in", "while", "break", "continue",
+            "return", "switch", "case", "default", "select", "try", "catch", "directive"));
+
+        private final String templateStr;
+
+        // texts.length == variables.length + 1, or both null if the template is more than interpolation
+        private final String[] texts;
+        private final String[] variables;
+
+        private CompiledBeetl(String templateStr) {
+            this.templateStr = templateStr;
+
+            List<String> textList = new java.util.ArrayList<>();
+            List<String> variableList = new java.util.ArrayList<>();
+            // no escapes, statements or html tags
+            boolean interpolationOnly = templateStr.indexOf('\\') < 0 && !templateStr.contains("<%") &&
+                !templateStr.contains("%>") && !templateStr.contains("<#") && !templateStr.contains("</#");
+
+            java.util.regex.Matcher matcher = PLACEHOLDER.matcher(templateStr);
+            int textStart = 0;
+            while (interpolationOnly && matcher.find()) {
+                String variable = matcher.group(1);
+                interpolationOnly = !KEYWORDS.contains(variable);
+                textList.add(templateStr.substring(textStart, matcher.start()));
+                variableList.add(variable);
+                textStart = matcher.end();
+            }
+            String lastText = templateStr.substring(textStart);
+            // any "${" left over is a placeholder this does not understand
+            interpolationOnly = interpolationOnly && !lastText.contains("${") && !String.join("", textList).contains("${");
+            textList.add(lastText);
+
+            this.texts = interpolationOnly ? textList.toArray(new String[0]) : null;
+            this.variables = interpolationOnly ? variableList.toArray(new String[0]) : null;
+        }
+
+        @Override
+        protected Optional<Object> applyList(final List<Object> argList) {
+            if (argList.size() < 2) {
+                logger.warning("Insufficient arguments for Beetl template execution");
+                return Optional.empty();
+            }
+            Object contextData = argList.get(1);
+
+            if (texts != null) {
+                String interpolated = interpolate(contextData);
+                if (interpolated != null) {
+                    return Optional.of(interpolated);
+                }
+            }
+            return beetl.render(templateStr, contextData);
+        }
+
+        /**
+         * @return the rendered template, or null if a variable is unbound or not a plain value
+         */
+        private String interpolate(Object contextData) {
+            StringBuilder sb = new StringBuilder(templateStr.length() + 16 * variables.length);
+            sb.append(texts[0]);
+            for (int i = 0; i < variables.length; i++) {
+                Object value;
+                if (contextData instanceof Map) {
+                    Map<?, ?> contextMap = (Map<?, ?>) contextData;
+                    value = contextMap.get(variables[i]);
+                    if (value == null && !contextMap.containsKey(variables[i])) {
+                        return null;
+                    }
+                } else if ("data".equals(variables[i])) {
+                    value = contextData;
+                } else {
+                    return null;
+                }
+
+                if (value == null) {
+                    // Beetl renders a null variable as nothing
+                } else if (value instanceof CharSequence || value instanceof Number ||
+                        value instanceof Boolean || value instanceof Character) {
+                    sb.append(value);
+                } else {
+                    return null;
+                }
+                sb.append(texts[i + 1]);
+            }
+            return sb.toString();
+        }
+    }
+
     /**
      * Execute JSONata query on JSON data
      * 
@@ -203,8 +459,15 @@ public class Scripts {
      * - jsonData: JSON data to query (Map, List, or JSON string)
      * 
      * Example: jsonata("name", {"name": "John", "age": 30})
+     *
+     * When the query is a literal in the spec it is parsed once, when the spec is built.
      */
-    public static final class jsonata extends Function.ListFunction {
+    public static final class jsonata extends Function.ListFunction implements Function.CompilableFunction {
+
+        // ObjectMappers are thread safe once configured, and expensive to create
+        private static final com.fasterxml.jackson.databind.ObjectMapper MAPPER =
+            new com.fasterxml.jackson.databind.ObjectMapper();
+
         @Override
         protected Optional<Object> applyList(final List<Object> argList) {
             // Need at least the query
@@ -214,102 +477,98 @@ public class Scripts {
             }
 
             try {
-                logger.info("JSONata function called with args: " + argList);
-                
-                // Use JSONata4Java's recommended approach with Expression class
-                String queryStr = (String) argList.get(0);
-                
-                logger.info("JSONata query: " + queryStr);
-                
                 // Parse the JSONata expression using the static parse method
-                com.api.jsonata4java.Expression expr = 
-                    com.api.jsonata4java.Expression.jsonata(queryStr);
-                
-                // If we have data to query, use it; otherwise, create an empty object
-                Object jsonData = null;
-                if (argList.size() > 1) {
-                    jsonData = argList.get(1);
-                    logger.info("JSONata data: " + jsonData);
-                } else {
-                    // Create empty object for evaluation
-                    jsonData = new HashMap<>();
-                    logger.info("No data provided, using empty object");
-                }
-                
-                // Convert data to JsonNode using Jackson ObjectMapper
-                com.fasterxml.jackson.databind.ObjectMapper mapper = 
-                    new com.fasterxml.jackson.databind.ObjectMapper();
-                
-                com.fasterxml.jackson.databind.JsonNode jsonNode;
-                if (jsonData instanceof String) {
-                    // Try to parse as JSON string
-                    try {
-                        jsonNode = mapper.readTree((String) jsonData);
-                    } catch (Exception e) {
-                        // If parsing fails, treat as simple string and convert
-                        jsonNode = mapper.valueToTree(jsonData);
-                    }
-                } else {
-                    // Convert other types to JsonNode
-                    jsonNode = mapper.valueToTree(jsonData);
-                }
-                
-                logger.info("JSONata JSON node: " + jsonNode);
-                
-                // Evaluate the JSONata expression
-                com.fasterxml.jackson.databind.JsonNode result = expr.evaluate(jsonNode);
-                
-                logger.info("JSONata result: " + result);
-                logger.info("JSONata result class: " + (result != null ? result.getClass().getName() : "null"));
-                
-                // Convert result back to appropriate Java object
-                if (result == null || result.isNull()) {
-                    logger.fine("JSONata query returned null result");
-                    return Optional.empty();
-                } else if (result.isTextual()) {
-                    logger.info("JSONata result is textual: " + result.asText());
-                    return Optional.of(result.asText());
-                } else if (result.isNumber()) {
-                    if (result.isInt()) {
-                        logger.info("JSONata result is int: " + result.asInt());
-                        return Optional.of(result.asInt());
-                    } else if (result.isLong()) {
-                        logger.info("JSONata result is long: " + result.asLong());
-                        return Optional.of(result.asLong());
-                    } else {
-                        logger.info("JSONata result is double: " + result.asDouble());
-                        return Optional.of(result.asDouble());
-                    }
-                } else if (result.isBoolean()) {
-                    logger.info("JSONata result is boolean: " + result.asBoolean());
-                    return Optional.of(result.asBoolean());
-                } else if (result.isArray()) {
-                    logger.info("JSONata result is array");
-                    // Convert array to List
-                    Object converted = mapper.treeToValue(result, Object.class);
-                    logger.info("JSONata array result: " + converted);
-                    return Optional.of(converted);
-                } else if (result.isObject()) {
-                    logger.info("JSONata result is object");
-                    // Convert object to Map
-                    Object converted = mapper.treeToValue(result, Object.class);
-                    logger.info("JSONata object result: " + converted);
-                    return Optional.of(converted);
-                } else {
-                    logger.info("JSONata result is other type");
-                    // For complex objects, return as Map or List
-                    Object converted = mapper.treeToValue(result, Object.class);
-                    logger.info("JSONata converted result: " + converted);
-                    return Optional.of(converted);
-                }
-                
+                com.api.jsonata4java.Expression expr =
+                    com.api.jsonata4java.Expression.jsonata((String) argList.get(0));
+                return evaluate(expr, argList);
             } catch (NoClassDefFoundError e) {
                 logger.severe("JSONata4Java library not available: " + e.getMessage());
-                e.printStackTrace();
                 return Optional.empty();
             } catch (Exception e) {
                 logger.severe("JSONata query execution error: " + e.getMessage());
-                e.printStackTrace();
+                return Optional.empty();
+            }
+        }
+
+        @Override
+        public Function compile(final Object query) {
+            if (!(query instanceof String)) {
+                return this;
+            }
+            try {
+                return new CompiledJsonata(com.api.jsonata4java.Expression.jsonata((String) query));
+            } catch (NoClassDefFoundError | Exception e) {
+                // leave it to applyList, so that the failure surfaces when the spec is run, as it always has
+                return this;
+            }
+        }
+
+        private static Optional<Object> evaluate(com.api.jsonata4java.Expression expr, List<Object> argList) throws Exception {
+            TransformTracer tracer = TransformTracers.sample();
+            tracer.trace(jsonata.class, "JSONata query", argList.get(0));
+
+            // If we have data to query, use it; otherwise, create an empty object
+            Object jsonData = argList.size() > 1 ? argList.get(1) : new HashMap<>();
+            tracer.trace(jsonata.class, "JSONata data", jsonData);
+
+            com.fasterxml.jackson.databind.JsonNode jsonNode;
+            if (jsonData instanceof String) {
+                // Try to parse as JSON string
+                try {
+                    jsonNode = MAPPER.readTree((String) jsonData);
+                } catch (Exception e) {
+                    // If parsing fails, treat as simple string and convert
+                    jsonNode = MAPPER.valueToTree(jsonData);
+                }
+            } else {
+                // Convert other types to JsonNode, straight from the objects rather than through JSON text
+                jsonNode = MAPPER.valueToTree(jsonData);
+            }
+
+            // Evaluate the JSONata expression
+            com.fasterxml.jackson.databind.JsonNode result = expr.evaluate(jsonNode);
+            tracer.trace(jsonata.class, "JSONata result", result);
+
+            // Convert result back to appropriate Java object
+            if (result == null || result.isNull()) {
+                return Optional.empty();
+            } else if (result.isTextual()) {
+                return Optional.of(result.asText());
+            } else if (result.isNumber()) {
+                if (result.isInt()) {
+                    return Optional.of(result.asInt());
+                } else if (result.isLong()) {
+                    return Optional.of(result.asLong());
+                } else {
+                    return Optional.of(result.asDouble());
+                }
+            } else if (result.isBoolean()) {
+                return Optional.of(result.asBoolean());
+            } else {
+                // Convert arrays, objects and other complex results to List or Map
+                Object converted = MAPPER.treeToValue(result, Object.class);
+                return Optional.of(converted);
+            }
+        }
+    }
+
+    /**
+     * jsonata with a query that was parsed when the spec was built; the query argument is ignored
+     */
+    private static final class CompiledJsonata extends Function.ListFunction {
+
+        private final com.api.jsonata4java.Expression expr;
+
+        private CompiledJsonata(com.api.jsonata4java.Expression expr) {
+            this.expr = expr;
+        }
+
+        @Override
+        protected Optional<Object> applyList(final List<Object> argList) {
+            try {
+                return jsonata.evaluate(expr, argList);
+            } catch (Exception e) {
+                logger.severe("JSONata query execution error: " + e.getMessage());
                 return Optional.empty();
             }
         }
@@ -324,20 +583,6 @@ public class Scripts {
      * - additionalContexts: Additional context objects that will be merged
      */
     public static final class beetlAdvanced extends Function.ListFunction {
-        // Static GroupTemplate for better performance
-        private static org.beetl.core.GroupTemplate staticGroupTemplate;
-        
-        static {
-            try {
-                org.beetl.core.resource.StringTemplateResourceLoader resourceLoader = 
-                    new org.beetl.core.resource.StringTemplateResourceLoader();
-                org.beetl.core.Configuration cfg = org.beetl.core.Configuration.defaultConfiguration();
-                staticGroupTemplate = new org.beetl.core.GroupTemplate(resourceLoader, cfg);
-            } catch (Exception e) {
-                logger.severe("Failed to initialize Beetl GroupTemplate for advanced usage: " + e.getMessage());
-            }
-        }
-        
         @Override
         protected Optional<Object> applyList(final List<Object> argList) {
             // Need at least template and one context
@@ -347,8 +592,9 @@ public class Scripts {
             }
 
             try {
-                // Use the static GroupTemplate for better performance
-                if (staticGroupTemplate == null) {
+                // Use the shared GroupTemplate for better performance
+                org.beetl.core.GroupTemplate groupTemplate = BeetlTemplates.GROUP_TEMPLATE;
+                if (groupTemplate == null) {
                     logger.severe("Beetl GroupTemplate not initialized for advanced usage");
                     return Optional.empty();
                 }
@@ -356,7 +602,7 @@ public class Scripts {
                 String templateStr = (String) argList.get(0);
                 
                 // Create template from string
-                org.beetl.core.Template template = staticGroupTemplate.getTemplate(templateStr);
+                org.beetl.core.Template template = groupTemplate.getTemplate(templateStr);
                 
                 // Merge all context data
                 Map<String, Object> mergedContext = new HashMap<>();
@@ -381,8 +627,7 @@ public class Scripts {
                 }
                 
                 // Render template
-                String result = template.render();
-                logger.fine("Advanced Beetl template executed successfully");
+                String result = BeetlTemplates.render(template);
                 return Optional.of(result);
                 
             } catch (NoClassDefFoundError e) {
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.modifier.function;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the stock Modifier functions that creates each function the first time a spec
+ *  looks it up by name, rather than instantiating all of them when Modifier is loaded.
+ *
+ * Specs resolve their functions while they are built, so a process that only ever uses a
+ *  handful of functions only ever loads those classes; in particular the Scripts functions,
+ *  and the script engines behind them, stay untouched unless a spec asks for them.
+ *
+ * Functions are created from a single switch rather than from a map of per name Suppliers, as
+ *  every lambda or method reference would itself be linked, and spin a class, up front.
+ *
+ * Functions put into the registry take precedence over the stock function of the same name.
+ */
+public final class StockFunctions extends AbstractMap<String, Function> {
+
+    private static final String[] NAMES = {
+            "toLower", "toUpper", "concat", "join", "split", "substring", "trim", "leftPad", "rightPad",
+            "replace", "replaceRegex", "stringContains", "startsWith", "endsWith", "charAt", "stringIndexOf",
+            "stringLength", "repeat", "min", "max", "abs", "avg", "intSum", "doubleSum", "longSum",
+            "intSubtract", "doubleSubtract", "longSubtract", "divide", "divideAndRound", "multiply", "mod",
+            "pow", "sqrt", "ceil", "floor", "round", "toInteger", "toDouble", "toLong", "toBoolean",
+            "toString", "size", "squashNulls", "recursivelySquashNulls", "squashDuplicates", "isString",
+            "isNumber", "isList", "isMap", "isBoolean", "inRange", "defaultIfNull", "defaultIfEmpty",
+            "coerceToNumber", "coerceToString", "equals", "notEquals", "deepClone", "noop", "isPresent",
+            "notNull", "isNull", "firstElement", "lastElement", "elementAt", "toList", "sort", "reverse",
+            "subList", "listContains", "listIndexOf", "listConcat", "distinct", "filterNotNull", "listJoin",
+            "listSize", "lookup", "groupBy", "countBy", "sumBy", "minBy", "maxBy", "javascript", "python",
+            "beetl", "jsonata", "beetlAdvanced", "now", "formatDate", "parseDate", "addMillis", "addDays",
+            "timeDiff", "formatDateWithTZ"
+    };
+
+    private final Set<String> names = Collections.newSetFromMap( new ConcurrentHashMap<>() );
+    private final Map<String, Function> resolved = new ConcurrentHashMap<>();
+
+    public StockFunctions() {
+        Collections.addAll( names, NAMES );
+    }
+
+    @Override
+    public Function get( Object name ) {
+        if ( ! ( name instanceof String ) ) {
+            return null;
+        }
+        Function function = resolved.get( name );
+        if ( function != null || ! names.contains( name ) ) {
+            return function;
+        }
+        return resolved.computeIfAbsent( (String) name, StockFunctions::create );
+    }
+
+    @Override
+    public boolean containsKey( Object name ) {
+        return name instanceof String && names.contains( name );
+    }
+
+    @Override
+    public Function put( String name, Function function ) {
+        Function previous = get( name );
+        resolved.put( name, function );
+        names.add( name );
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Creates every function that has not been looked up yet.
+     */
+    @Override
+    public Set<Entry<String, Function>> entrySet() {
+        for ( String name : names ) {
+            get( name );
+        }
+        return Collections.unmodifiableMap( resolved ).entrySet();
+    }
+
+    /**
+     * @return the names of all the functions, without creating any of them
+     */
+    @Override
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet( names );
+    }
+
+    private static Function create( String name ) {
+        switch ( name ) {
+            case "toLower": return new Strings.toLowerCase();
+            case "toUpper": return new Strings.toUpperCase();
+            case "concat": return new Strings.concat();
+            case "join": return new Strings.join();
+            case "split": return new Strings.split();
+            case "substring": return new Strings.substring();
+            case "trim": return new Strings.trim();
+            case "leftPad": return new Strings.leftPad();
+            case "rightPad": return new Strings.rightPad();
+
+            // Enhanced String Functions
+            case "replace": return new Strings.replace();
+            case "replaceRegex": return new Strings.replaceRegex();
+            case "stringContains": return new Strings.contains();
+            case "startsWith": return new Strings.startsWith();
+            case "endsWith": return new Strings.endsWith();
+            case "charAt": return new Strings.charAt();
+            case "stringIndexOf": return new Strings.indexOf();
+            case "stringLength": return new Strings.length();
+            case "repeat": return new Strings.repeat();
+
+            case "min": return new Math.min();
+            case "max": return new Math.max();
+            case "abs": return new Math.abs();
+            case "avg": return new Math.avg();
+            case "intSum": return new Math.intSum();
+            case "doubleSum": return new Math.doubleSum();
+            case "longSum": return new Math.longSum();
+            case "intSubtract": return new Math.intSubtract();
+            case "doubleSubtract": return new Math.doubleSubtract();
+            case "longSubtract": return new Math.longSubtract();
+            case "divide": return new Math.divide();
+            case "divideAndRound": return new Math.divideAndRound();
+
+            // Enhanced Math Functions
+            case "multiply": return new Math.multiply();
+            case "mod": return new Math.mod();
+            case "pow": return new Math.pow();
+            case "sqrt": return new Math.sqrt();
+            case "ceil": return new Math.ceil();
+            case "floor": return new Math.floor();
+            case "round": return new Math.round();
+
+            case "toInteger": return new Objects.toInteger();
+            case "toDouble": return new Objects.toDouble();
+            case "toLong": return new Objects.toLong();
+            case "toBoolean": return new Objects.toBoolean();
+            case "toString": return new Objects.toString();
+            case "size": return new Objects.size();
+
+            case "squashNulls": return new Objects.squashNulls();
+            case "recursivelySquashNulls": return new Objects.recursivelySquashNulls();
+            case "squashDuplicates": return new Objects.squashDuplicates();
+
+            // Enhanced Object Functions
+            case "isString": return new Objects.isString();
+            case "isNumber": return new Objects.isNumber();
+            case "isList": return new Objects.isList();
+            case "isMap": return new Objects.isMap();
+            case "isBoolean": return new Objects.isBoolean();
+            case "inRange": return new Objects.inRange();
+            case "defaultIfNull": return new Objects.defaultIfNull();
+            case "defaultIfEmpty": return new Objects.defaultIfEmpty();
+            case "coerceToNumber": return new Objects.coerceToNumber();
+            case "coerceToString": return new Objects.coerceToString();
+            case "equals": return new Objects.equals();
+            case "notEquals": return new Objects.notEquals();
+            case "deepClone": return new Objects.deepClone();
+
+            case "noop": return Function.noop;
+            case "isPresent": return Function.isPresent;
+            case "notNull": return Function.notNull;
+            case "isNull": return Function.isNull;
+
+            case "firstElement": return new Lists.firstElement();
+            case "lastElement": return new Lists.lastElement();
+            case "elementAt": return new Lists.elementAt();
+            case "toList": return new Lists.toList();
+            case "sort": return new Lists.sort();
+
+            // Enhanced List Functions
+            case "reverse": return new Lists.reverse();
+            case "subList": return new Lists.subList();
+            case "listContains": return new Lists.contains();
+            case "listIndexOf": return new Lists.indexOf();
+            case "listConcat": return new Lists.concat();
+            case "distinct": return new Lists.distinct();
+            case "filterNotNull": return new Lists.filterNotNull();
+            case "listJoin": return new Lists.join();
+            case "listSize": return new Lists.size();
+            case "lookup": return new Lists.lookup();
+            case "groupBy": return new Lists.groupBy();
+            case "countBy": return new Lists.countBy();
+            case "sumBy": return new Lists.sumBy();
+            case "minBy": return new Lists.minBy();
+            case "maxBy": return new Lists.maxBy();
+
+            case "javascript": return new Scripts.javascript();
+            case "python": return new Scripts.python();
+            case "beetl": return new Scripts.beetl();
+            case "jsonata": return new Scripts.jsonata();
+            case "beetlAdvanced": return new Scripts.beetlAdvanced();
+
+            // Date and Time Functions
+            case "now": return new DateTime.now();
+            case "formatDate": return new DateTime.formatDate();
+            case "parseDate": return new DateTime.parseDate();
+            case "addMillis": return new DateTime.addMillis();
+            case "addDays": return new DateTime.addDays();
+            case "timeDiff": return new DateTime.timeDiff();
+            case "formatDateWithTZ": return new DateTime.formatDateWithTZ();
+
+            default: return null;
+        }
+    }
+}
@@ -19,10 +19,46 @@ import love.disaster.j2j.core.common.Optional;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 @SuppressWarnings( "deprecated" )
 public class Strings {
 
+    /**
+     * Compiled regexes of the functions that take one as a runtime argument, by regex.
+     *
+     * Patterns are immutable, so they are shared by all threads.  The cache is simply dropped when
+     *  it fills up, specs rarely use more than a handful of regexes.
+     */
+    private static final class Patterns {
+
+        private static final int MAXIMUM_SIZE = 256;
+        private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
+        private static Pattern get( String regex ) {
+            Pattern pattern = PATTERNS.get( regex );
+            if ( pattern == null ) {
+                pattern = Pattern.compile( regex );
+                if ( PATTERNS.size() >= MAXIMUM_SIZE ) {
+                    PATTERNS.clear();
+                }
+                PATTERNS.put( regex, pattern );
+            }
+            return pattern;
+        }
+
+        /**
+         * @return true if String.split() splits on the regex without compiling it, i.e. a single plain char
+         */
+        private static boolean isPlainChar( String regex ) {
+            return regex.length() == 1 && ".$|()[{^?*+\\".indexOf( regex.charAt( 0 ) ) < 0 &&
+                    ! Character.isSurrogate( regex.charAt( 0 ) );
+        }
+    }
+
+    // not pure, as String.toLowerCase() depends on the default locale
     public static final class toLowerCase extends Function.SingleFunction<String> {
         @Override
         protected Optional<String> applySingle( final Object arg ) {
@@ -37,6 +73,7 @@ public class Strings {
         }
     }
 
+    // not pure, as String.toUpperCase() depends on the default locale
     public static final class toUpperCase extends Function.SingleFunction<String> {
         @Override
         protected Optional<String> applySingle( final Object arg ) {
@@ -51,7 +88,7 @@ public class Strings {
         }
     }
 
-    public static final class trim extends Function.SingleFunction<String> {
+    public static final class trim extends Function.SingleFunction<String> implements Function.PureFunction {
         @Override
         protected Optional<String> applySingle( final Object arg ) {
 
@@ -65,7 +102,7 @@ public class Strings {
         }
     }
 
-    public static final class concat extends Function.ListFunction {
+    public static final class concat extends Function.ListFunction implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList( final List<Object> argList ) {
             StringBuilder sb = new StringBuilder(  );
@@ -78,7 +115,7 @@ public class Strings {
         }
     }
 
-    public static final class substring extends Function.ListFunction {
+    public static final class substring extends Function.ListFunction implements Function.PureFunction {
 
         @Override
         protected Optional<Object> applyList(List<Object> argList) {
@@ -119,7 +156,7 @@ public class Strings {
     }
 
     @SuppressWarnings( "unchecked" )
-    public static final class join extends Function.ArgDrivenListFunction<String> {
+    public static final class join extends Function.ArgDrivenListFunction<String> implements Function.PureFunction {
 
         @Override
         protected Optional<Object> applyList( final String specialArg, final List<Object> args ) {
@@ -140,7 +177,21 @@ public class Strings {
         }
     }
 
-    public static final class split extends Function.ArgDrivenSingleFunction<String, List> {
+    public static final class split extends Function.ArgDrivenSingleFunction<String, List> implements Function.CompilableFunction, Function.PureFunction {
+
+      // the separator this was compiled for, and its regex unless String.split() does not need one
+      private final String compiledSeparator;
+      private final Pattern compiledPattern;
+
+      public split() {
+        this( null, null );
+      }
+
+      private split( String compiledSeparator, Pattern compiledPattern ) {
+        this.compiledSeparator = compiledSeparator;
+        this.compiledPattern = compiledPattern;
+      }
+
       @Override
       protected Optional<List> applySingle(final String separator, final Object source) {
         if (source == null || separator == null) {
@@ -149,16 +200,37 @@ public class Strings {
         else if ( source instanceof String ) {
           // only try to split input strings
           String inputString = (String) source;
-          return Optional.of( Arrays.asList(inputString.split(separator)) );
+          if ( separator.equals( compiledSeparator ) ) {
+            return Optional.of( Arrays.asList( compiledPattern == null ? inputString.split( separator ) : compiledPattern.split( inputString ) ) );
+          }
+          if ( Patterns.isPlainChar( separator ) ) {
+            return Optional.of( Arrays.asList( inputString.split( separator ) ) );
+          }
+          return Optional.of( Arrays.asList( Patterns.get( separator ).split( inputString ) ) );
         }
         else {
           return Optional.empty();
         }
       }
+
+      @Override
+      public Function compile( final Object separator ) {
+        if ( ! ( separator instanceof String ) ) {
+          return this;
+        }
+        String regex = (String) separator;
+        try {
+          return new split( regex, Patterns.isPlainChar( regex ) ? null : Pattern.compile( regex ) );
+        }
+        catch ( RuntimeException e ) {
+          // an invalid regex fails when the spec runs, as it always has
+          return this;
+        }
+      }
     }
 
 
-    public static final class leftPad extends Function.ArgDrivenListFunction<String> {
+    public static final class leftPad extends Function.ArgDrivenListFunction<String> implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList(String source, List<Object> args) {
 
@@ -166,7 +238,7 @@ public class Strings {
         }
     }
 
-    public static final class rightPad extends Function.ArgDrivenListFunction<String> {
+    public static final class rightPad extends Function.ArgDrivenListFunction<String> implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList(String source, List<Object> args) {
 
@@ -239,7 +311,7 @@ public class Strings {
     /**
      * Replace all occurrences of a substring with another string
      */
-    public static final class replace extends Function.ArgDrivenListFunction<String> {
+    public static final class replace extends Function.ArgDrivenListFunction<String> implements Function.PureFunction {
         @Override
         protected Optional<Object> applyList(String source, List<Object> args) {
             if (source == null || args == null || args.size() != 2) {
@@ -260,7 +332,21 @@ public class Strings {
     /**
      * Replace using regular expressions
      */
-    public static final class replaceRegex extends Function.ArgDrivenListFunction<String> {
+    public static final class replaceRegex extends Function.ArgDrivenListFunction<String> implements Function.CompilableFunction, Function.PureFunction {
+
+        // the regex this was compiled for, and its pattern
+        private final String compiledRegex;
+        private final Pattern compiledPattern;
+
+        public replaceRegex() {
+            this( null, null );
+        }
+
+        private replaceRegex( String compiledRegex, Pattern compiledPattern ) {
+            this.compiledRegex = compiledRegex;
+            this.compiledPattern = compiledPattern;
+        }
+
         @Override
         protected Optional<Object> applyList(String source, List<Object> args) {
             if (source == null || args == null || args.size() != 2) {
@@ -274,18 +360,39 @@ public class Strings {
             try {
                 String regex = (String) args.get(0);
                 String replacement = (String) args.get(1);
+                Pattern pattern = regex.equals( compiledRegex ) ? compiledPattern : Patterns.get( regex );
                 
-                return Optional.of(source.replaceAll(regex, replacement));
+                return Optional.of(pattern.matcher(source).replaceAll(replacement));
             } catch (Exception e) {
                 return Optional.empty();
             }
         }
+
+        @Override
+        public int compiledArgIndex() {
+            // the input string comes first, then the regex
+            return 1;
+        }
+
+        @Override
+        public Function compile( final Object regex ) {
+            if ( ! ( regex instanceof String ) ) {
+                return this;
+            }
+            try {
+                return new replaceRegex( (String) regex, Pattern.compile( (String) regex ) );
+            }
+            catch ( RuntimeException e ) {
+                // an invalid regex fails when the spec runs, as it always has
+                return this;
+            }
+        }
     }
     
     /**
      * Check if string contains substring
      */
-    public static final class contains extends Function.ArgDrivenSingleFunction<String, Boolean> {
+    public static final class contains extends Function.ArgDrivenSingleFunction<String, Boolean> implements Function.PureFunction {
         @Override
         protected Optional<Boolean> applySingle(String source, Object arg) {
             if (source == null || !(arg instanceof String)) {
@@ -300,7 +407,7 @@ public class Strings {
     /**
      * Check if string starts with prefix
      */
-    public static final class startsWith extends Function.ArgDrivenSingleFunction<String, Boolean> {
+    public static final class startsWith extends Function.ArgDrivenSingleFunction<String, Boolean> implements Function.PureFunction {
         @Override
         protected Optional<Boolean> applySingle(String source, Object arg) {
             if (source == null || !(arg instanceof String)) {
@@ -315,7 +422,7 @@ public class Strings {
     /**
      * Check if string ends with suffix
      */
-    public static final class endsWith extends Function.ArgDrivenSingleFunction<String, Boolean> {
+    public static final class endsWith extends Function.ArgDrivenSingleFunction<String, Boolean> implements Function.PureFunction {
         @Override
         protected Optional<Boolean> applySingle(String source, Object arg) {
             if (source == null || !(arg instanceof String)) {
@@ -330,7 +437,7 @@ public class Strings {
     /**
      * Get character at specific index
      */
-    public static final class charAt extends Function.ArgDrivenSingleFunction<String, String> {
+    public static final class charAt extends Function.ArgDrivenSingleFunction<String, String> implements Function.PureFunction {
         @Override
         protected Optional<String> applySingle(String source, Object arg) {
             if (source == null || !(arg instanceof Integer)) {
@@ -349,7 +456,7 @@ public class Strings {
     /**
      * Find index of substring
      */
-    public static final class indexOf extends Function.ArgDrivenSingleFunction<String, Integer> {
+    public static final class indexOf extends Function.ArgDrivenSingleFunction<String, Integer> implements Function.PureFunction {
         @Override
         protected Optional<Integer> applySingle(String source, Object arg) {
             if (source == null || !(arg instanceof String)) {
@@ -365,7 +472,7 @@ public class Strings {
     /**
      * Get string length
      */
-    public static final class length extends Function.SingleFunction<Integer> {
+    public static final class length extends Function.SingleFunction<Integer> implements Function.PureFunction {
         @Override
         protected Optional<Integer> applySingle(final Object arg) {
             if (!(arg instanceof String)) {
@@ -380,7 +487,7 @@ public class Strings {
     /**
      * Repeat string n times
      */
-    public static final class repeat extends Function.ArgDrivenSingleFunction<String, String> {
+    public static final class repeat extends Function.ArgDrivenSingleFunction<String, String> implements Function.PureFunction {
         @Override
         protected Optional<String> applySingle(String source, Object arg) {
             if (source == null || !(arg instanceof Integer)) {
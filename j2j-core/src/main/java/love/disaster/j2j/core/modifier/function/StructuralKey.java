@@ -0,0 +1,114 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package love.disaster.j2j.core.modifier.function;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hash key for a value of the json object model (Maps, Lists and scalars) that computes the
+ *  deep hash of the value once, when the key is created, and compares that hash before falling
+ *  back to equals().
+ *
+ * The hash follows the List, Map and Set hashCode contracts, so that values that are equals()
+ *  get the same hash whatever their implementation class; containers reachable more than once
+ *  through the value, or through the values of one {@link Hasher}, are only hashed once.
+ */
+final class StructuralKey {
+
+    private final Object value;
+    private final int hash;
+
+    private StructuralKey( Object value, int hash ) {
+        this.value = value;
+        this.hash = hash;
+    }
+
+    static StructuralKey of( Object value ) {
+        return new Hasher().key( value );
+    }
+
+    Object getValue() {
+        return value;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals( Object o ) {
+        if ( this == o ) {
+            return true;
+        }
+        if ( !( o instanceof StructuralKey ) ) {
+            return false;
+        }
+        StructuralKey other = (StructuralKey) o;
+        return hash == other.hash && java.util.Objects.equals( value, other.value );
+    }
+
+    /**
+     * Creates the keys of many values, e.g. all the elements of a list, sharing the hashes of the
+     *  containers it has seen.  Values must not be modified while the Hasher is in use.
+     */
+    static final class Hasher {
+
+        private final Map<Object, Integer> containerHashes = new IdentityHashMap<>();
+
+        StructuralKey key( Object value ) {
+            return new StructuralKey( value, hash( value ) );
+        }
+
+        private int hash( Object value ) {
+            if ( value == null ) {
+                return 0;
+            }
+            if ( !( value instanceof Map || value instanceof List || value instanceof Set ) ) {
+                return value.hashCode();
+            }
+            Integer cached = containerHashes.get( value );
+            if ( cached != null ) {
+                return cached;
+            }
+            int hash;
+            if ( value instanceof Map ) {
+                hash = 0;
+                for ( Map.Entry<?, ?> entry : ( (Map<?, ?>) value ).entrySet() ) {
+                    hash += hash( entry.getKey() ) ^ hash( entry.getValue() );
+                }
+            }
+            else if ( value instanceof List ) {
+                hash = 1;
+                for ( Object element : (List<?>) value ) {
+                    hash = 31 * hash + hash( element );
+                }
+            }
+            else {
+                hash = 0;
+                for ( Object element : (Set<?>) value ) {
+                    hash += hash( element );
+                }
+            }
+            containerHashes.put( value, hash );
+            return hash;
+        }
+    }
+}
@@ -19,18 +19,20 @@ package love.disaster.j2j.core.modifier.spec;
 
 
 import love.disaster.j2j.core.common.ComputedKeysComparator;
+import love.disaster.j2j.core.common.ComputedKeysIndex;
+import love.disaster.j2j.core.common.LiteralKeys;
 import love.disaster.j2j.core.common.ExecutionStrategy;
 import love.disaster.j2j.core.common.Optional;
 import love.disaster.j2j.core.common.pathelement.*;
 import love.disaster.j2j.core.common.spec.BaseSpec;
 import love.disaster.j2j.core.common.spec.OrderedCompositeSpec;
-import love.disaster.j2j.core.common.tree.ArrayMatchedElement;
 import love.disaster.j2j.core.common.tree.MatchedElement;
 import love.disaster.j2j.core.common.tree.WalkedPath;
 import love.disaster.j2j.core.exception.SpecException;
 import love.disaster.j2j.core.modifier.DataType;
 import love.disaster.j2j.core.modifier.OpMode;
 import love.disaster.j2j.core.modifier.TemplatrSpecBuilder;
+import love.disaster.j2j.core.modifier.function.ListIndexes;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -59,7 +61,9 @@ public class ModifierCompositeSpec extends ModifierSpec implements OrderedCompos
     }
 
     private final Map<String, ModifierSpec> literalChildren;
+    private final LiteralKeys literalKeys;
     private final List<ModifierSpec> computedChildren;
+    private final ComputedKeysIndex computedKeysIndex;
     private final ExecutionStrategy executionStrategy;
     private final DataType specDataType;
 
@@ -128,7 +132,10 @@ public class ModifierCompositeSpec extends ModifierSpec implements OrderedCompos
         computed.trimToSize();
 
         literalChildren = Collections.unmodifiableMap( literals );
+
+        literalKeys = LiteralKeys.of( literalChildren );
         computedChildren = Collections.unmodifiableList( computed );
+        computedKeysIndex = ComputedKeysIndex.of( computedChildren );
 
         // extract generic execution strategy
         executionStrategy = determineExecutionStrategy();
@@ -151,6 +158,7 @@ public class ModifierCompositeSpec extends ModifierSpec implements OrderedCompos
             // if input has changed, wrap
             if ( input != null ) {
                 inputOptional = Optional.of( input );
+                ListIndexes.modified( walkedPath );
             }
         }
 
@@ -159,11 +167,11 @@ public class ModifierCompositeSpec extends ModifierSpec implements OrderedCompos
             // LIST means spec had array index explicitly specified, hence expand if needed
             if( specDataType instanceof DataType.LIST ) {
                 int origSize = specDataType.expand( input );
-                thisLevel = new ArrayMatchedElement( thisLevel.getRawKey(), origSize );
+                thisLevel = walkedPath.nextArrayMatchedElement( thisLevel.getRawKey(), origSize );
             }
             else {
                 // specDataType is RUNTIME, so spec had no array index explicitly specified, no need to expand
-                thisLevel = new ArrayMatchedElement( thisLevel.getRawKey(), ((List) input).size() );
+                thisLevel = walkedPath.nextArrayMatchedElement( thisLevel.getRawKey(), ((List) input).size() );
             }
         }
 
@@ -185,6 +193,16 @@ public class ModifierCompositeSpec extends ModifierSpec implements OrderedCompos
         return computedChildren;
     }
 
+    @Override
+    public LiteralKeys getLiteralKeys() {
+        return literalKeys;
+    }
+
+    @Override
+    public ComputedKeysIndex getComputedKeysIndex() {
+        return computedKeysIndex;
+    }
+
     @Override
     public ExecutionStrategy determineExecutionStrategy() {
 
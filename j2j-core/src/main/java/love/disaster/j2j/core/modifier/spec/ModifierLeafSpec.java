@@ -25,6 +25,7 @@ import love.disaster.j2j.core.modifier.TemplatrSpecBuilder;
 import love.disaster.j2j.core.modifier.function.Function;
 import love.disaster.j2j.core.modifier.function.FunctionArg;
 import love.disaster.j2j.core.modifier.function.FunctionEvaluator;
+import love.disaster.j2j.core.modifier.function.ListIndexes;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -79,6 +80,7 @@ public class ModifierLeafSpec extends ModifierSpec {
 
         if(valueOptional.isPresent()) {
             setData( parent, thisLevel, valueOptional.get(), opMode );
+            ListIndexes.modified( walkedPath );
         }
 
         walkedPath.removeLast();
@@ -111,14 +113,13 @@ public class ModifierLeafSpec extends ModifierSpec {
 
     private static Optional<Object> getFirstAvailable(List<FunctionEvaluator> functionEvaluatorList, Optional<Object> inputOptional, WalkedPath walkedPath, Map<String, Object> context) {
         Optional<Object> valueOptional = Optional.empty();
+        // stock functions answer empty when they do not apply to the value at hand, and evaluate()
+        //  guards against the genuine faults, so falling through to the next candidate is exception free
         for(FunctionEvaluator functionEvaluator: functionEvaluatorList) {
-            try {
-                valueOptional = functionEvaluator.evaluate( inputOptional, walkedPath, context );
-                if(valueOptional.isPresent()) {
-                    return valueOptional;
-                }
+            valueOptional = functionEvaluator.evaluate( inputOptional, walkedPath, context );
+            if(valueOptional.isPresent()) {
+                return valueOptional;
             }
-            catch(Exception ignored) {}
         }
         return valueOptional;
     }
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.shiftr;
+
+import love.disaster.j2j.core.SpecDriven;
+import love.disaster.j2j.core.common.LiteralKeys;
+import love.disaster.j2j.core.common.PathEvaluatingTraversal;
+import love.disaster.j2j.core.common.pathelement.LiteralPathElement;
+import love.disaster.j2j.core.common.tree.MatchedElement;
+import love.disaster.j2j.core.common.tree.WalkedPath;
+import love.disaster.j2j.core.shiftr.spec.ShiftrCompositeSpec;
+import love.disaster.j2j.core.shiftr.spec.ShiftrLeafSpec;
+import love.disaster.j2j.core.shiftr.spec.ShiftrSpec;
+import love.disaster.j2j.core.traversr.TraversalKeys;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Shiftr spec compiled down to a tree of nodes that do nothing but map gets and output puts.
+ *
+ * The interpreted tree walk pays, at every level of every document, for matching each key through
+ *  its PathElement, for the MatchedElement and WalkedPath bookkeeping, for the ExecutionStrategy
+ *  dispatch and for evaluating the write paths.  For a spec where every input key is a literal, like
+ *
+ *    { "rating" : { "primary" : { "value" : "Rating", "max" : "RatingRange" }, "quality" : "&" } }
+ *
+ *  none of that depends on the input : which key goes to which child is known, and so is every
+ *  write path, "&" references included, as they can only ever refer to the literal keys above them.
+ *  So all of it is done once, here, and a document is then transformed by probing the literal keys
+ *  and writing the values to the pre-evaluated output paths.
+ *
+ * Specs that use anything else ("*", "@", "$", "#" and "@(1,id)" keys, or "#" and "@" write paths)
+ *  depend on the input or on match counts, and do not compile; see compile.
+ *
+ * The output is the same as the interpreted Shiftr's, including the order values are written in.
+ *  Instances are immutable, and so can be shared between threads.
+ */
+public final class CompiledShiftr {
+
+    private final Node root;
+
+    private CompiledShiftr( Node root ) {
+        this.root = root;
+    }
+
+    /**
+     * @param rootSpec the root spec of a Shiftr
+     * @return the compiled spec, or null if the spec uses keys or write paths that can not be compiled,
+     *  in which case the interpreted spec should be used
+     */
+    public static CompiledShiftr compile( ShiftrCompositeSpec rootSpec ) {
+
+        // mirror the WalkedPath of the interpreted walk, which has a "root" element above the root spec
+        WalkedPath walkedPath = new WalkedPath();
+        walkedPath.add( null, new MatchedElement( SpecDriven.ROOT_KEY ) );
+
+        Node root;
+        try {
+            root = compile( rootSpec, walkedPath );
+        }
+        catch ( IndexOutOfBoundsException ioobe ) {
+            // a write path reference above the root or past the sub keys of its key, i.e. "&5" or "&(0,1)",
+            //  let the interpreter fail the same way it always has
+            return null;
+        }
+        return root == null ? null : new CompiledShiftr( root );
+    }
+
+    private static Node compile( ShiftrSpec spec, WalkedPath walkedPath ) {
+
+        if ( ! ( spec.getPathElement() instanceof LiteralPathElement ) ) {
+            return null;
+        }
+
+        walkedPath.add( null, new MatchedElement( spec.getPathElement().getRawKey() ) );
+        try {
+            if ( spec instanceof ShiftrCompositeSpec ) {
+                return compileComposite( (ShiftrCompositeSpec) spec, walkedPath );
+            }
+            return compileLeaf( (ShiftrLeafSpec) spec, walkedPath );
+        }
+        finally {
+            walkedPath.removeLast();
+        }
+    }
+
+    private static Node compileComposite( ShiftrCompositeSpec spec, WalkedPath walkedPath ) {
+
+        if ( ! spec.getSpecialChildren().isEmpty() || ! spec.getComputedChildren().isEmpty() ) {
+            return null;
+        }
+
+        LiteralKeys literals = spec.getLiteralKeys();
+        Node[] children = new Node[ literals.size() ];
+        for ( int literal = 0; literal < literals.size(); literal++ ) {
+            children[literal] = compile( (ShiftrSpec) literals.getSpec( literal ), walkedPath );
+            if ( children[literal] == null ) {
+                return null;
+            }
+        }
+        return new LiteralsNode( literals, children );
+    }
+
+    private static Node compileLeaf( ShiftrLeafSpec spec, WalkedPath walkedPath ) {
+
+        List<? extends PathEvaluatingTraversal> writers = spec.getShiftrWriters();
+        PathEvaluatingTraversal[] keyedWriters = new PathEvaluatingTraversal[ writers.size() ];
+        TraversalKeys[] writerKeys = new TraversalKeys[ writers.size() ];
+
+        int writerCount = 0;
+        for ( PathEvaluatingTraversal writer : writers ) {
+            if ( ! writer.isKeyDetermined() ) {
+                return null;
+            }
+            TraversalKeys keys = writer.evaluateKeys( walkedPath );
+            // a path that does not evaluate is never written to, i.e. "[&1]" where &1 is not a number
+            if ( keys != null ) {
+                keyedWriters[writerCount] = writer;
+                writerKeys[writerCount] = keys;
+                writerCount++;
+            }
+        }
+        return new LeafNode( Arrays.copyOf( keyedWriters, writerCount ), Arrays.copyOf( writerKeys, writerCount ) );
+    }
+
+    /**
+     * @param input the JSON object to transform
+     * @return the output object with data shifted to it
+     */
+    public Object transform( Object input ) {
+        Map<String, Object> output = new HashMap<>();
+        root.apply( input, output );
+        return output.get( SpecDriven.ROOT_KEY );
+    }
+
+    private interface Node {
+        /**
+         * @param input the value under the key this node was compiled for, null if the key was matched
+         *              by a scalar rather than a map key or list index
+         */
+        void apply( Object input, Map<String, Object> output );
+    }
+
+    /**
+     * A ShiftrCompositeSpec with literal children only, aka the AVAILABLE_LITERALS ExecutionStrategy.
+     */
+    private static final class LiteralsNode implements Node {
+
+        private final LiteralKeys literals;
+        private final Node[] children;      // in the same order as the literals
+
+        private LiteralsNode( LiteralKeys literals, Node[] children ) {
+            this.literals = literals;
+            this.children = children;
+        }
+
+        @Override
+        @SuppressWarnings( "unchecked" )
+        public void apply( Object input, Map<String, Object> output ) {
+            if ( input instanceof Map ) {
+                applyMap( (Map<String, Object>) input, output );
+            }
+            else if ( input instanceof List ) {
+                applyList( (List<Object>) input, output );
+            }
+            else if ( input != null ) {
+                // a scalar matches the literal equal to it, which then sees no input
+                int literal = literals.positionOf( input.toString() );
+                if ( literal != LiteralKeys.NOT_A_LITERAL ) {
+                    children[literal].apply( null, output );
+                }
+            }
+        }
+
+        private void applyMap( Map<String, Object> inputMap, Map<String, Object> output ) {
+
+            if ( inputMap.size() < literals.size() ) {
+                // narrow input, look its keys up, as ExecutionStrategy.AVAILABLE_LITERALS does
+                for ( int literal : literals.positionsOf( inputMap ) ) {
+                    children[literal].apply( inputMap.get( literals.getKey( literal ) ), output );
+                }
+                return;
+            }
+
+            for ( int literal = 0; literal < children.length; literal++ ) {
+                String key = literals.getKey( literal );
+                Object subInput = inputMap.get( key );
+                if ( subInput != null || inputMap.containsKey( key ) ) {
+                    children[literal].apply( subInput, output );
+                }
+            }
+        }
+
+        private void applyList( List<Object> inputList, Map<String, Object> output ) {
+            for ( int literal = 0; literal < children.length; literal++ ) {
+                int index = literals.getIndex( literal );
+                if ( index != LiteralKeys.NOT_AN_INDEX && index < inputList.size() ) {
+                    children[literal].apply( inputList.get( index ), output );
+                }
+            }
+        }
+    }
+
+    /**
+     * A ShiftrLeafSpec with a literal key, writing to paths evaluated at compile time.
+     */
+    private static final class LeafNode implements Node {
+
+        private final PathEvaluatingTraversal[] writers;
+        private final TraversalKeys[] writerKeys;
+
+        private LeafNode( PathEvaluatingTraversal[] writers, TraversalKeys[] writerKeys ) {
+            this.writers = writers;
+            this.writerKeys = writerKeys;
+        }
+
+        @Override
+        public void apply( Object input, Map<String, Object> output ) {
+            for ( int writer = 0; writer < writers.length; writer++ ) {
+                writers[writer].write( input, output, writerKeys[writer] );
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.shiftr;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import love.disaster.j2j.core.common.ExecutionStrategy;
+import love.disaster.j2j.core.common.Optional;
+import love.disaster.j2j.core.common.tree.MatchedElement;
+import love.disaster.j2j.core.common.tree.WalkedPath;
+import love.disaster.j2j.core.shiftr.spec.ShiftrCompositeSpec;
+import love.disaster.j2j.core.shiftr.spec.ShiftrSpec;
+import love.disaster.j2j.core.utils.StringTools;
+import love.disaster.j2j.utils.JsonUtilImpl;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Drives the Shiftr parallel tree walk from the tokens of a JsonParser, instead of from an input tree.
+ *
+ * Wherever a ShiftrCompositeSpec can apply its children in the order the input keys are read
+ *  (see ShiftrCompositeSpec.streamsChildren), each key is handed to the child that would have matched
+ *  it in the tree walk, and keys that no child matches are skipped without being deserialized.
+ *  Everywhere else (leaf specs, "@" children, literal children that have to be applied in spec order)
+ *  the value of the key is read into the usual Map / List tree and handed to the regular apply.
+ *
+ * So for a spec like { "items" : { "*" : { "id" : "ids[]", ... } } } only one item of "items" is ever
+ *  in memory at a time, plus the output.
+ *
+ * Levels that are streamed have no input tree to put in the WalkedPath, so this is only valid for
+ *  specs that do not read the input tree, see ShiftrSpec.readsInputTree.
+ *
+ * Keys that appear more than once in the same JSON object are all applied, where the tree walk
+ *  would only have seen the last one.
+ */
+public final class ShiftrStreamWalker {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static {
+        JsonUtilImpl.configureStockJoltObjectMapper( OBJECT_MAPPER );
+    }
+
+    private ShiftrStreamWalker() {}
+
+    /**
+     * Read the value the parser is on into a Map / List / scalar, leaving the parser on its last token.
+     */
+    public static Object readValue( JsonParser parser ) throws IOException {
+        return OBJECT_MAPPER.readValue( parser, Object.class );
+    }
+
+    /**
+     * Apply a spec, whose PathElement matches inputKey, to the value the parser is on.
+     *
+     * @param parser positioned on the first token of the value, left on its last token
+     */
+    public static void apply( ShiftrSpec spec, String inputKey, JsonParser parser, WalkedPath walkedPath, Map<String, Object> output ) throws IOException {
+
+        JsonToken token = parser.currentToken();
+        if ( spec instanceof ShiftrCompositeSpec && ( (ShiftrCompositeSpec) spec ).streamsChildren() &&
+                ( token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY ) ) {
+            walk( (ShiftrCompositeSpec) spec, inputKey, parser, walkedPath, output );
+        }
+        else {
+            spec.apply( inputKey, Optional.of( readValue( parser ) ), walkedPath, output, null );
+        }
+    }
+
+    /**
+     * Same steps as ShiftrCompositeSpec.apply, with the children applied key by key as they are read.
+     */
+    private static void walk( ShiftrCompositeSpec spec, String inputKey, JsonParser parser, WalkedPath walkedPath, Map<String, Object> output ) throws IOException {
+
+        MatchedElement thisLevel = spec.getPathElement().match( inputKey, walkedPath );
+        if ( thisLevel == null ) {
+            parser.skipChildren();
+            return;
+        }
+
+        // there is no tree for this level, but then nothing reads it, as nothing in the spec reads the input tree
+        walkedPath.add( null, thisLevel );
+
+        // "$" and "#" children only need the key
+        Optional<Object> noInput = Optional.of( null );
+        for ( ShiftrSpec subSpec : spec.getSpecialChildren() ) {
+            subSpec.apply( inputKey, noInput, walkedPath, output, null );
+        }
+
+        if ( parser.currentToken() == JsonToken.START_OBJECT ) {
+            while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+                String key = parser.currentName();
+                parser.nextToken();
+                applyKey( spec, key, parser, walkedPath, output );
+            }
+        }
+        else {
+            int index = 0;
+            while ( parser.nextToken() != JsonToken.END_ARRAY ) {
+                applyIndex( spec, index++, parser, walkedPath, output );
+            }
+        }
+
+        walkedPath.removeLast();
+        walkedPath.lastElement().getMatchedElement().incrementHashCount();
+    }
+
+    private static void applyKey( ShiftrCompositeSpec spec, String key, JsonParser parser, WalkedPath walkedPath, Map<String, Object> output ) throws IOException {
+
+        // same precedence as the ExecutionStrategy : a literal child wins, else the first computed child that matches
+        ShiftrSpec child = spec.getLiteralChildren().get( key );
+        if ( child == null && spec.getExecutionStrategy() != ExecutionStrategy.AVAILABLE_LITERALS ) {
+            for ( ShiftrSpec computedChild : spec.getComputedChildren() ) {
+                if ( computedChild.getPathElement().match( key, walkedPath ) != null ) {
+                    child = computedChild;
+                    break;
+                }
+            }
+        }
+
+        if ( child == null ) {
+            parser.skipChildren();
+        }
+        else {
+            apply( child, key, parser, walkedPath, output );
+        }
+    }
+
+    private static void applyIndex( ShiftrCompositeSpec spec, int index, JsonParser parser, WalkedPath walkedPath, Map<String, Object> output ) throws IOException {
+
+        if ( spec.getExecutionStrategy() == ExecutionStrategy.AVAILABLE_LITERALS ) {
+            // processList looks its one literal up by its int value, so "01" is index 1
+            for ( Map.Entry<String, ShiftrSpec> literal : spec.getLiteralChildren().entrySet() ) {
+                if ( StringTools.parseNonNegativeInt( literal.getKey() ) == index ) {
+                    apply( literal.getValue(), literal.getKey(), parser, walkedPath, output );
+                    return;
+                }
+            }
+            parser.skipChildren();
+        }
+        else {
+            applyKey( spec, Integer.toString( index ), parser, walkedPath, output );
+        }
+    }
+}
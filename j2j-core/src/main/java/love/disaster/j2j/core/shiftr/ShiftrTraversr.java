@@ -42,13 +42,13 @@ public class ShiftrTraversr<DataType> extends SimpleTraversr<DataType> {
      *  3) if there something other than a list there, grab it and stuff it and the data into a list
      *     and overwrite what is there with a list.
      */
-    public Optional<DataType> handleFinalSet( TraversalStep traversalStep, Object tree, String key, DataType data ) {
+    public Optional<DataType> handleFinalSet( TraversalStep traversalStep, Object tree, String key, int index, DataType data ) {
 
-        Optional<DataType> optSub = traversalStep.get( tree, key );
+        Optional<DataType> optSub = traversalStep.get( tree, key, index );
 
         if ( !optSub.isPresent() || optSub.get() == null ) {
             // nothing is here so just set the data
-            traversalStep.overwriteSet( tree, key, data );
+            traversalStep.overwriteSet( tree, key, index, data );
         }
         else if ( optSub.get() instanceof List ) {
             // there is a list here, so we just add to it
@@ -60,7 +60,7 @@ public class ShiftrTraversr<DataType> extends SimpleTraversr<DataType> {
             temp.add( optSub.get() );
             temp.add( data );
 
-            traversalStep.overwriteSet( tree, key, temp );
+            traversalStep.overwriteSet( tree, key, index, temp );
         }
 
         return Optional.of( data );
@@ -18,6 +18,8 @@ package love.disaster.j2j.core.shiftr.spec;
 
 
 import love.disaster.j2j.core.common.ComputedKeysComparator;
+import love.disaster.j2j.core.common.ComputedKeysIndex;
+import love.disaster.j2j.core.common.LiteralKeys;
 import love.disaster.j2j.core.common.ExecutionStrategy;
 import love.disaster.j2j.core.common.Optional;
 import love.disaster.j2j.core.common.pathelement.*;
@@ -80,9 +82,14 @@ public class ShiftrCompositeSpec extends ShiftrSpec implements OrderedCompositeS
     // Three different buckets for the children of this CompositeSpec
     private final List<ShiftrSpec> specialChildren;         // children that aren't actually triggered off the input data
     private final Map<String, ShiftrSpec> literalChildren;  // children that are simple exact matches against the input data
+    private final LiteralKeys literalKeys;                  // literalChildren, with keys pre-classified as list indexes
     private final List<ShiftrSpec> computedChildren;        // children that are regex matches against the input data
+    private final ComputedKeysIndex computedKeysIndex;      // null unless there are enough computed children to be worth it
     private final ExecutionStrategy executionStrategy;
 
+    private final boolean readsInputTree;
+    private final boolean streamsChildren;
+
     public ShiftrCompositeSpec(String rawKey, Map<String, Object> spec ) {
         super( rawKey );
 
@@ -128,9 +135,47 @@ public class ShiftrCompositeSpec extends ShiftrSpec implements OrderedCompositeS
 
         specialChildren = Collections.unmodifiableList( special );
         literalChildren = Collections.unmodifiableMap( literals );
+        literalKeys = LiteralKeys.of( literalChildren );
         computedChildren = Collections.unmodifiableList( computed );
+        computedKeysIndex = ComputedKeysIndex.of( computedChildren );
 
         executionStrategy = determineExecutionStrategy();
+
+        boolean reads = pathElement instanceof TransposePathElement;
+        boolean needsInput = false;
+        for ( ShiftrSpec child : children ) {
+            reads |= child.readsInputTree();
+            needsInput |= child.pathElement instanceof AtPathElement;
+        }
+        readsInputTree = reads;
+
+        // Children can be applied one input key at a time, as the keys are read, if that is the order
+        //  the executionStrategy would have applied them in anyway, and no "@" child needs all of the input
+        streamsChildren = ! needsInput &&
+                ( executionStrategy == ExecutionStrategy.COMPUTED ||
+                  executionStrategy == ExecutionStrategy.CONFLICT ||
+                  ( executionStrategy == ExecutionStrategy.AVAILABLE_LITERALS && literalChildren.size() == 1 ) );
+    }
+
+    public List<ShiftrSpec> getSpecialChildren() {
+        return specialChildren;
+    }
+
+    public ExecutionStrategy getExecutionStrategy() {
+        return executionStrategy;
+    }
+
+    @Override
+    public boolean readsInputTree() {
+        return readsInputTree;
+    }
+
+    /**
+     * @return true if the children of this Spec can be applied to the input keys in the order they are read
+     *  from a stream, see ShiftrStreamWalker
+     */
+    public boolean streamsChildren() {
+        return streamsChildren;
     }
 
 
@@ -144,6 +189,16 @@ public class ShiftrCompositeSpec extends ShiftrSpec implements OrderedCompositeS
         return computedChildren;
     }
 
+    @Override
+    public LiteralKeys getLiteralKeys() {
+        return literalKeys;
+    }
+
+    @Override
+    public ComputedKeysIndex getComputedKeysIndex() {
+        return computedKeysIndex;
+    }
+
     @Override
     public ExecutionStrategy determineExecutionStrategy() {
         if ( computedChildren.isEmpty() ) {
@@ -52,6 +52,8 @@ public class ShiftrLeafSpec extends ShiftrSpec {
     // List of the processed version of the "write specifications"
     private final List<? extends PathEvaluatingTraversal> shiftrWriters;
 
+    private final boolean readsInputTree;
+
     public ShiftrLeafSpec( String rawKey, Object rhs ) {
         super( rawKey );
 
@@ -79,6 +81,21 @@ public class ShiftrLeafSpec extends ShiftrSpec {
         }
 
         shiftrWriters = Collections.unmodifiableList( writers );
+
+        boolean reads = pathElement instanceof TransposePathElement;
+        for ( PathEvaluatingTraversal writer : writers ) {
+            reads |= writer.readsInputTree();
+        }
+        readsInputTree = reads;
+    }
+
+    @Override
+    public boolean readsInputTree() {
+        return readsInputTree;
+    }
+
+    public List<? extends PathEvaluatingTraversal> getShiftrWriters() {
+        return shiftrWriters;
     }
 
     /**
@@ -61,4 +61,10 @@ public abstract class ShiftrSpec implements BaseSpec {
     public MatchablePathElement getPathElement() {
         return pathElement;
     }
+
+    /**
+     * @return true if this Spec, or any of its children, looks up data elsewhere in the input tree
+     *  ("@(1,id)" style keys or write paths), and so needs the whole input tree to be in memory
+     */
+    public abstract boolean readsInputTree();
 }
@@ -34,6 +34,9 @@ public abstract class RemovrSpec {
 
     protected final MatchablePathElement pathElement;
 
+    // the literal key as a list index, classified once here rather than on every remove
+    private final Integer nonNegativeInteger;
+
     public RemovrSpec(String rawJsonKey) {
         PathElement pathElement = parse( rawJsonKey );
 
@@ -42,6 +45,9 @@ public abstract class RemovrSpec {
         }
 
         this.pathElement = (MatchablePathElement) pathElement;
+
+        int index = StringTools.parseNonNegativeInt( this.pathElement.getRawKey() );
+        this.nonNegativeInteger = index < 0 ? null : index;
     }
 
     // Ex Keys :  *, cdv-*, *-$de
@@ -68,23 +74,10 @@ public abstract class RemovrSpec {
      * @return non-negative integer, otherwise null
      */
     protected Integer getNonNegativeIntegerFromLiteralPathElement() {
-
-        Integer pathElementInt = null;
-
-        try {
-            pathElementInt = Integer.parseInt( pathElement.getRawKey() );
-
-            if ( pathElementInt < 0 ) {
-                return null;
-            }
-        }
-        catch( NumberFormatException nfe ) {
-            // If the data is an Array, but the spec keys are Non-Integer Strings,
-            //  we are annoyed, but we don't stop the whole transform.
-            // Just this part of the Transform won't work.
-        }
-
-        return pathElementInt;
+        // If the data is an Array, but the spec keys are Non-Integer Strings,
+        //  we are annoyed, but we don't stop the whole transform.
+        // Just this part of the Transform won't work.
+        return nonNegativeInteger;
     }
 
     /**
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.trace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TransformTracer that writes to SLF4J, at DEBUG on the logger of the transform (or function) class,
+ *  and at WARN for failures.  This is what the transforms used to log on every call; install it
+ *  with a sample rate to get a representative trickle of it instead :
+ *
+ * <pre>
+ *     TransformTracers.install( new Slf4jTransformTracer(), 1000 );
+ * </pre>
+ */
+public class Slf4jTransformTracer implements TransformTracer {
+
+    @Override
+    public void transformStarted( Class<?> transformClass, Object input ) {
+        Logger logger = LoggerFactory.getLogger( transformClass );
+        if ( logger.isDebugEnabled() ) {
+            logger.debug( "Starting {} transform, input type: {}", transformClass.getSimpleName(), typeOf( input ) );
+        }
+    }
+
+    @Override
+    public void transformCompleted( Class<?> transformClass, Object output ) {
+        Logger logger = LoggerFactory.getLogger( transformClass );
+        if ( logger.isDebugEnabled() ) {
+            logger.debug( "{} transform completed, output type: {}", transformClass.getSimpleName(), typeOf( output ) );
+        }
+    }
+
+    @Override
+    public void transformFailed( Class<?> transformClass, Throwable failure ) {
+        LoggerFactory.getLogger( transformClass ).warn( "{} transform failed: {}", transformClass.getSimpleName(), failure.getMessage(), failure );
+    }
+
+    @Override
+    public void trace( Class<?> source, String message, Object detail ) {
+        Logger logger = LoggerFactory.getLogger( source );
+        if ( logger.isDebugEnabled() ) {
+            logger.debug( "{} : {}", message, detail );
+        }
+    }
+
+    private static String typeOf( Object value ) {
+        return value == null ? "null" : value.getClass().getSimpleName();
+    }
+}
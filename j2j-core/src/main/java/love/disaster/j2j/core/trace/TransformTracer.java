@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.trace;
+
+/**
+ * Receives trace events from the stock transforms (Shiftr, Defaultr, Removr, Sortr) and from the
+ *  heavier Modifier functions, i.e. the script and JSONata ones.
+ *
+ * Transforms never log on their success path; instead they ask {@link TransformTracers#sample()}
+ *  for a tracer once per invocation and report to it.  Unless a tracer has been installed, that is
+ *  {@link #NOOP}, whose methods are empty, so tracing costs one volatile read per invocation.
+ *
+ * Implementations are called on the thread running the transform, so they must be thread safe.
+ *  Inputs and outputs are handed over as is; a tracer must not modify them, and should not keep
+ *  references to them past the call, as Defaultr and Removr mutate their input in place.
+ */
+public interface TransformTracer {
+
+    /**
+     * Tracer that drops everything, used when tracing is off or the invocation is not sampled.
+     */
+    TransformTracer NOOP = new TransformTracer() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * @return false if every other method is a no-op, so that callers can skip building trace details
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    default void transformStarted( Class<?> transformClass, Object input ) {
+    }
+
+    default void transformCompleted( Class<?> transformClass, Object output ) {
+    }
+
+    /**
+     * Called when the transform throws.  The exception is still propagated to the caller after this returns.
+     */
+    default void transformFailed( Class<?> transformClass, Throwable failure ) {
+    }
+
+    /**
+     * Intermediate step of a transform or function, i.e. the query and result of a JSONata call.
+     *
+     * @param source class reporting the step
+     * @param message short constant description of the step
+     * @param detail value of the step, may be null
+     */
+    default void trace( Class<?> source, String message, Object detail ) {
+    }
+}
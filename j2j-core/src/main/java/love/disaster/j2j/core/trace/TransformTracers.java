@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Holds the TransformTracer installed for the whole JVM, and decides which invocations it sees.
+ *
+ * Tracing every document is as bad under load as logging every document was, so a tracer can be
+ *  installed with a sample rate of 1 in N : each transform invocation is then traced with a
+ *  probability of 1/N.  The decision uses ThreadLocalRandom rather than a shared counter, so
+ *  sampling does not make threads contend with each other.
+ *
+ * Sampling is decided per transform invocation, so with a Chainr each stage samples on its own.
+ */
+public final class TransformTracers {
+
+    private static volatile Sampler sampler = new Sampler( TransformTracer.NOOP, 1 );
+
+    private TransformTracers() {}
+
+    /**
+     * Traces every invocation with the given tracer.
+     */
+    public static void install( TransformTracer tracer ) {
+        install( tracer, 1 );
+    }
+
+    /**
+     * @param tracer tracer to report to
+     * @param sampleEvery trace on average 1 invocation out of sampleEvery
+     */
+    public static void install( TransformTracer tracer, int sampleEvery ) {
+        if ( tracer == null ) {
+            throw new IllegalArgumentException( "TransformTracers.install requires a tracer, got null" );
+        }
+        if ( sampleEvery <= 0 ) {
+            throw new IllegalArgumentException( "TransformTracers.install requires a positive sampleEvery, got " + sampleEvery );
+        }
+        sampler = new Sampler( tracer, sampleEvery );
+    }
+
+    /**
+     * Turns tracing back off.
+     */
+    public static void uninstall() {
+        sampler = new Sampler( TransformTracer.NOOP, 1 );
+    }
+
+    /**
+     * @return the installed tracer, regardless of sampling
+     */
+    public static TransformTracer getInstalled() {
+        return sampler.tracer;
+    }
+
+    public static int getSampleEvery() {
+        return sampler.sampleEvery;
+    }
+
+    /**
+     * To be called once at the start of each invocation.
+     *
+     * @return the installed tracer if this invocation is sampled, else {@link TransformTracer#NOOP}
+     */
+    public static TransformTracer sample() {
+        Sampler current = sampler;
+        if ( current.sampleEvery == 1 ) {
+            return current.tracer;
+        }
+        return ThreadLocalRandom.current().nextInt( current.sampleEvery ) == 0 ? current.tracer : TransformTracer.NOOP;
+    }
+
+    // tracer and rate are swapped together, so that sample() never pairs a tracer with the rate of another
+    private static final class Sampler {
+
+        private final TransformTracer tracer;
+        private final int sampleEvery;
+
+        private Sampler( TransformTracer tracer, int sampleEvery ) {
+            this.tracer = tracer;
+            this.sampleEvery = sampleEvery;
+        }
+    }
+}
@@ -18,7 +18,6 @@ package love.disaster.j2j.core.traversr;
 import love.disaster.j2j.core.common.Optional;
 
 import java.util.Arrays;
-import java.util.List;
 
 /**
  * Utility class for use in custom Transforms.
@@ -36,7 +35,7 @@ import java.util.List;
 public class SimpleTraversal<DataType> {
 
     private final SimpleTraversr traversr;
-    private final List<String> keys;
+    private final TraversalKeys keys;
 
     /**
      * Google Maps.newHashMap() trick to fill in generic type
@@ -61,7 +60,8 @@ public class SimpleTraversal<DataType> {
             }
         }
 
-        keys = Arrays.asList( keysArray );
+        // classified once here, rather than on every get / set / remove
+        keys = TraversalKeys.of( Arrays.asList( keysArray ) );
     }
 
     /**
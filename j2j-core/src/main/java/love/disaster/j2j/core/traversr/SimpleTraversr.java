@@ -37,17 +37,17 @@ public class SimpleTraversr<DataType> extends Traversr<DataType> {
     }
 
     @Override
-    public Optional<DataType> handleFinalSet( TraversalStep traversalStep, Object tree, String key, DataType data ) {
-        return traversalStep.overwriteSet( tree, key, data );
+    public Optional<DataType> handleFinalSet( TraversalStep traversalStep, Object tree, String key, int index, DataType data ) {
+        return traversalStep.overwriteSet( tree, key, index, data );
     }
 
     /**
      * Only make a new instance of a container object for SET, if there is nothing "there".
      */
     @Override
-    public Optional<DataType> handleIntermediateGet( TraversalStep traversalStep, Object tree, String key, TraversalStep.Operation op ) {
+    public Optional<DataType> handleIntermediateGet( TraversalStep traversalStep, Object tree, String key, int index, TraversalStep.Operation op ) {
 
-        Optional<Object> optSub = traversalStep.get( tree, key );
+        Optional<Object> optSub = traversalStep.get( tree, key, index );
 
         Object sub = optSub.get();
 
@@ -55,7 +55,9 @@ public class SimpleTraversr<DataType> extends Traversr<DataType> {
 
             // get our child to make the container object, so it will be happy with it
             sub = traversalStep.getChild().newContainer();
-            traversalStep.overwriteSet( tree, key, sub );
+            if ( ! traversalStep.overwriteSet( tree, key, index, sub ).isPresent() ) {
+                return Optional.empty();
+            }
         }
 
         return Optional.of( (DataType) sub );
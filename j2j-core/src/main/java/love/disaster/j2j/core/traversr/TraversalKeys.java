@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.traversr;
+
+import love.disaster.j2j.core.utils.StringTools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The concrete keys for one traversal of a Traversr, one per TraversalStep.
+ *
+ * A level can hold a String key, or for array steps an int index, so that a writer that already
+ *  knows the index as an int (i.e. "[#2]" or "[&1]" in a Shiftr output path) does not have to turn
+ *  it into a String, only for the ArrayTraversalStep to parse it back.  Levels that hold an index
+ *  have a null key.
+ *
+ * String keys are classified when they are set : a key that is a valid non-negative integer also
+ *  records its int value, so that an ArrayTraversalStep never has to parse, and a key that is not
+ *  has NO_INDEX, which the ArrayTraversalStep treats as "not there" rather than throwing.
+ *
+ * Instances are mutable so that they can be reused between writes, see PathEvaluatingTraversal.
+ */
+public final class TraversalKeys {
+
+    /**
+     * Index of a level whose String key is not a valid list index.
+     */
+    public static final int NO_INDEX = -1;
+
+    private String[] keys;
+    private int[] indexes;
+    private int size;
+
+    public TraversalKeys( int size ) {
+        this.keys = new String[ size ];
+        this.indexes = new int[ size ];
+        Arrays.fill( indexes, NO_INDEX );
+        this.size = size;
+    }
+
+    public static TraversalKeys of( List<String> keys ) {
+        TraversalKeys traversalKeys = new TraversalKeys( keys.size() );
+        for ( int depth = 0; depth < keys.size(); depth++ ) {
+            traversalKeys.setKey( depth, keys.get( depth ) );
+        }
+        return traversalKeys;
+    }
+
+    /**
+     * Resize to the given number of levels, recycling the backing arrays when they are large enough.
+     */
+    public TraversalKeys reset( int newSize ) {
+        if ( newSize > keys.length ) {
+            keys = new String[ newSize ];
+            indexes = new int[ newSize ];
+        }
+        size = newSize;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the key of the level, null if the level holds an index
+     */
+    public String getKey( int depth ) {
+        return keys[depth];
+    }
+
+    /**
+     * @return the index of the level, or NO_INDEX if the level holds a String key that is not a number
+     */
+    public int getIndex( int depth ) {
+        return indexes[depth];
+    }
+
+    public void setKey( int depth, String key ) {
+        keys[depth] = key;
+        indexes[depth] = key == null ? NO_INDEX : StringTools.parseNonNegativeInt( key );
+    }
+
+    public void setIndex( int depth, int index ) {
+        keys[depth] = null;
+        indexes[depth] = index;
+    }
+
+    /**
+     * @return the keys as Strings, with indexes written out in decimal
+     */
+    public List<String> toList() {
+        if ( size == 0 ) {
+            return Collections.emptyList();
+        }
+        List<String> list = new ArrayList<>( size );
+        for ( int depth = 0; depth < size; depth++ ) {
+            list.add( keys[depth] != null ? keys[depth] : Integer.toString( indexes[depth] ) );
+        }
+        return list;
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
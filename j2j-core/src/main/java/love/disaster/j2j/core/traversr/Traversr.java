@@ -21,6 +21,7 @@ import love.disaster.j2j.core.traversr.traversal.AutoExpandArrayTraversalStep;
 import love.disaster.j2j.core.traversr.traversal.MapTraversalStep;
 import love.disaster.j2j.core.traversr.traversal.TraversalStep;
 import love.disaster.j2j.core.traversr.traversal.TraversalStep.Operation;
+import love.disaster.j2j.core.utils.StringTools;
 
 import java.util.List;
 
@@ -55,6 +56,7 @@ import java.util.List;
  *  parse any more objects.
  *
  * The list of keys are all Strings, which ArrayTraversals will convert to Integers as needed.
+ *  Callers that already have array indexes as ints can hand them over in a TraversalKeys instead.
  */
 public abstract class Traversr<DataType> {
 
@@ -115,12 +117,15 @@ public abstract class Traversr<DataType> {
      *  abstract methods of this class.
      */
     public Optional<DataType> get( Object tree, List<String> keys ) {
+        return get( tree, TraversalKeys.of( keys ) );
+    }
 
-        if ( keys.size() != traversalLength ) {
-            throw new TraversrException( "Traversal Path and number of keys mismatch, traversalLength:" + traversalLength + " numKeys:" + keys.size() );
-        }
-
-        return root.traverse( tree, Operation.GET, keys.iterator(), null );
+    /**
+     * Same as get( tree, List ), with keys that may carry int array indexes.
+     */
+    public Optional<DataType> get( Object tree, TraversalKeys keys ) {
+        checkLength( keys.size() );
+        return root.traverse( tree, Operation.GET, keys, 0, null );
     }
 
     /**
@@ -129,10 +134,15 @@ public abstract class Traversr<DataType> {
      * @return returns the data object if successfully set, otherwise null if there was a problem walking the path
      */
     public Optional<DataType> set( Object tree, List<String> keys, DataType data ) {
+        return set( tree, TraversalKeys.of( keys ), data );
+    }
 
-        if ( keys.size() != traversalLength ) {
-            throw new TraversrException( "Traversal Path and number of keys mismatch, traversalLength:" + traversalLength + " numKeys:" + keys.size() );
-        }
+    /**
+     * Same as set( tree, List, data ), with keys that may carry int array indexes.
+     */
+    public Optional<DataType> set( Object tree, TraversalKeys keys, DataType data ) {
+
+        checkLength( keys.size() );
 
         /*
            This may seem counterintuitive.
@@ -145,7 +155,7 @@ public abstract class Traversr<DataType> {
             return Optional.empty();
         }
 
-        return root.traverse( tree, Operation.SET, keys.iterator(), data );
+        return root.traverse( tree, Operation.SET, keys, 0, data );
     }
 
     /**
@@ -154,16 +164,43 @@ public abstract class Traversr<DataType> {
      *  abstract methods of this class.
      */
     public Optional<DataType> remove( Object tree, List<String> keys ) {
+        return remove( tree, TraversalKeys.of( keys ) );
+    }
 
-        if ( keys.size() != traversalLength ) {
-            throw new TraversrException( "Traversal Path and number of keys mismatch, traversalLength:" + traversalLength + " numKeys:" + keys.size() );
-        }
+    /**
+     * Same as remove( tree, List ), with keys that may carry int array indexes.
+     */
+    public Optional<DataType> remove( Object tree, TraversalKeys keys ) {
+
+        checkLength( keys.size() );
 
         if ( tree == null ) {
             return Optional.empty();
         }
 
-        return root.traverse( tree, Operation.REMOVE, keys.iterator(), null );
+        return root.traverse( tree, Operation.REMOVE, keys, 0, null );
+    }
+
+    /**
+     * Size the containers created along the traversal, see OutputShape.
+     *
+     * @param expectedSizes for each level, how many entries the container the level writes into is expected to
+     *                      hold, or TraversalStep.UNKNOWN_SIZE.  The first level writes into the tree passed in,
+     *                      so its size is not used.
+     */
+    public void setExpectedSizes( int[] expectedSizes ) {
+        checkLength( expectedSizes.length );
+        TraversalStep step = root;
+        for ( int depth = 0; depth < expectedSizes.length; depth++ ) {
+            step.setExpectedSize( expectedSizes[depth] );
+            step = step.getChild();
+        }
+    }
+
+    private void checkLength( int numKeys ) {
+        if ( numKeys != traversalLength ) {
+            throw new TraversrException( "Traversal Path and number of keys mismatch, traversalLength:" + traversalLength + " numKeys:" + numKeys );
+        }
     }
 
     // TODO extract these methods to an interface, and then sublasses of Traverser like ShiftrTraversr can do the
@@ -175,9 +212,12 @@ public abstract class Traversr<DataType> {
      *
      * Overwrite existing data?   List-ize existing data with new data?
      *
+     * The index is the key as an int, or TraversalKeys.NO_INDEX if the key is not a list index.
+     *  Either way, just hand both to the TraversalStep.
+     *
      * @return the data object if the set was successful, or null if not
      */
-    public abstract Optional<DataType> handleFinalSet( TraversalStep traversalStep, Object tree, String key, DataType data );
+    public abstract Optional<DataType> handleFinalSet( TraversalStep traversalStep, Object tree, String key, int index, DataType data );
 
     /**
      * Allow subclasses to control how gets are handled for intermediate traversals.
@@ -188,5 +228,28 @@ public abstract class Traversr<DataType> {
      *
      * Overwrite or just return?
      */
-    public abstract Optional<DataType> handleIntermediateGet( TraversalStep traversalStep, Object tree, String key, Operation op );
+    public abstract Optional<DataType> handleIntermediateGet( TraversalStep traversalStep, Object tree, String key, int index, Operation op );
+
+    // final, so that a subclass still overriding the String only overloads fails to compile, rather than being
+    //  silently bypassed by the TraversalSteps, which only call the overloads that take the index
+
+    /**
+     * Same as handleFinalSet( traversalStep, tree, key, index, data ), with the index parsed from the key.
+     *
+     * @deprecated use the overload that takes the index
+     */
+    @Deprecated
+    public final Optional<DataType> handleFinalSet( TraversalStep traversalStep, Object tree, String key, DataType data ) {
+        return handleFinalSet( traversalStep, tree, key, StringTools.parseNonNegativeInt( key ), data );
+    }
+
+    /**
+     * Same as handleIntermediateGet( traversalStep, tree, key, index, op ), with the index parsed from the key.
+     *
+     * @deprecated use the overload that takes the index
+     */
+    @Deprecated
+    public final Optional<DataType> handleIntermediateGet( TraversalStep traversalStep, Object tree, String key, Operation op ) {
+        return handleIntermediateGet( traversalStep, tree, key, StringTools.parseNonNegativeInt( key ), op );
+    }
 }
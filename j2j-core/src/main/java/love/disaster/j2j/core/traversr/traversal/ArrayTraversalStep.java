@@ -16,9 +16,11 @@
 package love.disaster.j2j.core.traversr.traversal;
 
 import love.disaster.j2j.core.common.Optional;
+import love.disaster.j2j.core.traversr.TraversalKeys;
 import love.disaster.j2j.core.traversr.Traversr;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -35,43 +37,53 @@ public class ArrayTraversalStep<DataType> extends BaseTraversalStep<List<Object>
     }
 
     public List<Object> newContainer() {
-        return new ArrayList<>();
+        if ( expectedSize == UNKNOWN_SIZE ) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>( expectedSize );
     }
 
+    /**
+     * The index was classified when the key was set, a key that is not a non-negative integer
+     *  has TraversalKeys.NO_INDEX, and is simply not found.
+     */
     @Override
-    public Optional<DataType> get( List<Object> list, String key ) {
+    public Optional<DataType> get( List<Object> list, String key, int index ) {
 
-        int arrayIndex = Integer.parseInt( key );
-        if ( arrayIndex < list.size() ) {
-            return Optional.of( (DataType) list.get( arrayIndex ) );
+        if ( index != TraversalKeys.NO_INDEX && index < list.size() ) {
+            return Optional.of( (DataType) list.get( index ) );
         }
 
         return Optional.empty();
     }
 
     @Override
-    public Optional<DataType> remove( List<Object> list, String key ) {
+    public Optional<DataType> remove( List<Object> list, String key, int index ) {
 
-        int arrayIndex = Integer.parseInt( key );
-        if ( arrayIndex < list.size() ) {
-            return Optional.of( (DataType) list.remove( arrayIndex ) );
+        if ( index != TraversalKeys.NO_INDEX && index < list.size() ) {
+            return Optional.of( (DataType) list.remove( index ) );
         }
 
         return Optional.empty();
     }
 
     @Override
-    public Optional<DataType> overwriteSet( List<Object> list, String key, DataType data ) {
+    public Optional<DataType> overwriteSet( List<Object> list, String key, int index, DataType data ) {
+
+        if ( index == TraversalKeys.NO_INDEX ) {
+            return Optional.empty();
+        }
 
-        int arrayIndex = Integer.parseInt( key );
-        ensureArraySize( list, arrayIndex );            // make sure it is big enough
-        list.set( arrayIndex, data );
+        ensureArraySize( list, index );            // make sure it is big enough
+        list.set( index, data );
         return Optional.of( data );
     }
 
-    private static void ensureArraySize( List<Object> list, Integer upperIndex ) {
-        for ( int sizing = list.size(); sizing <= upperIndex; sizing++ ) {
-            list.add( null );
+    private static void ensureArraySize( List<Object> list, int upperIndex ) {
+        int missing = upperIndex + 1 - list.size();
+        if ( missing > 0 ) {
+            // pad in one go, rather than growing the list one null at a time
+            list.addAll( Collections.nCopies( missing, null ) );
         }
     }
 }
@@ -41,30 +41,30 @@ public class AutoExpandArrayTraversalStep<DataType> extends ArrayTraversalStep<D
     }
 
     @Override
-    public Optional<DataType> get( List<Object> list, String key ) {
+    public Optional<DataType> get( List<Object> list, String key, int index ) {
 
         if ( ! "[]".equals( key ) ) {
-            throw new TraversrException( "AutoExpandArrayTraversal expects a '[]' key. Was: " + key );
+            throw new TraversrException( "AutoExpandArrayTraversal expects a '[]' key. Was: " + ( key != null ? key : index ) );
         }
 
         return Optional.empty();
     }
 
     @Override
-    public Optional<DataType> remove( List<Object> list, String key ) {
+    public Optional<DataType> remove( List<Object> list, String key, int index ) {
 
         if ( ! "[]".equals( key ) ) {
-            throw new TraversrException( "AutoExpandArrayTraversal expects a '[]' key. Was: " + key );
+            throw new TraversrException( "AutoExpandArrayTraversal expects a '[]' key. Was: " + ( key != null ? key : index ) );
         }
 
         return Optional.empty();
     }
 
     @Override
-    public Optional<DataType> overwriteSet( List<Object> list, String key, DataType data ) {
+    public Optional<DataType> overwriteSet( List<Object> list, String key, int index, DataType data ) {
 
         if ( ! "[]".equals( key ) ) {
-            throw new TraversrException( "AutoExpandArrayTraversal expects a '[]' key. Was: " + key );
+            throw new TraversrException( "AutoExpandArrayTraversal expects a '[]' key. Was: " + ( key != null ? key : index ) );
         }
 
         list.add( data );
@@ -16,16 +16,18 @@
 package love.disaster.j2j.core.traversr.traversal;
 
 import love.disaster.j2j.core.common.Optional;
+import love.disaster.j2j.core.traversr.TraversalKeys;
 import love.disaster.j2j.core.traversr.Traversr;
 
-import java.util.Iterator;
-
 
 public abstract class BaseTraversalStep<StepType,DataType> implements TraversalStep<StepType,DataType> {
 
     protected final TraversalStep child;
     protected final Traversr traversr;
 
+    // number of entries the containers made by newContainer will hold, if known
+    protected int expectedSize = UNKNOWN_SIZE;
+
     public BaseTraversalStep( Traversr traversr, TraversalStep child ) {
         this.traversr = traversr;
         this.child = child;
@@ -35,7 +37,11 @@ public abstract class BaseTraversalStep<StepType,DataType> implements TraversalS
         return child;
     }
 
-    public final Optional<DataType> traverse( StepType tree, Operation op, Iterator<String> keys, DataType data ) {
+    public void setExpectedSize( int expectedSize ) {
+        this.expectedSize = expectedSize;
+    }
+
+    public final Optional<DataType> traverse( StepType tree, Operation op, TraversalKeys keys, int depth, DataType data ) {
 
         if ( tree == null ) {
             return Optional.empty();
@@ -43,17 +49,18 @@ public abstract class BaseTraversalStep<StepType,DataType> implements TraversalS
 
         if ( getStepType().isAssignableFrom( tree.getClass() ) ) {
 
-            String key = keys.next();
+            String key = keys.getKey( depth );
+            int index = keys.getIndex( depth );
 
             if ( child == null ) {
                 // End of the Traversal so do the set or get
                 switch (op) {
                     case GET :
-                        return this.get( tree, key );
+                        return this.get( tree, key, index );
                     case SET :
-                        return (Optional<DataType>) traversr.handleFinalSet( this, tree, key, data );
+                        return (Optional<DataType>) traversr.handleFinalSet( this, tree, key, index, data );
                     case REMOVE:
-                        return this.remove( tree, key );
+                        return this.remove( tree, key, index );
                     default :
                         throw new IllegalStateException( "Invalid op:" + op.toString() );
                 }
@@ -61,10 +68,10 @@ public abstract class BaseTraversalStep<StepType,DataType> implements TraversalS
             else {
 
                 // We just an intermediate step, so traverse and then hand over control to our child
-                Optional<Object> optSub = traversr.handleIntermediateGet( this, tree, key, op );
+                Optional<Object> optSub = traversr.handleIntermediateGet( this, tree, key, index, op );
 
                 if ( optSub.isPresent() ) {
-                    return child.traverse( optSub.get(), op, keys, data );
+                    return child.traverse( optSub.get(), op, keys, depth + 1, data );
                 }
             }
         }
@@ -35,12 +35,16 @@ public class MapTraversalStep<DataType> extends BaseTraversalStep<Map<String,Obj
     }
 
     public Map<String,Object> newContainer() {
-        return new LinkedHashMap<>();
+        if ( expectedSize == UNKNOWN_SIZE ) {
+            return new LinkedHashMap<>();
+        }
+        // big enough to hold expectedSize entries without rehashing at the default load factor
+        return new LinkedHashMap<>( (int) ( expectedSize / 0.75f ) + 1 );
     }
 
     @Override
     @SuppressWarnings("unchecked")
-    public Optional<DataType> get( Map<String, Object> map, String key ) {
+    public Optional<DataType> get( Map<String, Object> map, String key, int index ) {
 
         // This here was the whole point of adding the Optional stuff.
         // Aka, I need a way to distinguish between the key not existing in the map
@@ -54,12 +58,12 @@ public class MapTraversalStep<DataType> extends BaseTraversalStep<Map<String,Obj
 
     @Override
     @SuppressWarnings("unchecked")
-    public Optional<DataType> remove( Map<String, Object> map, String key ) {
+    public Optional<DataType> remove( Map<String, Object> map, String key, int index ) {
         return Optional.of( (DataType) map.remove( key ) );
     }
 
     @Override
-    public Optional<DataType> overwriteSet( Map<String, Object> map, String key, DataType data ) {
+    public Optional<DataType> overwriteSet( Map<String, Object> map, String key, int index, DataType data ) {
         map.put( key, data );
         return Optional.of( data );
     }
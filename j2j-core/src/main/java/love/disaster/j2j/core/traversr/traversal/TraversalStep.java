@@ -16,11 +16,19 @@
 package love.disaster.j2j.core.traversr.traversal;
 
 import love.disaster.j2j.core.common.Optional;
+import love.disaster.j2j.core.traversr.TraversalKeys;
+import love.disaster.j2j.core.utils.StringTools;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * A step in a JSON tree traversal.
+ *
+ * Keys come with an int index : the key already parsed as an int, or TraversalKeys.NO_INDEX
+ *  when the key is not a non-negative integer.  When the index is known the String key may be
+ *  null.  Map steps ignore the index, array steps only ever use it.
  */
 public interface TraversalStep<StepType, DataType> {
 
@@ -29,26 +37,61 @@ public interface TraversalStep<StepType, DataType> {
      */
     public enum Operation { SET, GET, REMOVE }
 
+    /**
+     * Expected size of a container whose size is not known up front.
+     */
+    public static final int UNKNOWN_SIZE = -1;
+
     /**
      * Return the data for the key from the provided tree object.
      *
      * @return data object if available, or null.
      */
-    public Optional<DataType> get( StepType tree, String key );
+    public Optional<DataType> get( StepType tree, String key, int index );
 
     /**
      * Remove and return the data for the key from the provided tree object.
      *
      * @return data object if available, or null.
      */
-    public Optional<DataType> remove( StepType tree, String key );
+    public Optional<DataType> remove( StepType tree, String key, int index );
 
     /**
      * Insert the data into the tree, overwriting any data that is there.
      *
      * @return returns the data object if successful or null if it could not
      */
-    public Optional<DataType> overwriteSet( StepType tree, String key, DataType data );
+    public Optional<DataType> overwriteSet( StepType tree, String key, int index, DataType data );
+
+    /**
+     * Same as get( tree, key, index ), with the index parsed from the key.
+     *
+     * @deprecated use the overload that takes the index
+     */
+    @Deprecated
+    public default Optional<DataType> get( StepType tree, String key ) {
+        return get( tree, key, StringTools.parseNonNegativeInt( key ) );
+    }
+
+    /**
+     * Same as remove( tree, key, index ), with the index parsed from the key.
+     *
+     * @deprecated use the overload that takes the index
+     */
+    @Deprecated
+    public default Optional<DataType> remove( StepType tree, String key ) {
+        return remove( tree, key, StringTools.parseNonNegativeInt( key ) );
+    }
+
+    /**
+     * Same as overwriteSet( tree, key, index, data ), with the index parsed from the key.
+     *
+     * @deprecated use the overload that takes the index
+     */
+    @Deprecated
+    public default Optional<DataType> overwriteSet( StepType tree, String key, DataType data ) {
+        return overwriteSet( tree, key, StringTools.parseNonNegativeInt( key ), data );
+    }
 
     /**
      * @return the child Traversal or null if this Traversal has no child
@@ -62,6 +105,15 @@ public interface TraversalStep<StepType, DataType> {
      */
     public StepType newContainer();
 
+    /**
+     * Size the containers made by newContainer for this many entries, or UNKNOWN_SIZE for the default size.
+     *
+     * Meant to be called while the spec is built, before the Traversal is used.  It is only a hint, so
+     *  by default it is ignored.
+     */
+    public default void setExpectedSize( int expectedSize ) {
+    }
+
     /**
      * Return the Class of the Generic T, so that it can be used in an
      *  "instanceof" style check.
@@ -73,14 +125,27 @@ public interface TraversalStep<StepType, DataType> {
     /**
      * The meat of the Traversal.
      *
-     * Pull a key from the iterator, use it to make the traversal, and then
-     *  call traverse on your child Traversal.
+     * Take the key at depth, use it to make the traversal, and then
+     *  call traverse on your child Traversal with depth + 1.
      *
      * @param tree tree of data to walk
      * @param op the Operation to perform is this is the last node of the Traversal
      * @param keys keys to use
+     * @param depth index of this step in the Traversal, and so of its key in keys
      * @param data the data to place if the operation is SET
      * @return if SET, null for fail or the "data" object for ok.  if GET, PANTS
      */
-    public Optional<DataType> traverse( StepType tree, Operation op, Iterator<String> keys, DataType data );
+    public Optional<DataType> traverse( StepType tree, Operation op, TraversalKeys keys, int depth, DataType data );
+
+    /**
+     * Same as traverse( tree, op, keys, 0, data ), with the remaining keys of the iterator.
+     *
+     * @deprecated use the overload that takes TraversalKeys
+     */
+    @Deprecated
+    public default Optional<DataType> traverse( StepType tree, Operation op, Iterator<String> keys, DataType data ) {
+        List<String> remainingKeys = new ArrayList<>();
+        keys.forEachRemaining( remainingKeys::add );
+        return traverse( tree, op, TraversalKeys.of( remainingKeys ), 0, data );
+    }
 }
@@ -101,4 +101,40 @@ public class StringTools {
     public static boolean isEmpty(CharSequence sourceSequence) {
         return sourceSequence == null || sourceSequence.length() == 0;
     }
+
+    /**
+     * Parse a sequence the way Integer.parseInt does, but without throwing.
+     *
+     * @param sourceSequence to parse
+     * @return the int value if sourceSequence is a non-negative base 10 integer, else -1
+     */
+    public static int parseNonNegativeInt(CharSequence sourceSequence) {
+        if (isEmpty(sourceSequence)) {
+            return -1;
+        }
+
+        int length = sourceSequence.length();
+        int index = 0;
+        boolean negative = false;
+        char first = sourceSequence.charAt(0);
+        if (first == '+' || first == '-') {
+            if (length == 1) {
+                return -1;
+            }
+            negative = first == '-';
+            index = 1;
+        }
+
+        int result = 0;
+        for (; index < length; index++) {
+            int digit = Character.digit(sourceSequence.charAt(index), 10);
+            if (digit < 0 || result > (Integer.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+
+        // "-0" is still zero
+        return negative && result != 0 ? -1 : result;
+    }
 }
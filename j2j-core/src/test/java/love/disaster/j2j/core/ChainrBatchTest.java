@@ -0,0 +1,176 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core;
+
+import love.disaster.j2j.core.chainr.TransformResult;
+import love.disaster.j2j.core.exception.TransformException;
+import love.disaster.j2j.utils.JsonUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ChainrBatchTest {
+
+    private static final int DOCUMENT_COUNT = 500;
+
+    // shifts "id" to "out.id", and blows up on documents that have a "boom" key
+    private static final String CHAINR_SPEC = "[ " +
+            "{ \"operation\": \"shift\", \"spec\": { \"id\": \"out.id\", \"boom\": \"out.boom\" } }, " +
+            "{ \"operation\": \"" + BoomTransform.class.getName() + "\" } ]";
+
+    public static class BoomTransform implements Transform {
+        @Override
+        public Object transform( Object input ) {
+            Map<?, ?> out = (Map<?, ?>) ( (Map<?, ?>) input ).get( "out" );
+            if ( out.containsKey( "boom" ) ) {
+                throw new TransformException( "boom " + out.get( "id" ) );
+            }
+            return input;
+        }
+    }
+
+    // throws an Error, rather than an Exception, on documents that have a "boom" key
+    private static final String ERROR_CHAINR_SPEC = "[ " +
+            "{ \"operation\": \"shift\", \"spec\": { \"id\": \"out.id\", \"boom\": \"out.boom\" } }, " +
+            "{ \"operation\": \"" + ErrorTransform.class.getName() + "\" } ]";
+
+    public static class ErrorTransform implements Transform {
+        @Override
+        public Object transform( Object input ) {
+            Map<?, ?> out = (Map<?, ?>) ( (Map<?, ?>) input ).get( "out" );
+            if ( out.containsKey( "boom" ) ) {
+                throw new StackOverflowError( "boom " + out.get( "id" ) );
+            }
+            return input;
+        }
+    }
+
+    private static List<Object> newDocuments() {
+        List<Object> documents = new ArrayList<>( DOCUMENT_COUNT );
+        for ( int id = 0; id < DOCUMENT_COUNT; id++ ) {
+            documents.add( JsonUtils.jsonToMap( id % 100 == 7 ?
+                    "{ \"id\": " + id + ", \"boom\": true }" :
+                    "{ \"id\": " + id + " }" ) );
+        }
+        return documents;
+    }
+
+    private static void assertResult( TransformResult result ) {
+        int id = (int) result.getIndex();
+        if ( id % 100 == 7 ) {
+            Assert.assertFalse( result.isSuccess() );
+            Assert.assertTrue( result.getFailure() instanceof TransformException );
+            Assert.assertEquals( result.getFailure().getMessage(), "boom " + id );
+        }
+        else {
+            Assert.assertTrue( result.isSuccess(), String.valueOf( result.getFailure() ) );
+            Map<?, ?> out = (Map<?, ?>) ( (Map<?, ?>) result.getOutput() ).get( "out" );
+            Assert.assertEquals( out.get( "id" ), id );
+        }
+    }
+
+    @Test
+    public void testTransformAllKeepsOrderAndReportsFailures() {
+        Chainr chainr = Chainr.fromSpec( JsonUtils.jsonToObject( CHAINR_SPEC ) );
+
+        List<TransformResult> results = chainr.transformAll( newDocuments() );
+
+        Assert.assertEquals( results.size(), DOCUMENT_COUNT );
+        for ( int index = 0; index < DOCUMENT_COUNT; index++ ) {
+            Assert.assertEquals( results.get( index ).getIndex(), index );
+            assertResult( results.get( index ) );
+        }
+    }
+
+    @Test
+    public void testErrorsFailOnlyTheirDocument() {
+        Chainr chainr = Chainr.fromSpec( JsonUtils.jsonToObject( ERROR_CHAINR_SPEC ) );
+
+        List<TransformResult> all = chainr.transformAll( newDocuments() );
+        List<TransformResult> stream = chainr.transformStream( newDocuments().stream() ).collect( Collectors.toList() );
+
+        for ( List<TransformResult> results : Arrays.asList( all, stream ) ) {
+            Assert.assertEquals( results.size(), DOCUMENT_COUNT );
+            for ( int index = 0; index < DOCUMENT_COUNT; index++ ) {
+                TransformResult result = results.get( index );
+                Assert.assertEquals( result.getIndex(), index );
+                Assert.assertEquals( result.isSuccess(), index % 100 != 7 );
+                if ( !result.isSuccess() ) {
+                    Assert.assertTrue( result.getFailure() instanceof StackOverflowError );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTransformStreamOrdered() {
+        Chainr chainr = Chainr.fromSpec( JsonUtils.jsonToObject( CHAINR_SPEC ) );
+
+        List<TransformResult> results = chainr.transformStream( newDocuments().stream() ).collect( Collectors.toList() );
+
+        Assert.assertEquals( results.size(), DOCUMENT_COUNT );
+        for ( int index = 0; index < DOCUMENT_COUNT; index++ ) {
+            Assert.assertEquals( results.get( index ).getIndex(), index );
+            assertResult( results.get( index ) );
+        }
+    }
+
+    @Test
+    public void testTransformIteratorUnorderedOnCallerExecutor() {
+        Chainr chainr = Chainr.fromSpec( JsonUtils.jsonToObject( CHAINR_SPEC ) );
+        ExecutorService executor = Executors.newFixedThreadPool( 3 );
+        try {
+            Iterator<TransformResult> results = chainr.transformIterator( newDocuments().iterator(), null, executor, false );
+
+            Set<Long> seen = new HashSet<>();
+            while ( results.hasNext() ) {
+                TransformResult result = results.next();
+                Assert.assertTrue( seen.add( result.getIndex() ) );
+                assertResult( result );
+            }
+            Assert.assertEquals( seen.size(), DOCUMENT_COUNT );
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBatchMatchesSingleTransform() throws IOException {
+        Map<String, Object> testUnit = JsonUtils.classpathToMap( "/json/chainr/integration/firstSample.json" );
+        Chainr chainr = Chainr.fromSpec( testUnit.get( "spec" ) );
+
+        List<Object> inputs = IntStream.range( 0, 20 )
+                .mapToObj( i -> JsonUtils.classpathToMap( "/json/chainr/integration/firstSample.json" ).get( "input" ) )
+                .collect( Collectors.toList() );
+
+        for ( TransformResult result : chainr.transformAll( inputs ) ) {
+            JoltTestUtil.runDiffy( "batch transform failed", testUnit.get( "expected" ), result.getOutput() );
+        }
+    }
+}
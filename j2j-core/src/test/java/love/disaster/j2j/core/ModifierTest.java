@@ -18,9 +18,14 @@ package love.disaster.j2j.core;
 
 import com.google.common.collect.Lists;
 import love.disaster.j2j.core.common.SpecStringParser;
+import love.disaster.j2j.core.common.tree.MatchedElement;
+import love.disaster.j2j.core.common.tree.WalkedPath;
 import love.disaster.j2j.core.exception.SpecException;
 import love.disaster.j2j.core.modifier.function.Function;
+import love.disaster.j2j.core.modifier.function.ListIndexes;
+import love.disaster.j2j.core.modifier.function.StockFunctions;
 import love.disaster.j2j.utils.JsonUtils;
+import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -169,6 +174,8 @@ public class ModifierTest {
         testCases.add( new Object[]{"/json/modifier/functions/mathTests.json", TemplatrTestCase.OVERWRITR} );
         testCases.add( new Object[]{"/json/modifier/functions/arrayTests.json", TemplatrTestCase.OVERWRITR} );
         testCases.add( new Object[]{"/json/modifier/functions/sizeTests.json", TemplatrTestCase.OVERWRITR} );
+        testCases.add( new Object[]{"/json/modifier/functions/lookupTests.json", TemplatrTestCase.OVERWRITR} );
+        testCases.add( new Object[]{"/json/modifier/functions/aggregateTests.json", TemplatrTestCase.OVERWRITR} );
         testCases.add( new Object[]{"/json/modifier/functions/labelsLookupTest.json", TemplatrTestCase.DEFAULTR} );
         testCases.add( new Object[]{"/json/modifier/functions/valueTests.json", TemplatrTestCase.OVERWRITR }  );
         testCases.add( new Object[]{"/json/modifier/functions/enhancedFunctionsTest.json", TemplatrTestCase.OVERWRITR }  );
@@ -248,6 +255,270 @@ public class ModifierTest {
         JoltTestUtil.runArrayOrderObliviousDiffy( "failed modifierFirstElementArray", expected, actual );
     }
 
+    @Test
+    public void testStockFunctionsAreCreatedByName() {
+        StockFunctions stockFunctions = new StockFunctions();
+        for ( String name : stockFunctions.keySet() ) {
+            Function function = stockFunctions.get( name );
+            Assert.assertNotNull( function, "no stock function created for " + name );
+            Assert.assertSame( stockFunctions.get( name ), function, "stock function " + name + " created twice" );
+        }
+        Assert.assertNull( stockFunctions.get( "notAStockFunction" ) );
+        Assert.assertFalse( stockFunctions.containsKey( "notAStockFunction" ) );
+
+        Function custom = new MinLabelComputation();
+        stockFunctions.put( "abs", custom );
+        Assert.assertSame( stockFunctions.get( "abs" ), custom );
+    }
+
+    @Test
+    public void testPureFunctionsOfLiteralsAreFolded() {
+        CountingFunction pure = new PureCountingFunction();
+        // a subclass of the base classes is not pure unless it says so
+        CountingFunction impure = new CountingFunction();
+        StockFunctions stockFunctions = new StockFunctions();
+        Map<String, Function> functions = new HashMap<>();
+        for ( String name : Arrays.asList( "concat", "toInteger", "toList", "firstElement" ) ) {
+            functions.put( name, stockFunctions.get( name ) );
+        }
+        functions.put( "pure", pure );
+        functions.put( "impure", impure );
+
+        Map<String, Object> spec = new HashMap<>();
+        Map<String, Object> itemSpec = new LinkedHashMap<>();
+        itemSpec.put( "pure", "=pure('a', 1)" );
+        itemSpec.put( "impure", "=impure('a', 1)" );
+        itemSpec.put( "concat", "=concat('prefix-', 'v2')" );
+        itemSpec.put( "number", "=toInteger('42')" );
+        itemSpec.put( "list", "=toList('a', 'b')" );
+        itemSpec.put( "missing", "=firstElement('a')" );
+        spec.put( "items", Collections.singletonMap( "*", itemSpec ) );
+        Modifier modifier = new Modifier.Overwritr( spec, functions );
+        Assert.assertEquals( pure.calls, 1 );
+        Assert.assertEquals( impure.calls, 0 );
+
+        Map<String, Object> input = new HashMap<>();
+        input.put( "items", Arrays.asList( new HashMap<>(), new HashMap<>(), new HashMap<>() ) );
+        Map<String, Object> output = (Map<String, Object>) modifier.transform( input, null );
+        Assert.assertEquals( pure.calls, 1 );
+        Assert.assertEquals( impure.calls, 3 );
+
+        List<Map<String, Object>> items = (List<Map<String, Object>>) output.get( "items" );
+        Assert.assertEquals( items.get( 0 ).get( "pure" ), "a1" );
+        Assert.assertEquals( items.get( 0 ).get( "concat" ), "prefix-v2" );
+        Assert.assertEquals( items.get( 0 ).get( "number" ), 42 );
+        Assert.assertEquals( items.get( 0 ).get( "list" ), Arrays.asList( "a", "b" ) );
+        Assert.assertFalse( items.get( 0 ).containsKey( "missing" ) );
+        // values that could be modified downstream are not shared between matches
+        Assert.assertNotSame( items.get( 0 ).get( "list" ), items.get( 1 ).get( "list" ) );
+    }
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void testDefaultZoneDependentFunctionsAreNotFolded() {
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault( TimeZone.getTimeZone( "UTC" ) );
+        try {
+            Map<String, Object> spec = new HashMap<>();
+            spec.put( "literal", "=formatDate('yyyy-MM-dd HH:mm', 0)" );
+            spec.put( "reference", "=formatDate('yyyy-MM-dd HH:mm', @(1,ts))" );
+            Modifier modifier = new Modifier.Overwritr( spec );
+
+            TimeZone.setDefault( TimeZone.getTimeZone( "Asia/Tokyo" ) );
+            Map<String, Object> input = new HashMap<>();
+            input.put( "ts", 0 );
+            Map<String, Object> output = (Map<String, Object>) modifier.transform( input, null );
+            Assert.assertEquals( output.get( "literal" ), "1970-01-01 09:00" );
+            Assert.assertEquals( output.get( "reference" ), "1970-01-01 09:00" );
+        }
+        finally {
+            TimeZone.setDefault( defaultTimeZone );
+        }
+        StockFunctions stockFunctions = new StockFunctions();
+        for ( String name : Arrays.asList( "formatDate", "parseDate", "formatDateWithTZ", "toLower", "toUpper" ) ) {
+            Assert.assertFalse( stockFunctions.get( name ).isPure(), name );
+        }
+    }
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void testListSearchesMatchScans() {
+        List<Object> refs = new ArrayList<>();
+        for ( int i = 0; i < 20; i++ ) {
+            refs.add( "r" + i );
+        }
+        refs.add( "r3" );
+        Map<String, Object> input = new HashMap<>();
+        input.put( "refs", refs );
+        input.put( "items", new ArrayList<>( Arrays.asList(
+                new HashMap<>( Collections.singletonMap( "id", "r3" ) ),
+                new HashMap<>( Collections.singletonMap( "id", "x" ) ),
+                new HashMap<>( Collections.singletonMap( "id", "r19" ) ) ) ) );
+
+        Map<String, Object> itemSpec = new HashMap<>();
+        itemSpec.put( "found", "=listContains(@(3,refs), @(1,id))" );
+        itemSpec.put( "at", "=listIndexOf(@(3,refs), @(1,id))" );
+        Map<String, Object> spec = Collections.singletonMap( "items", Collections.singletonMap( "*", itemSpec ) );
+
+        Map<String, Object> output = (Map<String, Object>) new Modifier.Overwritr( spec ).transform( input, null );
+        List<Map<String, Object>> items = (List<Map<String, Object>>) output.get( "items" );
+        Assert.assertEquals( items.get( 0 ).get( "found" ), true );
+        Assert.assertEquals( items.get( 0 ).get( "at" ), 3 );
+        Assert.assertEquals( items.get( 1 ).get( "found" ), false );
+        Assert.assertFalse( items.get( 1 ).containsKey( "at" ) );
+        Assert.assertEquals( items.get( 2 ).get( "at" ), 19 );
+
+        // within a transform, an index is dropped when Modifier writes into its list
+        Function indexOf = new StockFunctions().get( "listIndexOf" );
+        Assert.assertTrue( ListIndexes.open() );
+        try {
+            Assert.assertFalse( ListIndexes.open() );
+            Assert.assertEquals( indexOf.apply( refs, "r5" ).get(), 5 );
+            refs.set( 5, "changed" );
+            ListIndexes.modified( new WalkedPath( refs, new MatchedElement( "refs" ) ) );
+            Assert.assertFalse( indexOf.apply( refs, "r5" ).isPresent() );
+            Assert.assertEquals( indexOf.apply( refs, "changed" ).get(), 5 );
+        }
+        finally {
+            ListIndexes.close();
+        }
+    }
+
+    @Test
+    public void testListSearchesSeeWritesThroughAliases() {
+        List<Object> refs = new ArrayList<>();
+        for ( int i = 0; i < 20; i++ ) {
+            refs.add( new HashMap<>( Collections.singletonMap( "id", "r" + i ) ) );
+        }
+        Function indexOf = new StockFunctions().get( "listIndexOf" );
+        Function lookup = new StockFunctions().get( "lookup" );
+        Map<String, Object> r5 = new HashMap<>( Collections.singletonMap( "id", "r5" ) );
+
+        Assert.assertTrue( ListIndexes.open() );
+        try {
+            Assert.assertEquals( indexOf.apply( refs, r5 ).get(), 5 );
+            Assert.assertEquals( lookup.apply( refs, "id", "r5" ).get(), r5 );
+
+            // written to through another reference to the element, so the walked path does not contain the list
+            ( (Map<String, Object>) refs.get( 5 ) ).put( "id", "changed" );
+            ListIndexes.modified( new WalkedPath( refs.get( 5 ), new MatchedElement( "alias" ) ) );
+            Assert.assertFalse( indexOf.apply( refs, r5 ).isPresent() );
+            Assert.assertFalse( lookup.apply( refs, "id", "r5" ).isPresent() );
+            Assert.assertEquals( lookup.apply( refs, "id", "changed" ).get(), refs.get( 5 ) );
+            // lookup hands out copies, so writes into its result can not alias the list
+            Assert.assertNotSame( lookup.apply( refs, "id", "changed" ).get(), refs.get( 5 ) );
+        }
+        finally {
+            ListIndexes.close();
+        }
+    }
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void testListSearchesSeeSpecWritesThroughAliases() {
+        List<Object> refs = new ArrayList<>();
+        for ( int i = 0; i < 20; i++ ) {
+            refs.add( new HashMap<>( Collections.singletonMap( "id", "r" + i ) ) );
+        }
+        // every item's ref is the same object as refs[5], so writing into it also writes into refs
+        List<Object> items = new ArrayList<>();
+        for ( int i = 0; i < 3; i++ ) {
+            items.add( new HashMap<>( Collections.singletonMap( "ref", refs.get( 5 ) ) ) );
+        }
+        Map<String, Object> input = new HashMap<>();
+        input.put( "refs", refs );
+        input.put( "items", items );
+
+        Map<String, Object> itemSpec = new HashMap<>();
+        itemSpec.put( "found", "=listContains(@(3,refs), @(1,ref))" );
+        itemSpec.put( "ref", Collections.singletonMap( "id", "x" ) );
+        Map<String, Object> spec = Collections.singletonMap( "items", Collections.singletonMap( "*", itemSpec ) );
+
+        Map<String, Object> output = (Map<String, Object>) new Modifier.Overwritr( spec ).transform( input, null );
+        for ( Object item : (List<Object>) output.get( "items" ) ) {
+            Assert.assertEquals( ( (Map<String, Object>) item ).get( "found" ), true );
+        }
+    }
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void testGroupByCopiesTheGroupedElements() {
+        Map<String, Object> line = new HashMap<>();
+        line.put( "c", "a" );
+        line.put( "v", new ArrayList<>( Arrays.asList( 1, 2 ) ) );
+        List<Object> lines = new ArrayList<>( Collections.singletonList( line ) );
+
+        Map<String, Object> groups = (Map<String, Object>) new StockFunctions().get( "groupBy" ).apply( lines, "c" ).get();
+        Map<String, Object> grouped = ( (List<Map<String, Object>>) groups.get( "a" ) ).get( 0 );
+        Assert.assertEquals( grouped, line );
+
+        // a later write into a group, e.g. by the next transform, does not reach the source list
+        grouped.put( "c", "changed" );
+        ( (List<Object>) grouped.get( "v" ) ).add( 3 );
+        Assert.assertEquals( line.get( "c" ), "a" );
+        Assert.assertEquals( line.get( "v" ), Arrays.asList( 1, 2 ) );
+    }
+
+    @Test
+    public void testFixedArityCallsMatchVarargs() {
+        List<Object> list = Arrays.asList( 3, "a", null, 1.5 );
+        // a list nested in a single element list must only be unwrapped once, e.g. for "=join(@(1,x))"
+        List<Object> nested = Collections.singletonList( Arrays.asList( ",", "a", "b" ) );
+        Object[] values = { null, 2, -1.5, "7", "a,b", true, list, new ArrayList<>(), new Object[]{ 1, 2 }, nested };
+        // left out are the time dependent, the copying and the (logging) script functions
+        Set<String> skipped = new HashSet<>( Arrays.asList( "now", "deepClone", "javascript", "python", "beetl", "beetlAdvanced", "jsonata" ) );
+
+        StockFunctions stockFunctions = new StockFunctions();
+        for ( String name : stockFunctions.keySet() ) {
+            if ( skipped.contains( name ) ) {
+                continue;
+            }
+            Function function = stockFunctions.get( name );
+            assertSameResult( name, () -> function.apply0(), () -> function.apply() );
+            for ( Object arg1 : values ) {
+                assertSameResult( name + "(" + arg1 + ")", () -> function.apply1( arg1 ), () -> function.apply( arg1 ) );
+                for ( Object arg2 : values ) {
+                    assertSameResult( name + "(" + arg1 + "," + arg2 + ")",
+                            () -> function.apply2( arg1, arg2 ), () -> function.apply( arg1, arg2 ) );
+                }
+            }
+        }
+    }
+
+    private static void assertSameResult( String call,
+                                          java.util.function.Supplier<love.disaster.j2j.core.common.Optional<Object>> actual,
+                                          java.util.function.Supplier<love.disaster.j2j.core.common.Optional<Object>> expected ) {
+        Object[] results = new Object[2];
+        int i = 0;
+        for ( java.util.function.Supplier<love.disaster.j2j.core.common.Optional<Object>> supplier : Arrays.asList( actual, expected ) ) {
+            try {
+                love.disaster.j2j.core.common.Optional<Object> result = supplier.get();
+                results[i++] = result.isPresent() ? new Object[]{ result.get() } : "empty";
+            }
+            catch ( RuntimeException e ) {
+                results[i++] = e.getClass();
+            }
+        }
+        Assert.assertTrue( Arrays.deepEquals( new Object[]{ results[0] }, new Object[]{ results[1] } ), call );
+    }
+
+    private static class CountingFunction extends Function.ListFunction {
+        private int calls;
+
+        @Override
+        protected love.disaster.j2j.core.common.Optional<Object> applyList( final List<Object> argList ) {
+            calls++;
+            StringBuilder sb = new StringBuilder();
+            for ( Object arg : argList ) {
+                sb.append( arg );
+            }
+            return love.disaster.j2j.core.common.Optional.<Object>of( sb.toString() );
+        }
+    }
+
+    private static final class PureCountingFunction extends CountingFunction implements Function.PureFunction {
+    }
+
     @SuppressWarnings( "unused" )
     public static final class MinLabelComputation implements Function {
         @Override
@@ -15,12 +15,18 @@
  */
 package love.disaster.j2j.core;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import love.disaster.j2j.utils.JsonUtils;
+import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 public class ShiftrTest {
 
@@ -48,6 +54,9 @@ public class ShiftrTest {
             {"keyref"},
             {"lhsAmpMatch"},
             {"listKeys"},
+            {"literalListIndexes"},
+            {"literalNegativeIndex"},
+            {"literalNestedOutput"},
             {"mapToList"},
             {"mapToList2"},
             {"mergeParallelArrays1_and-transpose"},
@@ -110,4 +119,109 @@ public class ShiftrTest {
 
         JoltTestUtil.runDiffy( "failed case " + testPath, expected, actual );
     }
+
+    // the fixtures whose specs are all literal keys and key determined write paths, and so compile
+    private static final Set<String> COMPILED_TEST_CASES = new HashSet<>( Arrays.asList(
+            "arrayMismatch", "escapeAllTheThings", "escapeAllTheThings2", "explicitArrayKey", "literalListIndexes",
+            "literalNegativeIndex", "literalNestedOutput", "multiPlacement", "prefixDataToArray", "singlePlacement" ) );
+
+    /**
+     * Differential test of the compiled Shiftr against the interpreted one, for every fixture that compiles.
+     */
+    @Test(dataProvider = "getTestCaseUnits")
+    public void runTestUnitsCompiled(String testCaseName) throws IOException {
+
+        String testPath = "/json/shiftr/" + testCaseName;
+        Map<String, Object> testUnit = JsonUtils.classpathToMap( testPath + ".json" );
+
+        Object input = testUnit.get( "input" );
+        Object spec = testUnit.get( "spec" );
+        Object expected = testUnit.get( "expected" );
+
+        Shiftr compiled = new Shiftr( spec, true );
+        // a spec that stops compiling would otherwise silently drop out of this test
+        Assert.assertEquals( compiled.isCompiled(), COMPILED_TEST_CASES.contains( testCaseName ), testPath );
+        if ( ! compiled.isCompiled() ) {
+            return;
+        }
+        Object actual = compiled.transform( input );
+
+        JoltTestUtil.runDiffy( "failed compiled case " + testPath, expected, actual );
+        // same lists in the same order, not just the same data
+        Assert.assertEquals( JsonUtils.toJsonString( actual ), JsonUtils.toJsonString( new Shiftr( spec ).transform( input ) ), testPath );
+    }
+
+    @Test(dataProvider = "getTestCaseUnits")
+    public void runTestUnitsStreaming(String testCaseName) throws IOException {
+
+        String testPath = "/json/shiftr/" + testCaseName;
+        Map<String, Object> testUnit = JsonUtils.classpathToMap( testPath + ".json" );
+
+        Object spec = testUnit.get( "spec" );
+        Object expected = testUnit.get( "expected" );
+        String input = JsonUtils.toJsonString( testUnit.get( "input" ) );
+
+        Shiftr shiftr = new Shiftr( spec );
+        Object actual;
+        try ( JsonParser parser = new JsonFactory().createParser( input ) ) {
+            actual = shiftr.transform( parser );
+        }
+
+        JoltTestUtil.runDiffy( "failed streaming case " + testPath, expected, actual );
+    }
+
+    @Test
+    public void streamingFallsBackForTransposeSpecs() throws IOException {
+
+        Shiftr forward = new Shiftr( JsonUtils.javason( "{ 'rating' : { '*' : { 'value' : 'ratings.&1' } } }" ) );
+        Shiftr transpose = new Shiftr( JsonUtils.javason( "{ 'rating' : { '*' : { 'value' : 'ratings.@(3,id)' } } }" ) );
+        Assert.assertTrue( forward.isStreamable() );
+        Assert.assertFalse( transpose.isStreamable() );
+
+        String input = "{ \"id\" : \"x\", \"skipped\" : [ 1, { \"a\" : 2 } ], \"rating\" : { \"primary\" : { \"value\" : 3 } } }";
+        try ( JsonParser parser = new JsonFactory().createParser( input ) ) {
+            Assert.assertEquals( forward.transform( parser ), JsonUtils.javason( "{ 'ratings' : { 'primary' : 3 } }" ) );
+        }
+        try ( JsonParser parser = new JsonFactory().createParser( input ) ) {
+            Assert.assertEquals( transpose.transform( parser ), JsonUtils.javason( "{ 'ratings' : { 'x' : 3 } }" ) );
+        }
+    }
+
+    @Test
+    public void literalKeysThatAreNotIndexesSkipListElements() throws IOException {
+
+        Shiftr shiftr = new Shiftr( JsonUtils.javason( "{ 'list' : { '1' : 'one', 'foo' : 'foo', '-1' : 'negative', '7' : 'seven' } }" ) );
+
+        Object actual = shiftr.transform( JsonUtils.javason( "{ 'list' : [ 'a', 'b' ] }" ) );
+
+        Assert.assertEquals( actual, JsonUtils.javason( "{ 'one' : 'b' }" ) );
+    }
+
+    @Test
+    public void narrowInputIsAppliedInSpecOrder() throws IOException {
+
+        Shiftr shiftr = new Shiftr( JsonUtils.javason( "{ 'a' : 'out', 'b' : 'out', 'c' : 'out', 'd' : 'out', 'e' : 'out' }" ) );
+
+        // fewer input keys than literals, so the input keys are looked up in the spec, in their own order
+        Object actual = shiftr.transform( JsonUtils.javason( "{ 'c' : 3, 'x' : 0, 'a' : 1 }" ) );
+
+        Assert.assertEquals( actual, JsonUtils.javason( "{ 'out' : [ 1, 3 ] }" ) );
+    }
+
+    @Test
+    public void compilesLiteralSpecsOnly() throws IOException {
+
+        Shiftr literals = new Shiftr( JsonUtils.javason( "{ 'rating' : { 'primary|main' : { 'value' : 'ratings.&1', 'max' : 'ranges[&1]' } }, 'id' : [ 'id', 'ids[]' ] }" ), true );
+        Shiftr wildcard = new Shiftr( JsonUtils.javason( "{ 'rating' : { '*' : { 'value' : 'ratings.&1' } } }" ), true );
+        Shiftr hash = new Shiftr( JsonUtils.javason( "{ 'rating' : { 'primary' : { 'value' : 'ratings[#2]' } } }" ), true );
+        Assert.assertTrue( literals.isCompiled() );
+        Assert.assertFalse( wildcard.isCompiled() );
+        Assert.assertFalse( hash.isCompiled() );
+        Assert.assertFalse( new Shiftr( JsonUtils.javason( "{ 'id' : 'id' }" ) ).isCompiled() );
+
+        Object input = JsonUtils.javason( "{ 'id' : 7, 'rating' : { 'main' : { 'value' : 3, 'max' : 5 }, 'other' : { 'value' : 1 } } }" );
+
+        // "ranges[&1]" does not evaluate to an index for "main", so it is never written, compiled or not
+        Assert.assertEquals( literals.transform( input ), JsonUtils.javason( "{ 'id' : 7, 'ids' : [ 7 ], 'ratings' : { 'main' : 3 } }" ) );
+    }
 }
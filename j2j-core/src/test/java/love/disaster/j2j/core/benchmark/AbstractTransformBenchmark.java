@@ -0,0 +1,85 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Common state for the per transform benchmarks.
+ *
+ * Subclasses declare a "fixture" @Param naming test fixtures under /json, and build their
+ *  transform from it once per trial.  Each benchmark invocation transforms a fresh copy of
+ *  the (optionally scaled) input, as most of the transforms mutate their input in place.
+ *
+ * The cost of that copy is reported on its own by {@link #inputCopy()}, so that it can be
+ *  subtracted from the transform numbers.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( { Mode.Throughput, Mode.AverageTime } )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+public abstract class AbstractTransformBenchmark {
+
+    @Param( { "1", "10", "100" } )
+    public int scale;
+
+    protected Object input;
+
+    @Setup
+    public void setup() {
+        Map<String, Object> testUnit = BenchmarkFixtures.load( fixture() );
+        input = BenchmarkFixtures.scale( input( testUnit ), scale );
+        initialize( testUnit );
+    }
+
+    /**
+     * @return the fixture selected by the subclass's "fixture" @Param
+     */
+    protected abstract String fixture();
+
+    /**
+     * Build the transform under test from the fixture.
+     */
+    protected abstract void initialize( Map<String, Object> testUnit );
+
+    protected Object input( Map<String, Object> testUnit ) {
+        return testUnit.get( "input" );
+    }
+
+    protected Object freshInput() {
+        return BenchmarkFixtures.deepCopy( input );
+    }
+
+    @Benchmark
+    public Object inputCopy() {
+        return freshInput();
+    }
+}
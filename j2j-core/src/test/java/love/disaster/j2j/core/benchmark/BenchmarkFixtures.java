@@ -0,0 +1,130 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.benchmark;
+
+import love.disaster.j2j.utils.JsonUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the unit test fixtures under /json on the test classpath so that the benchmarks
+ *  run against exactly the same specs and inputs as the correctness tests.
+ *
+ * Fixtures are tiny, so a "scale" factor can be applied to the input to get a synthetic
+ *  copy that exercises the same spec against more data :
+ *   - if the input has lists, the outermost list on every path is repeated scale times
+ *   - otherwise every key of the top level map is repeated scale times (suffixed "-1", "-2", ...)
+ *  either way the synthetic input grows linearly with scale.
+ *
+ * Scale 1 returns the fixture input unchanged.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {}
+
+    /**
+     * @param fixture path of the fixture relative to /json, without the ".json", i.e. "shiftr/firstSample"
+     */
+    public static Map<String, Object> load( String fixture ) {
+        return JsonUtils.classpathToMap( "/json/" + fixture + ".json" );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    public static Object scale( Object input, int scale ) {
+        if ( scale <= 1 ) {
+            return deepCopy( input );
+        }
+        if ( hasList( input ) || ! ( input instanceof Map ) ) {
+            return scaleLists( input, scale );
+        }
+
+        Map<String, Object> original = (Map<String, Object>) input;
+        Map<String, Object> scaled = new LinkedHashMap<>( original.size() * scale * 2 );
+        for ( int copy = 0; copy < scale; copy++ ) {
+            for ( Map.Entry<String, Object> entry : original.entrySet() ) {
+                String key = copy == 0 ? entry.getKey() : entry.getKey() + "-" + copy;
+                scaled.put( key, deepCopy( entry.getValue() ) );
+            }
+        }
+        return scaled;
+    }
+
+    private static boolean hasList( Object input ) {
+        if ( input instanceof List ) {
+            return true;
+        }
+        if ( input instanceof Map ) {
+            for ( Object value : ( (Map<?, ?>) input ).values() ) {
+                if ( hasList( value ) ) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static Object scaleLists( Object input, int scale ) {
+        if ( input instanceof Map ) {
+            Map<String, Object> original = (Map<String, Object>) input;
+            Map<String, Object> copy = new LinkedHashMap<>( original.size() * 2 );
+            for ( Map.Entry<String, Object> entry : original.entrySet() ) {
+                copy.put( entry.getKey(), scaleLists( entry.getValue(), scale ) );
+            }
+            return copy;
+        }
+        if ( input instanceof List ) {
+            List<Object> original = (List<Object>) input;
+            List<Object> scaled = new ArrayList<>( original.size() * scale );
+            for ( int copy = 0; copy < scale; copy++ ) {
+                for ( Object element : original ) {
+                    scaled.add( deepCopy( element ) );
+                }
+            }
+            return scaled;
+        }
+        return input;
+    }
+
+    /**
+     * Cheap structural copy of a "stock" JSON tree.  Defaultr, Removr, CardinalityTransform and
+     *  the Modifiers all mutate their input, so each benchmark invocation needs a fresh copy.
+     *  JsonUtils.cloneJson and DeepCopy go through serialization, which would dominate the timings.
+     */
+    @SuppressWarnings( "unchecked" )
+    public static Object deepCopy( Object input ) {
+        if ( input instanceof Map ) {
+            Map<String, Object> original = (Map<String, Object>) input;
+            Map<String, Object> copy = new LinkedHashMap<>( original.size() * 2 );
+            for ( Map.Entry<String, Object> entry : original.entrySet() ) {
+                copy.put( entry.getKey(), deepCopy( entry.getValue() ) );
+            }
+            return copy;
+        }
+        if ( input instanceof List ) {
+            List<Object> original = (List<Object>) input;
+            List<Object> copy = new ArrayList<>( original.size() );
+            for ( Object element : original ) {
+                copy.add( deepCopy( element ) );
+            }
+            return copy;
+        }
+        return input;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the transform benchmarks with throughput and average time reporting, plus the
+ *  GC profiler so that allocation rate (gc.alloc.rate.norm) shows up next to the timings.
+ *
+ * Any arguments are handed to JMH as regular command line options, so the usual
+ *  filters work, i.e.
+ *
+ *   BenchmarkRunner ShiftrBenchmark -p scale=100 -rf json -rff shiftr.json
+ *
+ * Without arguments every benchmark in this package is run.
+ */
+public class BenchmarkRunner {
+
+    public static void main( String[] args ) throws Exception {
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent( new CommandLineOptions( args ) )
+                .addProfiler( GCProfiler.class );
+
+        if ( args.length == 0 ) {
+            options.include( BenchmarkRunner.class.getPackage().getName() + ".*" );
+        }
+
+        new Runner( options.build() ).run();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.benchmark;
+
+import love.disaster.j2j.core.Chainr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.Map;
+
+/**
+ * Full Chainr pipelines from the chainr integration test fixtures.
+ */
+public class ChainrBenchmark extends AbstractTransformBenchmark {
+
+    @Param( { "chainr/integration/firstSample", "chainr/integration/andrewkcarter1", "chainr/integration/ismith",
+            "chainr/integration/ritwickgupta", "chainr/integration/wolfermann1" } )
+    public String fixture;
+
+    private Chainr chainr;
+
+    @Override
+    protected String fixture() {
+        return fixture;
+    }
+
+    @Override
+    protected void initialize( Map<String, Object> testUnit ) {
+        chainr = Chainr.fromSpec( testUnit.get( "spec" ) );
+    }
+
+    @Benchmark
+    public Object transform() {
+        return chainr.transform( freshInput() );
+    }
+}
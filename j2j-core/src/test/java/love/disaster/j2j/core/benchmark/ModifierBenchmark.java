@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.benchmark;
+
+import love.disaster.j2j.core.Modifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.Map;
+
+/**
+ * The three Modifier flavors against the modifier unit test fixtures, which between them
+ *  cover literal values, stock functions, "@" lookups and context "^" lookups.
+ */
+public class ModifierBenchmark extends AbstractTransformBenchmark {
+
+    public enum Flavor {
+        OVERWRITR {
+            @Override
+            Modifier create( Object spec ) {
+                return new Modifier.Overwritr( spec );
+            }
+        },
+        DEFAULTR {
+            @Override
+            Modifier create( Object spec ) {
+                return new Modifier.Defaultr( spec );
+            }
+        },
+        DEFINR {
+            @Override
+            Modifier create( Object spec ) {
+                return new Modifier.Definr( spec );
+            }
+        };
+
+        abstract Modifier create( Object spec );
+    }
+
+    @Param( { "modifier/mapLiteral", "modifier/arrayLiteral", "modifier/simpleArray", "modifier/arrayObject",
+            "modifier/simpleLookup", "modifier/complexLookup", "modifier/complexArrayLookup", "modifier/testListOfFunction" } )
+    public String fixture;
+
+    @Param
+    public Flavor flavor;
+
+    private Modifier modifier;
+    private Map<String, Object> context;
+
+    @Override
+    protected String fixture() {
+        return fixture;
+    }
+
+    @Override
+    @SuppressWarnings( "unchecked" )
+    protected void initialize( Map<String, Object> testUnit ) {
+        modifier = flavor.create( testUnit.get( "spec" ) );
+        context = (Map<String, Object>) testUnit.get( "context" );
+    }
+
+    @Benchmark
+    public Object transform() {
+        return modifier.transform( freshInput(), context );
+    }
+}
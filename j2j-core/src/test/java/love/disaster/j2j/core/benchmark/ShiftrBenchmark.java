@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import love.disaster.j2j.core.Shiftr;
+import love.disaster.j2j.utils.JsonUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Shiftr against the shiftr unit test fixtures, picked to cover literal, wildcard, "|", array and transpose specs.
+ *
+ * parseAndTransform and streamingTransform both start from the serialized input, to compare reading
+ *  the input into a tree first with streaming it through transform( JsonParser ).
+ */
+public class ShiftrBenchmark extends AbstractTransformBenchmark {
+
+    @Param( { "shiftr/firstSample", "shiftr/arrayExample", "shiftr/bucketToPrefixSoup", "shiftr/prefixSoupToBuckets",
+            "shiftr/wildcards", "shiftr/wildcardsWithOr", "shiftr/transposeComplex1", "shiftr/queryMappingXform", "shiftr/json-ld-escaping",
+            "shiftr/multiPlacement", "shiftr/explicitArrayKey" } )
+    public String fixture;
+
+    private Shiftr shiftr;
+    private Shiftr compiledShiftr;
+    private byte[] inputJson;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Override
+    protected String fixture() {
+        return fixture;
+    }
+
+    @Override
+    protected void initialize( Map<String, Object> testUnit ) {
+        shiftr = new Shiftr( testUnit.get( "spec" ) );
+        compiledShiftr = new Shiftr( testUnit.get( "spec" ), true );
+        inputJson = JsonUtils.toJsonString( input ).getBytes( StandardCharsets.UTF_8 );
+    }
+
+    @Benchmark
+    public Object transform() {
+        return shiftr.transform( freshInput() );
+    }
+
+    /**
+     * Same as transform for the fixtures whose spec does not compile.
+     */
+    @Benchmark
+    public Object compiledTransform() {
+        return compiledShiftr.transform( freshInput() );
+    }
+
+    @Benchmark
+    public Object parseAndTransform() {
+        return shiftr.transform( JsonUtils.jsonToObject( new ByteArrayInputStream( inputJson ) ) );
+    }
+
+    @Benchmark
+    public Object streamingTransform() throws IOException {
+        try ( JsonParser parser = jsonFactory.createParser( inputJson ) ) {
+            return shiftr.transform( parser );
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.benchmark;
+
+import love.disaster.j2j.core.Sortr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.Map;
+
+/**
+ * Sortr has no spec, so it is run against the sortr fixture document as well as
+ *  the inputs of a few of the larger fixtures of the other transforms.
+ */
+public class SortrBenchmark extends AbstractTransformBenchmark {
+
+    @Param( { "sortr/simple/input", "shiftr/queryMappingXform", "removr/removrWithWildcardSupport", "chainr/integration/ritwickgupta" } )
+    public String fixture;
+
+    private Sortr sortr;
+
+    @Override
+    protected String fixture() {
+        return fixture;
+    }
+
+    @Override
+    protected Object input( Map<String, Object> testUnit ) {
+        // the sortr fixture is a bare document, rather than an input / spec / expected test unit
+        return testUnit.containsKey( "input" ) ? testUnit.get( "input" ) : testUnit;
+    }
+
+    @Override
+    protected void initialize( Map<String, Object> testUnit ) {
+        sortr = new Sortr();
+    }
+
+    @Benchmark
+    public Object transform() {
+        return sortr.transform( freshInput() );
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.benchmark;
+
+import love.disaster.j2j.core.common.PathElementBuilder;
+import love.disaster.j2j.core.common.pathelement.StarPathElement;
+import love.disaster.j2j.core.common.tree.MatchedElement;
+import love.disaster.j2j.core.common.tree.WalkedPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matching of the "*" keys, by the StarPathElements, against the "(.+?)" regex they used to be compiled to.
+ *
+ * Each invocation matches 1000 keys, half of which match, and reads every captured subKey
+ *  the way a "&(0,x)" reference would.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+public class StarMatchBenchmark {
+
+    private static final int KEY_COUNT = 1000;
+
+    @Param( { "tag-*", "rating-*-*", "terms--config--*--*--cdv", "a-*-*-*" } )
+    public String glob;
+
+    private String[] keys;
+    private StarPathElement starPathElement;
+    private Pattern pattern;
+    private WalkedPath walkedPath;
+
+    @Setup
+    public void setup() {
+        starPathElement = (StarPathElement) PathElementBuilder.parseSingleKeyLHS( glob );
+        pattern = Pattern.compile( "^" + Pattern.quote( glob ).replace( "*", "\\E(.+?)\\Q" ) + "$" );
+        walkedPath = new WalkedPath( null, new MatchedElement( "root" ) );
+
+        List<String> generated = new ArrayList<>( KEY_COUNT );
+        for ( int index = 0; generated.size() < KEY_COUNT; index++ ) {
+            // fill each star with a varying number of chars, and every other key gets a wrong last char
+            StringBuilder key = new StringBuilder();
+            for ( char c : glob.toCharArray() ) {
+                key.append( c == '*' ? "value" + index : String.valueOf( c ) );
+            }
+            if ( index % 2 == 1 ) {
+                key.append( '!' );
+            }
+            generated.add( key.toString() );
+        }
+        keys = generated.toArray( new String[0] );
+    }
+
+    @Benchmark
+    public void regex( Blackhole blackhole ) {
+        for ( String key : keys ) {
+            Matcher matcher = pattern.matcher( key );
+            if ( matcher.find() ) {
+                for ( int group = 1; group <= matcher.groupCount(); group++ ) {
+                    blackhole.consume( matcher.group( group ) );
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void glob( Blackhole blackhole ) {
+        for ( String key : keys ) {
+            MatchedElement matchedElement = starPathElement.match( key, walkedPath );
+            if ( matchedElement != null ) {
+                for ( int subKey = 1; subKey < matchedElement.getSubKeyCount(); subKey++ ) {
+                    blackhole.consume( matchedElement.getSubKeyRef( subKey ) );
+                }
+            }
+        }
+    }
+
+    /**
+     * Same as glob, for specs whose subKeys are never referenced.
+     */
+    @Benchmark
+    public void globMatchOnly( Blackhole blackhole ) {
+        for ( String key : keys ) {
+            blackhole.consume( starPathElement.match( key, walkedPath ) );
+        }
+    }
+}
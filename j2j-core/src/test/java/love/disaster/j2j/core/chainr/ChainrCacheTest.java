@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.chainr;
+
+import love.disaster.j2j.core.Chainr;
+import love.disaster.j2j.core.JoltTestUtil;
+import love.disaster.j2j.core.exception.SpecException;
+import love.disaster.j2j.utils.JsonUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+public class ChainrCacheTest {
+
+    @Test
+    public void testSameSpecIsBuiltOnce() throws IOException {
+        Map<String, Object> testUnit = JsonUtils.classpathToMap( "/json/chainr/integration/firstSample.json" );
+        ChainrCache cache = new ChainrCache();
+
+        Chainr first = cache.get( testUnit.get( "spec" ) );
+        Chainr second = cache.get( JsonUtils.classpathToMap( "/json/chainr/integration/firstSample.json" ).get( "spec" ) );
+
+        Assert.assertSame( first, second );
+        Assert.assertEquals( cache.stats().getMissCount(), 1 );
+        Assert.assertEquals( cache.stats().getHitCount(), 1 );
+
+        Object actual = second.transform( testUnit.get( "input" ) );
+        JoltTestUtil.runDiffy( "cached Chainr failed", testUnit.get( "expected" ), actual );
+    }
+
+    @Test
+    public void testKeyOrderAndWhitespaceDoNotMatter() {
+        Object spec1 = JsonUtils.jsonToObject( "[ { \"operation\": \"shift\", \"spec\": { \"a\": \"b\", \"c\": \"d\" } } ]" );
+        Object spec2 = JsonUtils.jsonToObject( "[{\"spec\":{\"c\":\"d\",\"a\":\"b\"},\"operation\":\"shift\"}]" );
+        Object spec3 = JsonUtils.jsonToObject( "[{\"spec\":{\"c\":\"d\",\"a\":\"x\"},\"operation\":\"shift\"}]" );
+
+        ChainrCache cache = new ChainrCache();
+        Assert.assertSame( cache.get( spec1 ), cache.get( spec2 ) );
+        Assert.assertNotSame( cache.get( spec1 ), cache.get( spec3 ) );
+        Assert.assertEquals( cache.size(), 2 );
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        Object specA = JsonUtils.jsonToObject( "[{\"operation\":\"shift\",\"spec\":{\"a\":\"a\"}}]" );
+        Object specB = JsonUtils.jsonToObject( "[{\"operation\":\"shift\",\"spec\":{\"b\":\"b\"}}]" );
+        Object specC = JsonUtils.jsonToObject( "[{\"operation\":\"shift\",\"spec\":{\"c\":\"c\"}}]" );
+
+        ChainrCache cache = new ChainrCache( 2 );
+        Chainr a = cache.get( specA );
+        cache.get( specB );
+        cache.get( specA );  // touch A, so that B is the eldest
+        cache.get( specC );
+
+        Assert.assertEquals( cache.size(), 2 );
+        Assert.assertEquals( cache.stats().getEvictionCount(), 1 );
+        Assert.assertSame( cache.get( specA ), a );
+        Assert.assertEquals( cache.stats().getHitCount(), 2 );
+        Assert.assertEquals( cache.stats().getMissCount(), 3 );
+    }
+
+    @Test( expectedExceptions = SpecException.class )
+    public void testBadSpecIsNotCached() {
+        ChainrCache cache = new ChainrCache();
+        try {
+            cache.get( JsonUtils.jsonToObject( "[{\"operation\":\"shift\"}]" ) );
+        }
+        finally {
+            Assert.assertEquals( cache.size(), 0 );
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.chainr;
+
+import love.disaster.j2j.core.Chainr;
+import love.disaster.j2j.core.Removr;
+import love.disaster.j2j.core.Shiftr;
+import love.disaster.j2j.core.chainr.transforms.ExplodingTestTransform;
+import love.disaster.j2j.core.exception.TransformException;
+import love.disaster.j2j.utils.JsonUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class ChainrMetricsTest {
+
+    @Test
+    public void testStagesAreRecorded() {
+        Map<String, Object> testUnit = JsonUtils.classpathToMap( "/json/chainr/integration/firstSample.json" );
+        ChainrMetrics metrics = new ChainrMetrics( true );
+        Chainr chainr = new ChainrBuilder( testUnit.get( "spec" ) ).listener( metrics ).build();
+
+        for ( int run = 0; run < 10; run++ ) {
+            chainr.transform( JsonUtils.classpathToMap( "/json/chainr/integration/firstSample.json" ).get( "input" ) );
+        }
+
+        List<ChainrMetrics.StageMetrics> stages = metrics.getStages();
+        List<?> chainrSpec = (List<?>) testUnit.get( "spec" );
+        Assert.assertEquals( stages.size(), chainrSpec.size() );
+        Assert.assertEquals( stages.get( 0 ).getTransformClass(), Shiftr.class );
+
+        long histogramTotal = 0;
+        for ( long count : stages.get( 0 ).getLatencyHistogram() ) {
+            histogramTotal += count;
+        }
+        for ( ChainrMetrics.StageMetrics stage : stages ) {
+            Assert.assertEquals( stage.getInvocationCount(), 10 );
+            Assert.assertEquals( stage.getFailureCount(), 0 );
+            Assert.assertTrue( stage.getTotalNanos() > 0 );
+            Assert.assertTrue( stage.getLatencyPercentileNanos( 99 ) >= stage.getLatencyPercentileNanos( 50 ) );
+        }
+        Assert.assertEquals( histogramTotal, 10 );
+    }
+
+    @Test
+    public void testFailuresAreRecordedAndRethrown() {
+        ChainrMetrics metrics = new ChainrMetrics();
+        Object chainrSpec = JsonUtils.jsonToObject( "[ " +
+                "{ \"operation\": \"remove\", \"spec\": { \"a\": \"\" } }, " +
+                "{ \"operation\": \"" + ExplodingTestTransform.class.getName() + "\" } ]" );
+        Chainr chainr = Chainr.fromSpec( chainrSpec ).withListener( metrics );
+
+        try {
+            chainr.transform( JsonUtils.jsonToMap( "{ \"a\": 1 }" ) );
+            Assert.fail( "expected the exploding transform to throw" );
+        }
+        catch ( TransformException expected ) {
+            // expected
+        }
+
+        List<ChainrMetrics.StageMetrics> stages = metrics.getStages();
+        Assert.assertEquals( stages.size(), 2 );
+        Assert.assertEquals( stages.get( 0 ).getTransformClass(), Removr.class );
+        Assert.assertEquals( stages.get( 0 ).getFailureCount(), 0 );
+        Assert.assertEquals( stages.get( 1 ).getStageIndex(), 1 );
+        Assert.assertEquals( stages.get( 1 ).getFailureCount(), 1 );
+        Assert.assertEquals( stages.get( 1 ).getAllocatedBytes(), 0 );
+    }
+
+    @Test
+    public void testNoListenerByDefault() {
+        Chainr chainr = Chainr.fromSpec( JsonUtils.jsonToObject( "[ { \"operation\": \"sort\" } ]" ) );
+        Assert.assertNull( chainr.getListener() );
+    }
+}
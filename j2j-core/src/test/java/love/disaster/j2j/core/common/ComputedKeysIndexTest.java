@@ -0,0 +1,114 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.common;
+
+import love.disaster.j2j.core.Shiftr;
+import love.disaster.j2j.core.common.pathelement.StarPathElement;
+import love.disaster.j2j.core.shiftr.spec.ShiftrCompositeSpec;
+import love.disaster.j2j.core.shiftr.spec.ShiftrSpec;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ComputedKeysIndexTest {
+
+    private static final String[] STAR_KEYS = {
+            "a-*", "a-b-*", "*-z", "*-y-z", "a-*-z", "a-*-*", "b*", "*c", "ab*cd", "x-*-*-y", "*.*", "rating-*-*-*", "*"
+    };
+
+    private static final String[] INPUT_KEYS = {
+            "a-1", "a-b-1", "a-b-z", "1-z", "1-y-z", "a-y-z", "a-1-2", "a-1-z", "bc", "b", "c", "abc", "abxcd", "abcd",
+            "x-1-2-y", "x-1-y", "1.2", "rating-1-2-3", "rating-1-2", "z", "-z", "a-", "nothing", "root"
+    };
+
+    @Test
+    public void testKeysGoToTheSameChildAsTheLinearScan() {
+        Map<String, Object> spec = new LinkedHashMap<>();
+        for ( int index = 0; index < STAR_KEYS.length; index++ ) {
+            spec.put( STAR_KEYS[index], "child" + index + ".&" );
+        }
+        // an & child is not a star, so it is tried for every key, but only matches the parent key "root"
+        spec.put( "&", "amp.&" );
+
+        ShiftrCompositeSpec compositeSpec = new ShiftrCompositeSpec( "root", spec );
+        Assert.assertNotNull( compositeSpec.getComputedKeysIndex() );
+
+        Map<String, Object> input = new LinkedHashMap<>();
+        for ( String key : INPUT_KEYS ) {
+            input.put( key, key );
+        }
+        Object output = new Shiftr( spec ).transform( input );
+
+        // what the linear scan would do : the first child, in sorted order, that matches takes the key
+        Map<String, Object> expected = new HashMap<>();
+        for ( String key : INPUT_KEYS ) {
+            String childName = firstMatch( compositeSpec.getComputedChildren(), spec, key );
+            @SuppressWarnings( "unchecked" )
+            Map<String, Object> child = (Map<String, Object>) expected.computeIfAbsent( childName, name -> new HashMap<>() );
+            child.put( key, key );
+        }
+        Assert.assertEquals( output, expected );
+    }
+
+    @Test
+    public void testMoreThan64Children() {
+        Map<String, Object> spec = new LinkedHashMap<>();
+        for ( int index = 0; index < 100; index++ ) {
+            spec.put( "p" + index + "-*", "child" + index + ".&" );
+        }
+        Map<String, Object> input = new LinkedHashMap<>();
+        input.put( "p1-a", 1 );
+        input.put( "p63-b", 2 );
+        input.put( "p64-c", 3 );
+        input.put( "p99-d", 4 );
+        input.put( "p100-e", 5 );
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put( "child1", Map.of( "p1-a", 1 ) );
+        expected.put( "child63", Map.of( "p63-b", 2 ) );
+        expected.put( "child64", Map.of( "p64-c", 3 ) );
+        expected.put( "child99", Map.of( "p99-d", 4 ) );
+        Assert.assertEquals( new Shiftr( spec ).transform( input ), expected );
+    }
+
+    @Test
+    public void testNoIndexForFewChildren() {
+        Map<String, Object> spec = new LinkedHashMap<>();
+        spec.put( "a-*", "a" );
+        spec.put( "*-z", "z" );
+        Assert.assertNull( new ShiftrCompositeSpec( "root", spec ).getComputedKeysIndex() );
+    }
+
+    private static String firstMatch( List<ShiftrSpec> computedChildren, Map<String, Object> spec, String key ) {
+        for ( ShiftrSpec child : computedChildren ) {
+            if ( ! ( child.getPathElement() instanceof StarPathElement ) ) {
+                if ( key.equals( "root" ) ) {
+                    return "amp";
+                }
+                continue;
+            }
+            if ( ( (StarPathElement) child.getPathElement() ).stringMatch( key ) ) {
+                String outputPath = (String) spec.get( child.getPathElement().getCanonicalForm() );
+                return outputPath.substring( 0, outputPath.indexOf( '.' ) );
+            }
+        }
+        throw new IllegalStateException( "the * child matches everything" );
+    }
+}
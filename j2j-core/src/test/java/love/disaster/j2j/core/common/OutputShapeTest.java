@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.common;
+
+import love.disaster.j2j.core.common.pathelement.PathElement;
+import love.disaster.j2j.core.traversr.traversal.TraversalStep;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class OutputShapeTest {
+
+    private static final int UNKNOWN = TraversalStep.UNKNOWN_SIZE;
+
+    @Test
+    public void testExpectedSizes() {
+        String[] paths = {
+                "rating.primary.value", "rating.primary.max", "rating.quality[3]", "rating.quality[1]",
+                "photos.&1.url", "photos.other", "ids[]", "mixed.a", "mixed[0]"
+        };
+
+        OutputShape outputShape = new OutputShape();
+        for ( String path : paths ) {
+            outputShape.add( PathElementBuilder.parseDotNotationRHS( path ) );
+        }
+
+        // the first level writes into the output itself, whose size is up to the caller
+        Assert.assertEquals( sizes( outputShape, "rating.primary.value" ), new int[] { UNKNOWN, 2, 2 } );
+        Assert.assertEquals( sizes( outputShape, "rating.quality[3]" ), new int[] { UNKNOWN, 2, 4 } );
+        // &1 is only known at transform time, but what is under it is not
+        Assert.assertEquals( sizes( outputShape, "photos.&1.url" ), new int[] { UNKNOWN, UNKNOWN, 1 } );
+        Assert.assertEquals( sizes( outputShape, "ids[]" ), new int[] { UNKNOWN, UNKNOWN } );
+        // both a map and a list
+        Assert.assertEquals( sizes( outputShape, "mixed.a" ), new int[] { UNKNOWN, UNKNOWN } );
+    }
+
+    private static int[] sizes( OutputShape outputShape, String path ) {
+        List<PathElement> pathElements = PathElementBuilder.parseDotNotationRHS( path );
+        return outputShape.expectedSizes( pathElements );
+    }
+}
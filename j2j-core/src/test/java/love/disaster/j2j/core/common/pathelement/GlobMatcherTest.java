@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.common.pathelement;
+
+import love.disaster.j2j.core.common.tree.MatchedElement;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks the GlobMatcher against the "(.+?)" regex the star keys used to be compiled to.
+ */
+public class GlobMatcherTest {
+
+    @DataProvider
+    public Object[][] getGlobs() {
+        return new Object[][] {
+                { "tag-*" },
+                { "*-tag" },
+                { "a*b" },
+                { "rating-*-*" },
+                { "*-*" },
+                { "**" },
+                { "a**b" },
+                { "terms--config--*--*--cdv" },
+                { "rating.$.*.*" },
+                { "*-*-*" },
+                { "x*y*z*" },
+                { "aa*aa*aa" },
+        };
+    }
+
+    private static final String[] KEYS = {
+            "", "a", "b", "ab", "aXb", "aXYb", "abab", "tag", "tag-", "tag-1", "-tag", "1-tag", "tag-1-tag",
+            "rating", "rating-", "rating--", "rating-a-", "rating-a-b", "rating-a-b-c", "rating--a-b", "-", "--", "---",
+            "a-b", "a-b-c", "a-b-c-d", "terms--config--Expertise--12345--cdv", "terms--config--Expertise--12345--6789--cdv",
+            "rating.$.marlin$.test.", "rating.$..", "xyz", "xAyBzC", "xyyzz", "aaaaaa", "aaaaaaaa", "aaXaaYaa", "aaaaXaaaa"
+    };
+
+    @Test( dataProvider = "getGlobs" )
+    public void testMatchesLikeTheRegex( String glob ) {
+        GlobMatcher globMatcher = new GlobMatcher( glob );
+        Pattern pattern = Pattern.compile( "^" + Pattern.quote( glob ).replace( "*", "\\E(.+?)\\Q" ) + "$" );
+
+        for ( String key : KEYS ) {
+            Matcher matcher = pattern.matcher( key );
+            boolean expected = matcher.find();
+
+            MatchedElement matchedElement = new MatchedElement( key );
+            Assert.assertEquals( globMatcher.match( key, matchedElement ), expected, glob + " against " + key );
+            Assert.assertEquals( globMatcher.matches( key ), expected, glob + " against " + key );
+            if ( ! expected ) {
+                continue;
+            }
+
+            Assert.assertEquals( matchedElement.getSubKeyCount(), matcher.groupCount() + 1 );
+            for ( int group = 1; group <= matcher.groupCount(); group++ ) {
+                Assert.assertEquals( matchedElement.getSubKeyRef( group ), matcher.group( group ), glob + " against " + key );
+            }
+        }
+    }
+
+    @Test( expectedExceptions = IllegalArgumentException.class )
+    public void testRequiresAStar() {
+        new GlobMatcher( "tag" );
+    }
+}
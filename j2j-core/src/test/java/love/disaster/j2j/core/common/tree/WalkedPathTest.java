@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.common.tree;
+
+import love.disaster.j2j.core.common.pathelement.StarDoublePathElement;
+import love.disaster.j2j.core.common.pathelement.StarPathElement;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class WalkedPathTest {
+
+    @Test
+    public void testPathStepsAreRecycled() {
+        WalkedPath walkedPath = new WalkedPath( "root", new MatchedElement( "root" ) );
+        walkedPath.add( "a", new MatchedElement( "a" ) );
+        PathStep step = walkedPath.lastElement();
+        walkedPath.removeLast();
+
+        Assert.assertEquals( walkedPath.size(), 1 );
+        Assert.assertNull( step.getTreeRef() );
+
+        walkedPath.add( "b", new MatchedElement( "b" ) );
+        Assert.assertSame( walkedPath.lastElement(), step );
+        Assert.assertEquals( walkedPath.lastElement().getTreeRef(), "b" );
+        Assert.assertEquals( walkedPath.elementFromEnd( 1 ).getTreeRef(), "root" );
+    }
+
+    @Test
+    public void testGrowsPastInitialDepth() {
+        WalkedPath walkedPath = new WalkedPath();
+        for ( int depth = 0; depth < 100; depth++ ) {
+            walkedPath.add( depth, walkedPath.nextMatchedElement( "key" + depth ) );
+        }
+        Assert.assertEquals( walkedPath.size(), 100 );
+        Assert.assertEquals( walkedPath.get( 42 ).getMatchedElement().getRawKey(), "key42" );
+        Assert.assertEquals( walkedPath.lastElement().getTreeRef(), 99 );
+    }
+
+    @Test
+    public void testScratchMatchedElementIsResetPerLevel() {
+        WalkedPath walkedPath = new WalkedPath( "root", new MatchedElement( "root" ) );
+        StarPathElement star = new StarDoublePathElement( "tuna-*-*" );
+
+        MatchedElement first = star.match( "tuna-bob-marlin", walkedPath );
+        walkedPath.add( "data", first );
+        Assert.assertEquals( walkedPath.nextMatchedElement( "child" ).getRawKey(), "child" );
+        first.incrementHashCount();
+        walkedPath.removeLast();
+
+        MatchedElement second = star.match( "tuna-x-y", walkedPath );
+        Assert.assertSame( second, first );
+        Assert.assertEquals( second.getRawKey(), "tuna-x-y" );
+        Assert.assertEquals( second.getSubKeyCount(), 3 );
+        Assert.assertEquals( second.getSubKeyRef( 1 ), "x" );
+        Assert.assertEquals( second.getSubKeyRef( 2 ), "y" );
+        Assert.assertEquals( second.getHashCount(), 0 );
+
+        ArrayMatchedElement array = walkedPath.nextArrayMatchedElement( "3", 5 );
+        Assert.assertNotSame( array, second );
+        Assert.assertEquals( array.getOrigSize(), 5 );
+        Assert.assertEquals( array.getRawIndex(), Integer.valueOf( 3 ) );
+    }
+
+    @Test( expectedExceptions = IndexOutOfBoundsException.class )
+    public void testSubKeyOutOfRange() {
+        MatchedElement matchedElement = new MatchedElement( "tuna-bob" );
+        matchedElement.addSubKey( 5, 8 );
+        matchedElement.getSubKeyRef( 2 );
+    }
+}
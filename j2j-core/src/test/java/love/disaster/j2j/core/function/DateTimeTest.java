@@ -0,0 +1,57 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package love.disaster.j2j.core.function;
+
+import love.disaster.j2j.core.modifier.function.DateTime;
+import love.disaster.j2j.core.modifier.function.Function;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.TimeZone;
+
+public class DateTimeTest {
+
+    private static final String PATTERN = "yyyy-MM-dd HH:mm z";
+
+    @Test
+    public void testParsingAZoneDoesNotChangeLaterFormatting() {
+        Function formatDate = new DateTime.formatDate();
+        Function parseDate = new DateTime.parseDate();
+        Function formatDateWithTZ = new DateTime.formatDateWithTZ();
+
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault( TimeZone.getTimeZone( "UTC" ) );
+        try {
+            Assert.assertEquals( formatDate.apply( PATTERN, 0 ).get(), "1970-01-01 00:00 UTC" );
+            Assert.assertEquals( formatDateWithTZ.apply( PATTERN, 0, "America/New_York" ).get(), "1969-12-31 19:00 EST" );
+
+            // the format parses the zone name into its own time zone
+            Assert.assertEquals( parseDate.apply( PATTERN, "2020-01-01 12:00 PST" ).get(), 1577908800000L );
+            Assert.assertEquals( formatDate.apply( PATTERN, 0 ).get(), "1970-01-01 00:00 UTC" );
+            Assert.assertEquals( formatDateWithTZ.apply( PATTERN, 0, "America/New_York" ).get(), "1969-12-31 19:00 EST" );
+            // nor does a parse without a zone name keep the one of the parse before
+            Assert.assertEquals( parseDate.apply( "yyyy-MM-dd HH:mm", "2020-01-01 12:00" ).get(), 1577880000000L );
+
+            // a changed default time zone is seen by formats already cached on this thread
+            TimeZone.setDefault( TimeZone.getTimeZone( "Asia/Tokyo" ) );
+            Assert.assertEquals( formatDate.apply( PATTERN, 0 ).get(), "1970-01-01 09:00 JST" );
+        }
+        finally {
+            TimeZone.setDefault( defaultTimeZone );
+        }
+    }
+}
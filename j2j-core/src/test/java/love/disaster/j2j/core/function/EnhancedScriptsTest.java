@@ -47,6 +47,29 @@ public class EnhancedScriptsTest {
         assertNotNull(result3); // Will be empty if library not available, or have result if available
     }
     
+    @Test
+    public void testCompiledBeetlRendersLikeBeetl() {
+        Scripts.beetl beetl = new Scripts.beetl();
+
+        Map<String, Object> context = new HashMap<>();
+        context.put("name", "World");
+        context.put("count", 3);
+        context.put("tags", java.util.Arrays.asList("a", "b"));
+        context.put("nothing", null);
+
+        String[] templates = {
+            "Hello ${name}!",                       // plain interpolation
+            "${ name } x${count}${nothing}.",       // interpolation with spaces and a null
+            "${tags}",                              // not a plain value, rendered by Beetl
+            "<%var n = count + 1;%>${n}",           // statements, rendered by Beetl
+            "${missing}"                            // unbound, rendered by Beetl
+        };
+        for (String template : templates) {
+            Function compiled = beetl.compile(template);
+            assertEquals(compiled.apply(template, context), beetl.apply(template, context), template);
+        }
+    }
+
     @Test
     public void testJsonataFunction() {
         Function jsonata = new Scripts.jsonata();
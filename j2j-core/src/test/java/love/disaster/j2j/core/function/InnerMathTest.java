@@ -296,6 +296,18 @@ public class InnerMathTest extends AbstractTester {
         assert toNumber("123123123123123123").equals( Optional.of( 123123123123123123l ) );
         assert toNumber("123123123123123123123123123123123123").equals( Optional.of( 123123123123123123123123123123123123d ) );
 
+        // ... at the edges of each type, and without throwing for anything that is not a number
+        assert toNumber("2147483648").equals( Optional.of( 2147483648l ) );
+        assert toNumber("-9223372036854775808").equals( Optional.of( Long.MIN_VALUE ) );
+        assert toNumber("9223372036854775808").equals( Optional.of( 9223372036854775808d ) );
+        assert toNumber(" -.5e3f ").equals( Optional.of( -500d ) );
+        assert toNumber("NaN").equals( Optional.of( Double.NaN ) );
+        assert toNumber("0x1p3").equals( Optional.of( 8d ) );
+        assert !toNumber("1e").isPresent();
+        assert !toNumber("1.2.3").isPresent();
+        assert !toNumber("-").isPresent();
+        assert !toNumber("").isPresent();
+
         // abs returns numbers in their appropriate type, not given type (string in this case)
         assert abs( "-123" ).equals( Optional.of( 123 ));
         assert abs("-123123123123123123").equals( Optional.of( 123123123123123123l ) );
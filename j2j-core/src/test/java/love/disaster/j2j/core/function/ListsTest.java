@@ -24,9 +24,12 @@ import love.disaster.j2j.core.modifier.function.Objects;
 import org.testng.annotations.DataProvider;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 @SuppressWarnings( "deprecated" )
 public class ListsTest extends AbstractTester {
@@ -71,6 +74,18 @@ public class ListsTest extends AbstractTester {
         testCases.add( new Object[] {"at-list-missing", ELEMENT_AT, Arrays.asList( 5, 1, 2, 3 ), Optional.empty() } );
 
 
+        // distinct is a SingleFunction, so it is applied to each of the lists in its list arg
+        Function DISTINCT = new Lists.distinct();
+        Map<String, Object> hashMap = new HashMap<>();
+        hashMap.put( "id", 1 );
+        hashMap.put( "tags", Arrays.asList( "a", "b" ) );
+        Map<String, Object> linkedHashMap = new LinkedHashMap<>( hashMap );
+        linkedHashMap.put( "tags", new LinkedList<>( Arrays.asList( "a", "b" ) ) );
+
+        testCases.add( new Object[] {"distinct-scalars", DISTINCT, Arrays.asList( Arrays.asList( 1, 1L, "1", 1, null, "1", null ) ), Optional.of( Arrays.asList( Arrays.asList( 1, 1L, "1", null ) ) ) } );
+        testCases.add( new Object[] {"distinct-nested", DISTINCT, Arrays.asList( Arrays.asList( hashMap, Arrays.asList( hashMap ), linkedHashMap, Arrays.asList( linkedHashMap ) ) ), Optional.of( Arrays.asList( Arrays.asList( hashMap, Arrays.asList( hashMap ) ) ) ) } );
+
+
         testCases.add( new Object[] {"size-list", SIZE, new Object[]{ 5, 1, 2, 3 }, Optional.of(4) } );
         testCases.add( new Object[] {"size-list-empty", SIZE, Arrays.asList( ), Optional.of(0) } );
 
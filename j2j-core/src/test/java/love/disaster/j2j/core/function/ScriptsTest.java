@@ -18,6 +18,7 @@ package love.disaster.j2j.core.function;
 
 import love.disaster.j2j.core.JoltTestUtil;
 import love.disaster.j2j.core.Modifier;
+import love.disaster.j2j.core.modifier.function.Function;
 import love.disaster.j2j.core.modifier.function.Scripts;
 import love.disaster.j2j.utils.JsonUtils;
 import org.testng.Assert;
@@ -108,6 +109,72 @@ public class ScriptsTest {
         Assert.assertEquals(pyFunc.apply(args.toArray()).get(), "hello");
     }
 
+    @Test
+    public void testScriptStateDoesNotLeakBetweenRuns() {
+        StubScriptEngineFactory.enable();
+        try {
+            Scripts.javascript jsFunc = new Scripts.javascript();
+            Function compiled = jsFunc.compile( "let total; concat" );
+
+            // a top level declaration fails on a second run if the bindings of the first one are kept
+            for ( Function function : new Function[] { jsFunc, compiled, jsFunc, compiled } ) {
+                Assert.assertEquals( function.apply( "let total; concat", "a", "b" ).get(), "ab" );
+            }
+        }
+        finally {
+            StubScriptEngineFactory.disable();
+        }
+    }
+
+    @Test
+    public void testScriptArgumentsFollowTheArity() {
+        StubScriptEngineFactory.enable();
+        try {
+            Scripts.javascript jsFunc = new Scripts.javascript();
+            Function compiled = jsFunc.compile( "argCount" );
+
+            for ( Function function : new Function[] { jsFunc, compiled } ) {
+                Assert.assertEquals( function.apply( "argCount", 1, 2, 3 ).get(), 3 );
+                // arg2 and arg3 of the previous call must not be visible anymore
+                Assert.assertEquals( function.apply( "argCount", 1 ).get(), 1 );
+            }
+        }
+        finally {
+            StubScriptEngineFactory.disable();
+        }
+    }
+
+    @Test
+    public void testCompiledScriptsMatchUncompiledScripts() {
+        StubScriptEngineFactory.enable();
+        try {
+            Scripts.javascript jsFunc = new Scripts.javascript();
+            Function compiled = jsFunc.compile( "concat" );
+            Assert.assertNotSame( compiled, jsFunc );
+
+            int compilations = StubScriptEngineFactory.getCompilations();
+            Object[][] argLists = { { "concat", "x" }, { "concat", "x", 1, true }, { "concat" } };
+            for ( Object[] args : argLists ) {
+                Assert.assertEquals( compiled.apply( args ), jsFunc.apply( args ) );
+            }
+            // the script is compiled once for this thread's engine, and reused after that
+            Assert.assertEquals( StubScriptEngineFactory.getCompilations(), compilations + 1 );
+        }
+        finally {
+            StubScriptEngineFactory.disable();
+        }
+    }
+
+    @Test
+    public void testJsonataCompilesLiteralQueries() {
+        Scripts.jsonata jsonataFunc = new Scripts.jsonata();
+
+        // a query string is parsed up front, into a function that is used in place of jsonata
+        Assert.assertNotSame(jsonataFunc.compile("name"), jsonataFunc);
+        // anything else is left to be evaluated, and fail, at runtime
+        Assert.assertSame(jsonataFunc.compile(42), jsonataFunc);
+    }
+
     @Test
     public void testModifierWithScripts() throws IOException {
         // Skip test if JavaScript engine is not available
@@ -52,6 +52,24 @@ public class StringsTest extends AbstractTester {
     testCases.add( new Object[] {"split-regex-token-string", SPLIT, new Object[] {"[eE]", "test,TEST"}, Optional.of( Arrays.asList("t", "st,T", "ST") )} );
     testCases.add( new Object[] {"split-regex2-token-string", SPLIT, new Object[] {"\\s+", "test TEST  Test    TeSt"}, Optional.of( Arrays.asList("test", "TEST", "Test", "TeSt") )} );
 
+    // separators that are literals in the spec are compiled when the spec is built
+    Function COMPILED_SPLIT = ( (Strings.split) SPLIT ).compile( "," );
+    Function COMPILED_REGEX_SPLIT = ( (Strings.split) SPLIT ).compile( "\\s+" );
+
+    testCases.add( new Object[] {"compiled-split-multi-token-string", COMPILED_SPLIT, new Object[] {",", "test,TEST,Test"}, Optional.of( Arrays.asList("test", "TEST", "Test") )} );
+    testCases.add( new Object[] {"compiled-split-other-separator", COMPILED_SPLIT, new Object[] {"[eE]", "test,TEST"}, Optional.of( Arrays.asList("t", "st,T", "ST") )} );
+    testCases.add( new Object[] {"compiled-split-regex-token-string", COMPILED_REGEX_SPLIT, new Object[] {"\\s+", "test TEST  Test"}, Optional.of( Arrays.asList("test", "TEST", "Test") )} );
+
+
+    // so are replaceRegex patterns, which are its second argument
+    Strings.replaceRegex REPLACE_REGEX = new Strings.replaceRegex();
+    Function COMPILED_REPLACE_REGEX = REPLACE_REGEX.compile( "\\s+" );
+
+    testCases.add( new Object[] {"replaceRegex", REPLACE_REGEX, new Object[] {"a  b c", "\\s+", "-"}, Optional.of( "a-b-c" )} );
+    testCases.add( new Object[] {"compiled-replaceRegex", COMPILED_REPLACE_REGEX, new Object[] {"a  b c", "\\s+", "-"}, Optional.of( "a-b-c" )} );
+    testCases.add( new Object[] {"compiled-replaceRegex-other-regex", COMPILED_REPLACE_REGEX, new Object[] {"a  b c", "b", "-"}, Optional.of( "a  - c" )} );
+    testCases.add( new Object[] {"compiled-replaceRegex-invalid-regex", REPLACE_REGEX.compile( "[" ), new Object[] {"a[b", "[", "-"}, Optional.empty()} );
+
     return testCases.iterator();
   }
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.function;
+
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Script engine for testing the javascript function on JVMs without a javascript engine.  It only
+ *  answers to "javascript" between enable() and disable(), so the tests that need a real engine
+ *  still skip, and an engine cached while enabled fails every eval once disabled.
+ *
+ * Its scripts are ';' separated statements, the value of the last one is the result:
+ *  "let NAME" defines NAME in the engine scope, and fails if it is already defined, like a top level let;
+ *  "argCount" is the number of argN variables bound;
+ *  "concat" is the concatenation of arg1, arg2, etc.
+ */
+public class StubScriptEngineFactory implements ScriptEngineFactory {
+
+    private static volatile boolean enabled;
+    private static final AtomicInteger COMPILATIONS = new AtomicInteger();
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static int getCompilations() {
+        return COMPILATIONS.get();
+    }
+
+    @Override
+    public String getEngineName() {
+        return "stub";
+    }
+
+    @Override
+    public String getEngineVersion() {
+        return "1";
+    }
+
+    @Override
+    public List<String> getExtensions() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<String> getMimeTypes() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<String> getNames() {
+        return Collections.singletonList( enabled ? "javascript" : "j2j-stub" );
+    }
+
+    @Override
+    public String getLanguageName() {
+        return "stub";
+    }
+
+    @Override
+    public String getLanguageVersion() {
+        return "1";
+    }
+
+    @Override
+    public Object getParameter( String key ) {
+        return null;
+    }
+
+    @Override
+    public String getMethodCallSyntax( String obj, String m, String... args ) {
+        return null;
+    }
+
+    @Override
+    public String getOutputStatement( String toDisplay ) {
+        return null;
+    }
+
+    @Override
+    public String getProgram( String... statements ) {
+        return String.join( ";", statements );
+    }
+
+    @Override
+    public ScriptEngine getScriptEngine() {
+        return new StubScriptEngine( this );
+    }
+
+    private static final class StubScriptEngine extends AbstractScriptEngine implements Compilable {
+
+        private final ScriptEngineFactory factory;
+
+        private StubScriptEngine( ScriptEngineFactory factory ) {
+            this.factory = factory;
+        }
+
+        @Override
+        public Object eval( String script, ScriptContext context ) throws ScriptException {
+            if ( !enabled ) {
+                throw new ScriptException( "stub engine is disabled" );
+            }
+            Bindings scope = context.getBindings( ScriptContext.ENGINE_SCOPE );
+            Object result = null;
+            for ( String statement : script.split( ";" ) ) {
+                statement = statement.trim();
+                if ( statement.startsWith( "let " ) ) {
+                    String name = statement.substring( 4 ).trim();
+                    if ( scope.containsKey( name ) ) {
+                        throw new ScriptException( "Identifier '" + name + "' has already been declared" );
+                    }
+                    scope.put( name, true );
+                    result = null;
+                }
+                else if ( statement.equals( "argCount" ) ) {
+                    int count = 0;
+                    for ( String key : scope.keySet() ) {
+                        if ( key.matches( "arg\\d+" ) ) {
+                            count++;
+                        }
+                    }
+                    result = count;
+                }
+                else if ( statement.equals( "concat" ) ) {
+                    StringBuilder sb = new StringBuilder();
+                    for ( int i = 1; scope.containsKey( "arg" + i ); i++ ) {
+                        sb.append( scope.get( "arg" + i ) );
+                    }
+                    result = sb.toString();
+                }
+                else {
+                    throw new ScriptException( "unknown statement " + statement );
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Object eval( Reader reader, ScriptContext context ) throws ScriptException {
+            return eval( new BufferedReader( reader ).lines().collect( Collectors.joining( "\n" ) ), context );
+        }
+
+        @Override
+        public Bindings createBindings() {
+            return new SimpleBindings();
+        }
+
+        @Override
+        public ScriptEngineFactory getFactory() {
+            return factory;
+        }
+
+        @Override
+        public CompiledScript compile( String script ) {
+            COMPILATIONS.incrementAndGet();
+            return new CompiledScript() {
+                @Override
+                public Object eval( ScriptContext context ) throws ScriptException {
+                    return StubScriptEngine.this.eval( script, context );
+                }
+
+                @Override
+                public ScriptEngine getEngine() {
+                    return StubScriptEngine.this;
+                }
+            };
+        }
+
+        @Override
+        public CompiledScript compile( Reader script ) {
+            return compile( new BufferedReader( script ).lines().collect( Collectors.joining( "\n" ) ) );
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.modifier.function;
+
+import love.disaster.j2j.core.Modifier;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that the searches of a Modifier transform share one index of the list they search.
+ */
+public class ListIndexesTest {
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void enrichingManyItemsBuildsTheCatalogIndexOnce() {
+        List<Object> catalog = new ArrayList<>();
+        for ( int i = 0; i < 100; i++ ) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put( "sku", "s" + i );
+            entry.put( "price", i * 10 );
+            catalog.add( entry );
+        }
+        List<Object> items = new ArrayList<>();
+        for ( int i = 0; i < 500; i++ ) {
+            items.add( new HashMap<>( Collections.singletonMap( "sku", "s" + ( i % 120 ) ) ) );
+        }
+        Map<String, Object> input = new HashMap<>();
+        input.put( "catalog", catalog );
+        input.put( "items", items );
+
+        Map<String, Object> itemSpec = new HashMap<>();
+        itemSpec.put( "product", "=lookup(@(3,catalog), 'sku', @(1,sku))" );
+        itemSpec.put( "listed", "=listContains(@(3,catalog), @(1,product))" );
+        Map<String, Object> spec = Collections.singletonMap( "items", Collections.singletonMap( "*", itemSpec ) );
+        Modifier modifier = new Modifier.Overwritr( spec );
+
+        int builds = ListIndexes.BUILDS.get();
+        Map<String, Object> output = (Map<String, Object>) modifier.transform( input, null );
+        // the writes into the items do not reach the catalog, so its index is kept for the whole transform
+        Assert.assertEquals( ListIndexes.BUILDS.get() - builds, 1 );
+
+        List<Map<String, Object>> enriched = (List<Map<String, Object>>) output.get( "items" );
+        for ( int i = 0; i < enriched.size(); i++ ) {
+            Map<String, Object> item = enriched.get( i );
+            if ( i % 120 < 100 ) {
+                Assert.assertEquals( item.get( "product" ), catalog.get( i % 120 ) );
+                Assert.assertEquals( item.get( "listed" ), true );
+            }
+            else {
+                Assert.assertFalse( item.containsKey( "product" ) );
+            }
+        }
+    }
+}
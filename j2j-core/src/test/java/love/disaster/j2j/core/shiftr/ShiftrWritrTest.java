@@ -25,7 +25,10 @@ import love.disaster.j2j.core.common.tree.WalkedPath;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 // Todo Now that the PathElement classes have been split out (no longer inner classes)
 //  each class should get a test
@@ -174,4 +177,28 @@ public class ShiftrWritrTest {
         Assert.assertEquals( "3",      stringPath.get( 3 ) );
         Assert.assertEquals( "BBB",    stringPath.get( 4 ) );
     }
+
+    @Test
+    public void writeTest_arrayIndexes() {
+
+        MatchablePathElement pe1 = (MatchablePathElement) PathElementBuilder.parseSingleKeyLHS( "tuna-*-marlin-*" );
+        MatchedElement lpe = pe1.match( "tuna-2-marlin-BBB", new WalkedPath() );
+        WalkedPath walkedPath = new WalkedPath( null, lpe );
+
+        Map<String, Object> output = new LinkedHashMap<>();
+
+        // array index reference, kept as an int all the way down to the ArrayTraversalStep
+        new ShiftrWriter( "tuna[&(0,1)].marlin" ).write( "a", output, walkedPath );
+        // no references, so evaluated once up front
+        new ShiftrWriter( "tuna[0].marlin" ).write( "b", output, walkedPath );
+        // not an index, so nothing is written
+        new ShiftrWriter( "tuna[&(0,2)].marlin" ).write( "c", output, walkedPath );
+
+        Map<String, Object> expected2 = new LinkedHashMap<>();
+        expected2.put( "marlin", "a" );
+        Map<String, Object> expected0 = new LinkedHashMap<>();
+        expected0.put( "marlin", "b" );
+
+        Assert.assertEquals( output.get( "tuna" ), Arrays.asList( expected0, null, expected2 ) );
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013 Bazaarvoice, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package love.disaster.j2j.core.trace;
+
+import love.disaster.j2j.core.Defaultr;
+import love.disaster.j2j.core.Shiftr;
+import love.disaster.j2j.core.exception.TransformException;
+import love.disaster.j2j.utils.JsonUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TransformTracersTest {
+
+    @AfterMethod
+    public void uninstall() {
+        TransformTracers.uninstall();
+    }
+
+    @Test
+    public void testNoopByDefault() {
+        Assert.assertSame( TransformTracers.sample(), TransformTracer.NOOP );
+        Assert.assertFalse( TransformTracers.sample().isEnabled() );
+    }
+
+    @Test
+    public void testEveryInvocationIsTracedWithoutSampling() {
+        RecordingTracer tracer = new RecordingTracer();
+        TransformTracers.install( tracer );
+
+        Shiftr shiftr = new Shiftr( JsonUtils.jsonToMap( "{ \"a\": \"b\" }" ) );
+        for ( int run = 0; run < 5; run++ ) {
+            shiftr.transform( JsonUtils.jsonToMap( "{ \"a\": 1 }" ) );
+        }
+
+        Assert.assertEquals( tracer.events.size(), 10 );
+        Assert.assertEquals( tracer.events.get( 0 ), "started Shiftr" );
+        Assert.assertEquals( tracer.events.get( 1 ), "completed Shiftr" );
+    }
+
+    @Test
+    public void testFailuresAreTracedAndRethrown() {
+        RecordingTracer tracer = new RecordingTracer();
+        TransformTracers.install( tracer );
+
+        Defaultr defaultr = new Defaultr( JsonUtils.jsonToMap( "{ \"a\": \"b\" }" ) );
+        try {
+            defaultr.transform( new ArrayList<>() );
+            Assert.fail( "expected Defaultr to reject a top level array" );
+        }
+        catch ( TransformException expected ) {
+            // expected
+        }
+
+        Assert.assertEquals( tracer.events, List.of( "started Defaultr", "failed Defaultr" ) );
+    }
+
+    @Test
+    public void testSampling() {
+        RecordingTracer tracer = new RecordingTracer();
+        TransformTracers.install( tracer, 10 );
+        Assert.assertSame( TransformTracers.getInstalled(), tracer );
+        Assert.assertEquals( TransformTracers.getSampleEvery(), 10 );
+
+        int sampled = 0;
+        for ( int run = 0; run < 10000; run++ ) {
+            if ( TransformTracers.sample() == tracer ) {
+                sampled++;
+            }
+        }
+        // expected 1000, far enough from the bounds that this never fails in practice
+        Assert.assertTrue( sampled > 700 && sampled < 1300, "sampled " + sampled + " out of 10000" );
+    }
+
+    @Test( expectedExceptions = IllegalArgumentException.class )
+    public void testInvalidSampleRate() {
+        TransformTracers.install( new RecordingTracer(), 0 );
+    }
+
+    private static final class RecordingTracer implements TransformTracer {
+
+        private final List<String> events = Collections.synchronizedList( new ArrayList<>() );
+
+        @Override
+        public void transformStarted( Class<?> transformClass, Object input ) {
+            events.add( "started " + transformClass.getSimpleName() );
+        }
+
+        @Override
+        public void transformCompleted( Class<?> transformClass, Object output ) {
+            events.add( "completed " + transformClass.getSimpleName() );
+        }
+
+        @Override
+        public void transformFailed( Class<?> transformClass, Throwable failure ) {
+            events.add( "failed " + transformClass.getSimpleName() );
+        }
+    }
+}
@@ -19,6 +19,7 @@ package love.disaster.j2j.core.traversr;
 
 import love.disaster.j2j.core.JoltTestUtil;
 import love.disaster.j2j.core.common.Optional;
+import love.disaster.j2j.core.traversr.traversal.TraversalStep;
 import love.disaster.j2j.utils.JsonUtils;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
@@ -223,4 +224,59 @@ public class SimpleTraversalTest {
         List catalogLin = queryContext.get( "catalogLin" );
         Assert.fail( "Expected ClassCast Exception");
     }
+
+    @Test
+    public void nonIndexKeysOnArrayStepsAreNotFound() throws Exception
+    {
+        Object tree = JsonUtils.javason( "{ 'a' : [ 'b', 'c' ] }" );
+
+        SimpleTraversr<Object> traversr = new SimpleTraversr<>( "a.[0]" );
+
+        Assert.assertEquals( traversr.get( tree, Arrays.asList( "a", "1" ) ).get(), "c" );
+        Assert.assertFalse( traversr.get( tree, Arrays.asList( "a", "x" ) ).isPresent() );
+        Assert.assertFalse( traversr.get( tree, Arrays.asList( "a", "-1" ) ).isPresent() );
+        Assert.assertFalse( traversr.set( tree, Arrays.asList( "a", "x" ), "d" ).isPresent() );
+        Assert.assertFalse( traversr.remove( tree, Arrays.asList( "a", "x" ) ).isPresent() );
+        Assert.assertEquals( tree, JsonUtils.javason( "{ 'a' : [ 'b', 'c' ] }" ) );
+    }
+
+    @Test
+    public void stringKeyStepMethodsStillWork() throws Exception
+    {
+        Object tree = JsonUtils.javason( "{ 'a' : [ 'b' ] }" );
+
+        Traversr<Object> traversr = new StringKeyTraversr( "a.[1].c" );
+
+        Assert.assertEquals( traversr.set( tree, Arrays.asList( "a", "1", "c" ), "d" ).get(), "d" );
+        Assert.assertEquals( tree, JsonUtils.javason( "{ 'a' : [ 'b', { 'c' : 'd' } ] }" ) );
+        Assert.assertEquals( traversr.get( tree, Arrays.asList( "a", "1", "c" ) ).get(), "d" );
+    }
+
+    /**
+     * A Traversr that still calls the TraversalStep methods that only take String keys.
+     */
+    private static final class StringKeyTraversr extends Traversr<Object> {
+
+        private StringKeyTraversr( String humanPath ) {
+            super( humanPath );
+        }
+
+        @Override
+        @SuppressWarnings( "unchecked" )
+        public Optional<Object> handleFinalSet( TraversalStep traversalStep, Object tree, String key, int index, Object data ) {
+            return traversalStep.overwriteSet( tree, key, data );
+        }
+
+        @Override
+        @SuppressWarnings( "unchecked" )
+        public Optional<Object> handleIntermediateGet( TraversalStep traversalStep, Object tree, String key, int index, TraversalStep.Operation op ) {
+            Optional<Object> optSub = traversalStep.get( tree, key );
+            if ( optSub.get() == null && op == TraversalStep.Operation.SET ) {
+                Object sub = traversalStep.getChild().newContainer();
+                traversalStep.overwriteSet( tree, key, sub );
+                return Optional.of( sub );
+            }
+            return optSub;
+        }
+    }
 }
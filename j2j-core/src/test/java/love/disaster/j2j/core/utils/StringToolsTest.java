@@ -103,4 +103,22 @@ public class StringToolsTest {
         Assert.assertTrue(StringTools.isEmpty(null));
         Assert.assertFalse(StringTools.isEmpty(" "));
     }
+
+    @Test
+    public void testParseNonNegativeInt() throws Exception {
+        String[] inputs = { null, "", "0", "7", "007", "+3", "-0", "-1", "+", "-", "1a", " 1", "2147483647", "2147483648",
+                "99999999999", "-2147483648", "\u0663" };
+
+        for (String input : inputs) {
+            int expected;
+            try {
+                int parsed = Integer.parseInt(input);
+                expected = parsed >= 0 ? parsed : -1;
+            }
+            catch (NumberFormatException nfe) {
+                expected = -1;
+            }
+            Assert.assertEquals(StringTools.parseNonNegativeInt(input), expected, "input=\"" + input + "\"");
+        }
+    }
 } 
@@ -3,6 +3,7 @@ package love.disaster.j2j.web.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import love.disaster.j2j.core.*;
+import love.disaster.j2j.core.chainr.ChainrCache;
 import love.disaster.j2j.core.exception.SpecException;
 import love.disaster.j2j.core.exception.TransformException;
 import love.disaster.j2j.utils.JsonUtils;
@@ -24,6 +25,7 @@ public class TransformService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransformService.class);
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ChainrCache chainrCache = new ChainrCache();
 
     /**
      * Perform a JSON transformation based on the provided request
@@ -69,11 +71,11 @@ public class TransformService {
     }
 
     /**
-     * Perform a chain transformation
+     * Perform a chain transformation, reusing the Chainr built for an identical spec when there is one
      */
     private Object performChainTransformation(Object spec, Object input) {
         Object parsedSpec = parseSpec(spec);
-        Chainr chainr = Chainr.fromSpec(parsedSpec);
+        Chainr chainr = chainrCache.get(parsedSpec);
         return chainr.transform(input);
     }
 
@@ -229,4 +231,11 @@ public class TransformService {
     public List<String> getSupportedOperations() {
         return Arrays.asList("chain");
     }
+
+    /**
+     * @return hit / miss / eviction counters of the cache of compiled chain specs
+     */
+    public ChainrCache.Stats getChainrCacheStats() {
+        return chainrCache.stats();
+    }
 }
\ No newline at end of file